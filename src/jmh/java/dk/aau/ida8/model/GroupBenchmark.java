@@ -0,0 +1,53 @@
+package dk.aau.ida8.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ranking every participant of a ranking group, as done when the
+ * results table is rendered.
+ *
+ * Rankings are cached by the group until a participant changes, so both the
+ * cached lookup and the lookup following a change are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int participants;
+
+    private Group group;
+    private List<Participant> ps;
+
+    @Setup
+    public void setUp() {
+        Competition competition = SyntheticCompetition.create(
+                Competition.CompetitionType.SINCLAIR, participants, 6, 1);
+        ps = new ArrayList<>(competition.getParticipants());
+        group = new Group(competition, new ArrayList<>(ps), Group.ComparatorType.SINCLAIR_RANKING);
+    }
+
+    @Benchmark
+    public void getRank(Blackhole blackhole) {
+        for (Participant p : ps) {
+            blackhole.consume(group.getRank(p));
+        }
+    }
+
+    @Benchmark
+    public void getRankAfterChange(Blackhole blackhole) {
+        group.participantChanged(ps.get(0));
+        for (Participant p : ps) {
+            blackhole.consume(group.getRank(p));
+        }
+    }
+}
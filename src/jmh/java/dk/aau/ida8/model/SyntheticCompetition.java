@@ -0,0 +1,73 @@
+package dk.aau.ida8.model;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+/**
+ * This class builds competitions of synthetic participants, held in memory,
+ * for use in benchmarks.
+ *
+ * Each participant is weighed in with a body weight drawn from a normal
+ * distribution for their gender, and starting weights in proportion to their
+ * body weight. Each then makes a given number of lifts, passing roughly two
+ * in three. Lifts are timestamped in rounds, a minute apart, so that the
+ * participants' timestamps differ just as they would at a real competition.
+ *
+ * The same seed always builds the same competition.
+ */
+public final class SyntheticCompetition {
+
+    private static final LocalDateTime START = LocalDateTime.of(2016, 6, 4, 10, 0);
+    private static final double PASS_RATE = 0.65;
+
+    private SyntheticCompetition() {
+    }
+
+    /**
+     * Builds a competition of synthetic participants.
+     *
+     * @param type         the type of competition to build
+     * @param participants the number of participants in the competition
+     * @param lifts        the number of lifts, from 0 to 6, made by each
+     *                     participant
+     * @param seed         the seed from which participants are drawn
+     * @return             the competition
+     */
+    public static Competition create(Competition.CompetitionType type, int participants, int lifts, long seed) {
+        Random random = new Random(seed);
+        Address address = new Address("", "Østerbro 33", "9000", "Aalborg");
+        Club club = new Club("AK Benchmark", address);
+        Date date = new GregorianCalendar(2016, 5, 4).getTime();
+        Competition competition = new Competition("Benchmark", club, address, type, date, date, participants);
+        for (int i = 0; i < participants; i++) {
+            boolean male = random.nextBoolean();
+            double bodyWeight = male ? normal(random, 85, 15, 50, 160) : normal(random, 65, 12, 44, 120);
+            Lifter lifter = new Lifter("Lifter", "No. " + i, club,
+                    male ? Lifter.Gender.MALE : Lifter.Gender.FEMALE,
+                    new GregorianCalendar(1970 + random.nextInt(35), random.nextInt(12), 1).getTime(),
+                    bodyWeight);
+            lifter.setId(i + 1);
+            Participant p = new Participant(lifter, competition);
+            competition.addParticipant(p);
+
+            int snatch = (int) Math.round(bodyWeight * (male ? 1.3 : 1.05) + random.nextGaussian() * 8);
+            int cleanAndJerk = (int) Math.round(snatch * 1.22 + random.nextGaussian() * 5);
+            p.weighIn(bodyWeight, Math.max(snatch, 20), Math.max(cleanAndJerk, 25));
+        }
+        for (int round = 0; round < lifts; round++) {
+            for (int i = 0; i < participants; i++) {
+                Participant p = competition.getParticipants().get(i);
+                Lift.LiftOutcome outcome = random.nextDouble() < PASS_RATE ?
+                        Lift.LiftOutcome.PASS : Lift.LiftOutcome.FAIL;
+                p.registerLift(outcome, START.plusMinutes((long) round * participants + i));
+            }
+        }
+        return competition;
+    }
+
+    private static double normal(Random random, double mean, double deviation, double min, double max) {
+        return Math.min(max, Math.max(min, mean + random.nextGaussian() * deviation));
+    }
+}
@@ -0,0 +1,45 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.SyntheticCompetition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calculating the Sinclair score of every participant of a
+ * competition which has finished.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SinclairCalculatorBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int participants;
+
+    private SinclairCalculator calculator;
+    private List<Participant> ps;
+
+    @Setup
+    public void setUp() {
+        Competition competition = SyntheticCompetition.create(
+                Competition.CompetitionType.SINCLAIR, participants, 6, 1);
+        calculator = competition.getSinclairCalculator();
+        ps = competition.getParticipants();
+    }
+
+    @Benchmark
+    public double calculateScore() {
+        double total = 0;
+        for (Participant p : ps) {
+            total += calculator.calculateScore(p);
+        }
+        return total;
+    }
+}
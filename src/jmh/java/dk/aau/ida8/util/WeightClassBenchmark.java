@@ -0,0 +1,52 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.SyntheticCompetition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the weight class of every participant of a competition,
+ * both by searching the categories each time and as cached by the
+ * participant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeightClassBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int participants;
+
+    private List<Participant> ps;
+
+    @Setup
+    public void setUp() {
+        ps = SyntheticCompetition.create(Competition.CompetitionType.TOTAL_WEIGHT, participants, 0, 1)
+                .getParticipants();
+    }
+
+    @Benchmark
+    public int findWeightClass() {
+        int total = 0;
+        for (Participant p : ps) {
+            total += WeightClass.findWeightClass(p);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int cachedWeightClass() {
+        int total = 0;
+        for (Participant p : ps) {
+            total += p.getWeightClass();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,50 @@
+package dk.aau.ida8.util.groupbuilders;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Group;
+import dk.aau.ida8.model.SyntheticCompetition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures allocating the participants of a competition to ranking and
+ * competing groups, as done when weigh-in finishes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupBuilderBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int participants;
+
+    @Param({"SINCLAIR", "TOTAL_WEIGHT"})
+    private Competition.CompetitionType type;
+
+    private GroupBuilder builder;
+
+    @Setup
+    public void setUp() {
+        Competition competition = SyntheticCompetition.create(type, participants, 0, 1);
+        if (type == Competition.CompetitionType.SINCLAIR) {
+            builder = new SinclairGroupBuilder(competition);
+        } else {
+            builder = new TotalWeightGroupBuilder(competition);
+        }
+    }
+
+    @Benchmark
+    public List<Group> createRankingGroups() {
+        return builder.createRankingGroups();
+    }
+
+    @Benchmark
+    public List<Group> createCompetingGroups() {
+        return builder.createCompetingGroups();
+    }
+}
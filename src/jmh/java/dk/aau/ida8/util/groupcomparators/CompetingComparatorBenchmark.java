@@ -0,0 +1,48 @@
+package dk.aau.ida8.util.groupcomparators;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.SyntheticCompetition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sorting participants into lifting order, as done each time a lift
+ * is registered.
+ *
+ * Participants have made three lifts, so that the order depends on both the
+ * weights and the timestamps of their lifts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompetingComparatorBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int participants;
+
+    private List<Participant> shuffled;
+
+    @Setup
+    public void setUp() {
+        Competition competition = SyntheticCompetition.create(
+                Competition.CompetitionType.SINCLAIR, participants, 3, 1);
+        shuffled = new ArrayList<>(competition.getParticipants());
+        Collections.shuffle(shuffled, new Random(1));
+    }
+
+    @Benchmark
+    public List<Participant> sort() {
+        List<Participant> ps = new ArrayList<>(shuffled);
+        ps.sort(CompetingComparator.INSTANCE);
+        return ps;
+    }
+}
@@ -0,0 +1,71 @@
+package dk.aau.ida8.load;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records the latency of requests made to each endpoint during a
+ * load test, and reports their throughput and percentiles.
+ *
+ * Endpoints are recorded by their route, such as
+ * "POST /competition/{id}/sign-up", rather than by URL, so that requests to
+ * different competitions are counted together. Recording is safe for use by
+ * more than one thread at once.
+ */
+public class EndpointStatistics {
+
+    private final Map<String, List<Long>> latencies = new TreeMap<>();
+
+    /**
+     * Records the latency of a request to an endpoint.
+     *
+     * @param endpoint the route of the endpoint
+     * @param nanos    the time taken by the request, in nanoseconds
+     */
+    public synchronized void record(String endpoint, long nanos) {
+        latencies.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(nanos);
+    }
+
+    /**
+     * Gets the number of requests recorded for an endpoint.
+     *
+     * @param endpoint the route of the endpoint
+     * @return         the number of requests
+     */
+    public synchronized int getCount(String endpoint) {
+        return latencies.getOrDefault(endpoint, Collections.emptyList()).size();
+    }
+
+    /**
+     * Prints the number of requests, throughput, median, 99th percentile and
+     * maximum latency of each endpoint.
+     *
+     * @param out          the stream to print to
+     * @param elapsedNanos the duration of the load test, in nanoseconds
+     */
+    public synchronized void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%-45s %8s %10s %10s %10s %10s%n", "endpoint", "count", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, List<Long>> e : latencies.entrySet()) {
+            List<Long> sorted = new ArrayList<>(e.getValue());
+            Collections.sort(sorted);
+            out.printf("%-45s %8d %10.1f %10.2f %10.2f %10.2f%n", e.getKey(), sorted.size(),
+                    sorted.size() / seconds, millis(percentile(sorted, 0.5)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.get(sorted.size() - 1)));
+        }
+        out.printf("elapsed %.1fs%n", seconds);
+    }
+
+    /**
+     * Gets a percentile of sorted latencies, by the nearest-rank method.
+     */
+    static long percentile(List<Long> sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,217 @@
+package dk.aau.ida8.load;
+
+import com.codahale.metrics.ConsoleReporter;
+import dk.aau.ida8.Application;
+import dk.aau.ida8.SyntheticDataLoader;
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.service.ParticipantService;
+import dk.aau.ida8.service.RequestStatisticsService;
+import dk.aau.ida8.util.SyntheticMeetGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class drives a load test against the application, running on an
+ * embedded server with a synthetic federation (see {@link SyntheticDataLoader}).
+ *
+ * Each synthetic competition is run concurrently, from its own thread, as its
+ * officials would run it:
+ *
+ * <ol>
+ *     <li>each lifter entered for the competition is signed-up;</li>
+ *     <li>each participant is checked-in at weigh-in, with a body weight and
+ *         starting lifts drawn from a {@link SyntheticMeetGenerator};</li>
+ *     <li>weigh-in is finished, allocating the competing groups; and</li>
+ *     <li>the dashboard is polled, and a lift registered for the current
+ *         participant after every few polls, until the competition is
+ *         complete.</li>
+ * </ol>
+ *
+ * Once every competition is complete, the throughput and latency of each
+ * endpoint is printed, followed by the application's own {@link Metrics} and
+ * the SQL statistics of each handler.
+ *
+ * Arguments are passed to the application, so the size of the federation is
+ * set as for the {@link SyntheticDataLoader}, e.g.
+ * "--synthetic.lifters=2000 --synthetic.competitions=8". The number of
+ * dashboard polls between lifts is set by load.polls (default 3).
+ */
+public class LoadDriver {
+
+    private static final Pattern CURRENT_PARTICIPANT =
+            Pattern.compile("name=\"participantID\" value=\"(\\d+)\"");
+
+    private final String baseUrl;
+    private final ParticipantService participantService;
+    private final EndpointStatistics statistics;
+    private final int polls;
+    private final RestTemplate rest = new RestTemplate();
+
+    /**
+     * Creates a driver for the application at a URL.
+     *
+     * @param baseUrl            the URL of the application
+     * @param participantService the service used to find the participants of
+     *                           a competition for weigh-in
+     * @param statistics         the statistics to which to record requests
+     * @param polls              the number of dashboard polls between lifts
+     */
+    public LoadDriver(String baseUrl, ParticipantService participantService,
+                      EndpointStatistics statistics, int polls) {
+        this.baseUrl = baseUrl;
+        this.participantService = participantService;
+        this.statistics = statistics;
+        this.polls = polls;
+    }
+
+    /**
+     * Starts the application with a synthetic federation, runs each of its
+     * competitions and prints the latency of each endpoint.
+     *
+     * @param args the arguments to pass to the application
+     * @throws Exception if the application cannot be started, or a
+     *                   competition cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        // Devtools would otherwise restart the application in a new class
+        // loader, watching for changes while the load test runs.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String journal = Files.createTempDirectory("journal").toString();
+        EmbeddedWebApplicationContext context = (EmbeddedWebApplicationContext) new SpringApplicationBuilder(Application.class)
+                .profiles("synthetic")
+                .properties("server.port=0", "MANAGEMENT_PORT=0", "engine.journal.location=" + journal)
+                .run(args);
+        try {
+            int port = context.getEmbeddedServletContainer().getPort();
+            int polls = context.getEnvironment().getProperty("load.polls", Integer.class, 3);
+            SyntheticDataLoader loader = context.getBean(SyntheticDataLoader.class);
+            EndpointStatistics statistics = new EndpointStatistics();
+            LoadDriver driver = new LoadDriver("http://localhost:" + port, context.getBean(ParticipantService.class),
+                    statistics, polls);
+
+            Map<Long, List<Long>> entries = loader.getEntries();
+            ExecutorService executor = Executors.newFixedThreadPool(entries.size());
+            try {
+                List<Future<?>> meets = new ArrayList<>();
+                long start = System.nanoTime();
+                int i = 0;
+                for (Map.Entry<Long, List<Long>> e : entries.entrySet()) {
+                    SyntheticMeetGenerator generator = new SyntheticMeetGenerator(loader.getSeed() + ++i);
+                    meets.add(executor.submit(() -> driver.runMeet(e.getKey(), e.getValue(), generator)));
+                }
+                for (Future<?> meet : meets) {
+                    meet.get();
+                }
+                statistics.report(System.out, System.nanoTime() - start);
+                ConsoleReporter.forRegistry(Metrics.getRegistry())
+                        .convertDurationsTo(TimeUnit.MILLISECONDS)
+                        .build()
+                        .report();
+                printRequestStatistics(context.getBean(RequestStatisticsService.class));
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Prints the mean and maximum number of statements prepared by the
+     * requests to each handler, and the number over the query budget.
+     *
+     * @param service the service holding the statistics of each handler
+     */
+    private static void printRequestStatistics(RequestStatisticsService service) {
+        System.out.printf("%-55s %8s %10s %10s %12s%n", "handler", "requests", "mean sql", "max sql",
+                "over budget");
+        for (RequestStatisticsService.HandlerStatistics h : service.getStatistics()) {
+            System.out.printf("%-55s %8d %10.1f %10d %12d%n", h.getHandler(), h.getRequests(),
+                    h.getStatements() / (double) h.getRequests(), h.getMaxStatements(), h.getOverBudget());
+        }
+    }
+
+    /**
+     * Runs a competition from sign-up to its last lift.
+     *
+     * @param competitionId the ID# of the competition
+     * @param lifterIds     the ID#s of the lifters entered for the competition
+     * @param generator     the generator from which to draw weights and lift
+     *                      outcomes
+     */
+    public void runMeet(long competitionId, List<Long> lifterIds, SyntheticMeetGenerator generator) {
+        String competition = "/competition/" + competitionId;
+        for (long lifterId : lifterIds) {
+            post("POST /competition/{id}/sign-up", competition + "/sign-up", form("id", lifterId));
+        }
+
+        long after = 0;
+        Slice<Participant> participants;
+        do {
+            participants = participantService.findByCompetition(competitionId, after);
+            for (Participant p : participants) {
+                double bodyWeight = generator.nextWeighInBodyWeight(p.getLifter());
+                int snatch = generator.nextStartingSnatch(p.getLifter(), bodyWeight);
+                post("POST /competition/{id}/weigh-in/check-in", competition + "/weigh-in/check-in",
+                        form("participantID", p.getId(), "bodyWeight", bodyWeight, "startingSnatch", snatch,
+                                "startingCJ", generator.nextStartingCleanAndJerk(snatch)));
+                after = p.getId();
+            }
+        } while (participants.hasNext());
+
+        post("POST /competition/{id}/competing-groups", competition + "/competing-groups", form());
+
+        // Each participant makes six lifts; the bound guards against a
+        // competition which never completes.
+        int maxLifts = lifterIds.size() * 6;
+        for (int lifts = 0; lifts <= maxLifts; lifts++) {
+            String dashboard = null;
+            for (int poll = 0; poll < polls; poll++) {
+                dashboard = get("GET /competition/{id}/dashboard", competition + "/dashboard");
+            }
+            Matcher current = CURRENT_PARTICIPANT.matcher(dashboard);
+            if (!current.find()) {
+                return;
+            }
+            post("POST /participant/register-lift", "/participant/register-lift",
+                    form("action", generator.nextOutcome(), "participantID", current.group(1)));
+        }
+        throw new IllegalStateException("competition " + competitionId + " did not complete after "
+                + maxLifts + " lifts");
+    }
+
+    private String get(String endpoint, String path) {
+        long start = System.nanoTime();
+        String body = rest.getForObject(baseUrl + path, String.class);
+        statistics.record(endpoint, System.nanoTime() - start);
+        return body;
+    }
+
+    private void post(String endpoint, String path, MultiValueMap<String, Object> form) {
+        long start = System.nanoTime();
+        rest.postForEntity(baseUrl + path, form, String.class);
+        statistics.record(endpoint, System.nanoTime() - start);
+    }
+
+    private static MultiValueMap<String, Object> form(Object... namesAndValues) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            form.add((String) namesAndValues[i], namesAndValues[i + 1].toString());
+        }
+        return form;
+    }
+}
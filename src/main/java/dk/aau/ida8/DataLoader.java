@@ -5,6 +5,7 @@ import dk.aau.ida8.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 import java.util.*;
 
 @Component
+@DependsOn("sequenceAligner")
 public class DataLoader {
 
     @Autowired
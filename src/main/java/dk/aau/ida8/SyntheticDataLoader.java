@@ -0,0 +1,134 @@
+package dk.aau.ida8;
+
+import dk.aau.ida8.data.AddressRepository;
+import dk.aau.ida8.data.ClubRepository;
+import dk.aau.ida8.data.CompetitionRepository;
+import dk.aau.ida8.data.LifterRepository;
+import dk.aau.ida8.model.*;
+import dk.aau.ida8.util.SyntheticMeetGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * This class loads a synthetic federation for use in load testing: a number
+ * of clubs, their lifters and a number of competitions held today, each open
+ * for sign-up.
+ *
+ * Synthetic data is only loaded when the "synthetic" profile is active. The
+ * size of the federation is set by the properties:
+ *
+ * <ul>
+ *     <li>synthetic.clubs, the number of clubs (default 20);</li>
+ *     <li>synthetic.lifters, the number of lifters (default 1,000);</li>
+ *     <li>synthetic.competitions, the number of competitions (default 4);
+ *         and</li>
+ *     <li>synthetic.seed, the seed from which the data is generated
+ *         (default 1).</li>
+ * </ul>
+ *
+ * Lifters are spread evenly over the clubs, and each lifter is entered for
+ * one of the competitions (see {@link #getEntries()}). No lifter is signed-up,
+ * however: this is left to the load test, along with the rest of each meet.
+ */
+@Component
+@Profile("synthetic")
+@DependsOn("dataLoader")
+public class SyntheticDataLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private AddressRepository addressRepository;
+    private ClubRepository clubRepository;
+    private LifterRepository lifterRepository;
+    private CompetitionRepository competitionRepository;
+
+    @Value("${synthetic.clubs:20}")
+    private int clubCount;
+    @Value("${synthetic.lifters:1000}")
+    private int lifterCount;
+    @Value("${synthetic.competitions:4}")
+    private int competitionCount;
+    @Value("${synthetic.seed:1}")
+    private long seed;
+
+    private Map<Long, List<Long>> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public SyntheticDataLoader(AddressRepository addressRepository,
+                               ClubRepository clubRepository,
+                               LifterRepository lifterRepository,
+                               CompetitionRepository competitionRepository) {
+        this.addressRepository = addressRepository;
+        this.clubRepository = clubRepository;
+        this.lifterRepository = lifterRepository;
+        this.competitionRepository = competitionRepository;
+    }
+
+    /**
+     * Loads the synthetic clubs, lifters and competitions.
+     */
+    @PostConstruct
+    public void loadData() {
+        SyntheticMeetGenerator generator = new SyntheticMeetGenerator(seed);
+
+        List<Club> clubs = new ArrayList<>();
+        for (int i = 0; i < clubCount; i++) {
+            Address address = addressRepository.save(generator.nextAddress());
+            clubs.add(generator.nextClub(address));
+        }
+        clubRepository.save(clubs);
+
+        List<Lifter> lifters = new ArrayList<>();
+        for (int i = 0; i < lifterCount; i++) {
+            lifters.add(generator.nextLifter(clubs.get(i % clubs.size())));
+        }
+        lifterRepository.save(lifters);
+
+        List<Competition> competitions = new ArrayList<>();
+        int maxParticipants = (lifterCount + competitionCount - 1) / competitionCount;
+        for (int i = 0; i < competitionCount; i++) {
+            Club host = clubs.get(i % clubs.size());
+            Competition.CompetitionType type = i % 2 == 0 ?
+                    Competition.CompetitionType.SINCLAIR :
+                    Competition.CompetitionType.TOTAL_WEIGHT;
+            competitions.add(new Competition("Synthetic meet " + (i + 1), host, host.getAddress(),
+                    type, new Date(), new Date(), maxParticipants));
+        }
+        competitionRepository.save(competitions);
+
+        for (Competition c : competitions) {
+            entries.put(c.getId(), new ArrayList<>());
+        }
+        for (int i = 0; i < lifters.size(); i++) {
+            entries.get(competitions.get(i % competitions.size()).getId()).add(lifters.get(i).getId());
+        }
+        log.info("loaded {} clubs, {} lifters and {} competitions", clubCount, lifterCount, competitionCount);
+    }
+
+    /**
+     * Gets the lifters entered for each synthetic competition.
+     *
+     * @return a map from the ID# of each competition to the ID#s of the
+     *         lifters entered for it
+     */
+    public Map<Long, List<Long>> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Gets the seed from which the synthetic data was generated.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,154 @@
+package dk.aau.ida8.controller;
+
+import com.google.gson.Gson;
+import dk.aau.ida8.engine.CompetitionEngineService;
+import dk.aau.ida8.service.CacheService;
+import dk.aau.ida8.service.RequestStatisticsService;
+import dk.aau.ida8.service.SinclairCoefficientService;
+import dk.aau.ida8.util.SinclairCoefficient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class is the controller for administrative activities within this
+ * software.
+ *
+ * The AdminController exposes routes relating to the configuration of the
+ * running application, such as the Sinclair coefficients used in scoring, and
+ * to its diagnostics.
+ */
+@Controller
+@RequestMapping("/admin")
+public class AdminController {
+
+    private SinclairCoefficientService sinclairCoefficientService;
+    private CompetitionEngineService engineService;
+    private CacheService cacheService;
+    private RequestStatisticsService requestStatisticsService;
+
+    /**
+     * Instantiates an AdminController.
+     *
+     * Uses the @Autowired annotation to automatically create instances of the
+     * required services.
+     *
+     * @param sinclairCoefficientService the service used to access Sinclair
+     *                                   coefficients
+     * @param engineService              the service used to run
+     *                                   competitions
+     * @param cacheService               the service used to manage the
+     *                                   cache of reference data
+     * @param requestStatisticsService   the service used to collect the SQL
+     *                                   statistics of each request
+     */
+    @Autowired
+    public AdminController(SinclairCoefficientService sinclairCoefficientService,
+                           CompetitionEngineService engineService,
+                           CacheService cacheService,
+                           RequestStatisticsService requestStatisticsService) {
+        this.sinclairCoefficientService = sinclairCoefficientService;
+        this.engineService = engineService;
+        this.cacheService = cacheService;
+        this.requestStatisticsService = requestStatisticsService;
+    }
+
+    /**
+     * Lists the Sinclair coefficients for every Olympic cycle.
+     *
+     * @return JSON list of the Sinclair coefficients
+     */
+    @ResponseBody
+    @RequestMapping(value = "/sinclair-coefficients", method = RequestMethod.GET)
+    public String sinclairCoefficients() {
+        return new Gson().toJson(sinclairCoefficientService.findAll());
+    }
+
+    /**
+     * Reloads the Sinclair coefficients for every Olympic cycle.
+     *
+     * The leaderboards of running competitions are recreated, and published
+     * to their scoreboards, using the reloaded coefficients. Other
+     * competitions are scored using them from the next time their scores are
+     * calculated.
+     *
+     * @return JSON response code for success, or error code and message on
+     *         failure
+     */
+    @ResponseBody
+    @RequestMapping(value = "/sinclair-coefficients/reload", method = RequestMethod.POST)
+    public String reloadSinclairCoefficients() {
+        try {
+            List<SinclairCoefficient> coefficients = sinclairCoefficientService.reload();
+            engineService.refreshLeaderboards();
+            return jsonResponse(200, "Loaded coefficients for " +
+                    coefficients.size() + " cycles");
+        } catch (IOException e) {
+            return jsonResponse(500, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return jsonResponse(400, e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the statistics of each region of the cache of reference data,
+     * including its hit rate.
+     *
+     * @return JSON list of the statistics of each cache region
+     */
+    @ResponseBody
+    @RequestMapping(value = "/cache-statistics", method = RequestMethod.GET)
+    public String cacheStatistics() {
+        return new Gson().toJson(cacheService.getStatistics());
+    }
+
+    /**
+     * Lists the SQL and Hibernate statistics of the requests to each handler
+     * since the application started, or since they were last reset. Each
+     * handler lists the number of its requests which exceeded the query
+     * budget.
+     *
+     * @return JSON object of the query budget and the statistics of each
+     *         handler
+     */
+    @ResponseBody
+    @RequestMapping(value = "/request-statistics", method = RequestMethod.GET)
+    public String requestStatistics() {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("queryBudget", requestStatisticsService.getQueryBudget());
+        map.put("handlers", requestStatisticsService.getStatistics());
+        return new Gson().toJson(map);
+    }
+
+    /**
+     * Discards the SQL and Hibernate statistics of every handler.
+     *
+     * @return JSON response code for success
+     */
+    @ResponseBody
+    @RequestMapping(value = "/request-statistics/reset", method = RequestMethod.POST)
+    public String resetRequestStatistics() {
+        requestStatisticsService.reset();
+        return jsonResponse(200, "Request statistics reset");
+    }
+
+    /**
+     * Generates a JSON response String for a given code and message.
+     *
+     * @param code the HTTP response code
+     * @param msg  the message to return within the JSON response
+     */
+    private String jsonResponse(int code, String msg) {
+        HashMap<String, String> map = new HashMap<>();
+        map.put("code", Integer.toString(code));
+        map.put("msg", msg);
+        Gson gson = new Gson();
+        return gson.toJson(map);
+    }
+}
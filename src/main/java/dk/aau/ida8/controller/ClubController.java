@@ -45,16 +45,23 @@ public class ClubController {
     /**
      * Displays the new lifter view for creating a lifter in a particular club.
      *
+     * The lifters of the club are listed a page at a time, starting after the
+     * lifter with the ID# given.
+     *
      * @param id    the club ID#
+     * @param after the ID# of the lifter after which to list lifters
      * @param model the Spring model object to pass to the view
      * @return      the new lifter form view
      */
     @RequestMapping("/new-lifter")
-    public String newLifter(@RequestParam(value = "id", required = false, defaultValue = "1") Long id, Model model) {
+    public String newLifter(@RequestParam(value = "id", required = false, defaultValue = "1") Long id,
+                            @RequestParam(value = "after", defaultValue = "0") long after,
+                            Model model) {
         Club currentClub = clubService.findOne(id);
 
         model.addAttribute("clubs", clubService.findAll());
-        model.addAttribute("lifters", currentClub.getLifters());
+        model.addAttribute("currentClub", currentClub);
+        model.addAttribute("lifters", lifterService.findByClub(currentClub.getId(), after));
         model.addAttribute("lifter", new Lifter());
 
         return "club-lifters";
@@ -62,7 +69,7 @@ public class ClubController {
 
     /**
      * Saves a new lifter based on details passed to the form in the new lifter
-     * view (see {@link #newLifter(Long, Model) newLifter}).
+     * view (see {@link #newLifter(Long, long, Model) newLifter}).
      *
      * The lifter is associated with the club represented by the ID# passed as
      * parameter to this method.
@@ -72,13 +79,14 @@ public class ClubController {
      *
      * @param id     the club ID#
      * @param lifter the new lifter to create and associate with club
-     * @return       redirect to {@link #newLifter(Long, Model) new lifter} view
+     * @return       redirect to {@link #newLifter(Long, long, Model) new lifter} view
      */
     @RequestMapping(value="/save", method = RequestMethod.POST)
     public String saveLifter(@RequestParam(value = "lifter-club-id", required = false, defaultValue = "1") Long id, Lifter lifter) {
+        // The lifter joins the club through its own club, without loading
+        // every lifter of the club to add it to the club's list.
         Club currentClub = clubService.findOne(id);
         lifter.setClub(currentClub);
-        currentClub.addLifter(lifter);
         lifterService.saveLifter(lifter);
 
         return "redirect:/club/new-lifter";
@@ -92,16 +100,13 @@ public class ClubController {
      * to move to a new club, retaining their profile.
      *
      * @param id the ID# of the lifter to remove
-     * @return   redirect to {@link #newLifter(Long, Model) new lifter} view
+     * @return   redirect to {@link #newLifter(Long, long, Model) new lifter} view
      */
     @RequestMapping("/remove/{id}")
     public String removeLifter(@PathVariable Long id) {
         Lifter lifter = lifterService.findOne(id);
-        Club club = clubService.findByName(lifter.getClubName());
         lifter.setClub(null);
-        club.removeLifter(lifter);
         lifterService.saveLifter(lifter);
-        clubService.saveClub(club);
         return "redirect:/club/new-lifter";
     }
 
@@ -127,7 +132,7 @@ public class ClubController {
      * incorrect/invalid data being stored within the system.
      *
      * @param lifter the lifter to update
-     * @return       redirect to {@link #newLifter(Long, Model) new lifter} view
+     * @return       redirect to {@link #newLifter(Long, long, Model) new lifter} view
      */
     @RequestMapping(value="/lifter/save", method = RequestMethod.POST)
     public String saveUpdatedLifter(Lifter lifter) {
@@ -1,15 +1,20 @@
 package dk.aau.ida8.controller;
 
 import com.google.gson.Gson;
+import dk.aau.ida8.engine.CompetitionEngine;
+import dk.aau.ida8.engine.CompetitionEngineService;
 import dk.aau.ida8.model.*;
 import dk.aau.ida8.service.*;
+import dk.aau.ida8.util.WeightClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.InvalidParameterException;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class is the controller for all competition-centric activities within
@@ -27,6 +32,8 @@ public class CompetitionController {
     private ParticipantService participantService;
     private ClubService clubService;
     private AddressService addressService;
+    private ScoreboardService scoreboardService;
+    private CompetitionEngineService engineService;
 
     /**
      * Instantiates a CompetitionController.
@@ -40,18 +47,26 @@ public class CompetitionController {
      * @param participantService the service used to access Participant data
      * @param clubService        the service used to access Club data
      * @param addressService     the service used to access Address data
+     * @param scoreboardService  the service used to push updates to live
+     *                           scoreboards
+     * @param engineService      the service used to access the live state of
+     *                           running competitions
      */
     @Autowired
     public CompetitionController(LifterService lifterService,
                                  CompetitionService competitionService,
                                  ParticipantService participantService,
                                  ClubService clubService,
-                                 AddressService addressService) {
+                                 AddressService addressService,
+                                 ScoreboardService scoreboardService,
+                                 CompetitionEngineService engineService) {
         this.lifterService = lifterService;
         this.competitionService = competitionService;
         this.participantService = participantService;
         this.clubService = clubService;
         this.addressService = addressService;
+        this.scoreboardService = scoreboardService;
+        this.engineService = engineService;
     }
 
     /**
@@ -63,6 +78,7 @@ public class CompetitionController {
     @RequestMapping(value="/new", method = RequestMethod.GET)
     public String newCompetition(Model model){
         model.addAttribute("allClubs", clubService.findAll());
+        model.addAttribute("allWeightCategories", WeightClass.getCategoryNames());
         model.addAttribute("competition", new Competition());
         return "new-competition";
     }
@@ -107,7 +123,7 @@ public class CompetitionController {
      */
     @RequestMapping("/{competitionID}/participants")
     public String competitionParticipants(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
+        Competition competition = competitionService.findOneWithParticipants(competitionID);
         model.addAttribute("competition", competition);
         return "competition-participants";
     }
@@ -124,27 +140,100 @@ public class CompetitionController {
      * {@link #viewRankingGroups(Model, long) results} view. Otherwise, it will
      * redirect to the {@link #competitionOverview(Model, long) overview} view.
      *
+     * While the competition is running, the dashboard is displayed from the
+     * leaderboard held by the competition's engine, without reading from the
+     * database.
+     *
      * @param model         the Spring model object to pass to the view
      * @param competitionID the ID# of the competition to view
      * @return              the competition dashboard view
      */
     @RequestMapping("/{competitionID}/dashboard")
     public String competitionDashboard(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
-        model.addAttribute("competition", competition);
-
-        if (competition.isCompetitionStarted()) {
-            Optional<Group> currGroup = competition.getCurrentCompetingGroup();
-            model.addAttribute("participants", currGroup.get().getParticipants());
-            model.addAttribute("currParticipant", competition.getCurrentParticipant());
+        Optional<CompetitionEngine> engine = engineService.getEngine(competitionID);
+        if (engine.isPresent() && !engine.get().getLeaderboard().isComplete()) {
+            Leaderboard leaderboard = engine.get().getLeaderboard();
+            model.addAttribute("participants", leaderboard.getCompetingRows());
+            model.addAttribute("currParticipant", leaderboard.getCurrentRow());
             return "competition-dashboard";
-        } else if (competition.isCompetitionComplete()) {
+        }
+
+        Competition competition = competitionService.findOneWithCompetingGroups(competitionID);
+        if (engine.isPresent() || competition.isCompetitionComplete()) {
             return "redirect:/competition/" + competitionID + "/results";
         } else {
             return "redirect:/competition/" + competitionID;
         }
     }
 
+    /**
+     * Displays the live scoreboard for a given competition.
+     *
+     * The scoreboard is intended for spectators. Once displayed, it subscribes
+     * to the {@link #scoreboardStream(long) scoreboard stream} and updates
+     * itself as lifts are made, without reloading the page.
+     *
+     * While the competition is running, the scoreboard is displayed from the
+     * leaderboard held by the competition's engine, without reading from the
+     * database.
+     *
+     * @param model         the Spring model object to pass to the view
+     * @param competitionID the ID# of the competition to view
+     * @return              the competition scoreboard view
+     */
+    @RequestMapping("/{competitionID}/scoreboard")
+    public String competitionScoreboard(Model model, @PathVariable long competitionID) {
+        Leaderboard leaderboard = findLeaderboard(competitionID);
+        model.addAttribute("competitionID", competitionID);
+        model.addAttribute("rankingGroups", leaderboard.getRankingSections());
+        return "competition-scoreboard";
+    }
+
+    /**
+     * Streams updates to the live scoreboard for a given competition.
+     *
+     * This uses server-sent events. A snapshot event, containing the standing
+     * of every participant, is sent first. An update event is then sent each
+     * time the competition changes, containing only the changes.
+     *
+     * While the competition is running, the scoreboard subscribes through
+     * its engine, so that no change is missed between the snapshot and the
+     * updates.
+     *
+     * @param competitionID the ID# of the competition to stream
+     * @return              the emitter through which events are sent
+     */
+    @RequestMapping(value = "/{competitionID}/scoreboard/stream", method = RequestMethod.GET)
+    public SseEmitter scoreboardStream(@PathVariable long competitionID) {
+        Optional<CompetitionEngine> engine = engineService.getEngine(competitionID);
+        if (engine.isPresent()) {
+            try {
+                return engine.get().subscribe();
+            } catch (RejectedExecutionException e) {
+                // The competition has just completed, so no further changes
+                // will be published.
+            }
+        }
+        return scoreboardService.subscribe(findLeaderboard(competitionID));
+    }
+
+    /**
+     * Finds the current leaderboard of a competition, from its engine if it
+     * is running, or else from the database.
+     *
+     * @param competitionID the ID# of the competition
+     * @return              the leaderboard of the competition
+     */
+    private Leaderboard findLeaderboard(long competitionID) {
+        Optional<CompetitionEngine> engine = engineService.getEngine(competitionID);
+        if (engine.isPresent()) {
+            return engine.get().getLeaderboard();
+        }
+        long version = engineService.getLeaderboardVersion(competitionID);
+        Competition competition = competitionService.findOneWithRankingGroups(competitionID);
+        return engineService.getLeaderboard(competition, version);
+    }
+
     /**
      * Displays the sign-up view for a given competition.
      *
@@ -152,25 +241,40 @@ public class CompetitionController {
      * is complete, this controller redirects to the
      * {@link #competitionOverview(Model, long) overview} view.
      *
-     * @param id            the ID# of the club to sign-up
-     * @param model         the Spring model object to pass to the view
-     * @param competitionID the ID# of the competition to view
-     * @return              the competition dashboard view
+     * The participants of the competition and the lifters of the club are
+     * each listed a page at a time, starting after the participant or lifter
+     * with the ID# given.
+     *
+     * @param id                the ID# of the club to sign-up
+     * @param participantsAfter the ID# of the participant after which to list
+     *                          participants
+     * @param liftersAfter      the ID# of the lifter after which to list
+     *                          lifters
+     * @param model             the Spring model object to pass to the view
+     * @param competitionID     the ID# of the competition to view
+     * @return                  the competition dashboard view
      */
     @RequestMapping("/{competitionID}/sign-up")
-    public String competitionSignup(@RequestParam(value = "id", required = false, defaultValue = "-1") Long id, Model model, @PathVariable long competitionID) {
+    public String competitionSignup(@RequestParam(value = "id", required = false, defaultValue = "-1") Long id,
+                                    @RequestParam(value = "participantsAfter", defaultValue = "0") long participantsAfter,
+                                    @RequestParam(value = "liftersAfter", defaultValue = "0") long liftersAfter,
+                                    Model model, @PathVariable long competitionID) {
         Competition competition = competitionService.findOne(competitionID);
+        Iterable<Club> clubs = clubService.findAll();
         Club currentClub;
         if (id == -1) {
-          currentClub = clubService.findAll().iterator().next();
+          currentClub = clubs.iterator().next();
         } else {
           currentClub = clubService.findOne(id);
         }
 
         model.addAttribute("competition", competition);
-        model.addAttribute("participants", competition.getParticipants());
-        model.addAttribute("clubs", clubService.findAll());
-        model.addAttribute("lifters", currentClub.getLifters());
+        model.addAttribute("participantCount", participantService.countByCompetition(competitionID));
+        model.addAttribute("participants", participantService.findByCompetition(competitionID, participantsAfter));
+        model.addAttribute("clubs", clubs);
+        model.addAttribute("lifterCounts", lifterService.countByClub());
+        model.addAttribute("currentClub", currentClub);
+        model.addAttribute("lifters", lifterService.findByClub(currentClub.getId(), liftersAfter));
         return "competition-sign-up";
     }
 
@@ -180,15 +284,12 @@ public class CompetitionController {
      * @param id            the ID# of the lifter to sign-up
      * @param competitionID the ID# of the competition to sign-up a lifter to
      * @return              redirect to the
-     *                      {@link #competitionSignup(Long, Model, long) sign-up}
+     *                      {@link #competitionSignup(Long, long, long, Model, long) sign-up}
      *                      view
      */
     @RequestMapping(value = "/{competitionID}/sign-up", method = RequestMethod.POST)
     public String signupLifterToCompetition(@RequestParam(value = "id", required = true) Long id, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
-        Lifter lifter = lifterService.findOne(id);
-        competition.addParticipant(lifter);
-        competitionService.save(competition);
+        competitionService.signUp(competitionID, id);
         return "redirect:/competition/" + competitionID + "/sign-up";
     }
 
@@ -198,15 +299,12 @@ public class CompetitionController {
      * @param id            the ID# of the lifter to sign-up
      * @param competitionID the ID# of the competition to sign-up a lifter to
      * @return              redirect to the
-     *                      {@link #competitionSignup(Long, Model, long) sign-up}
+     *                      {@link #competitionSignup(Long, long, long, Model, long) sign-up}
      *                      view
      */
     @RequestMapping(value= "/{competitionID}/remove", method = RequestMethod.POST)
     public String removeLifterFromCompetition(@RequestParam(value = "id", required = false) Long id, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
-        Lifter lifter = lifterService.findOne(id);
-        competition.removeParticipant(lifter);
-        competitionService.save(competition);
+        competitionService.removeParticipant(competitionID, id);
         return "redirect:/competition/" + competitionID + "/sign-up";
     }
 
@@ -224,7 +322,7 @@ public class CompetitionController {
      */
     @RequestMapping("/{competitionID}/weigh-in")
     public String controlWeighInParticipants(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
+        Competition competition = competitionService.findOneWithParticipants(competitionID);
         if (competition.isWeighInStarted()) {
             model.addAttribute("competition", competition);
             model.addAttribute("participants", competition.getParticipants());
@@ -336,7 +434,7 @@ public class CompetitionController {
      */
     @RequestMapping(value = "/{competitionID}/competing-groups", method = RequestMethod.POST)
     public String weighInParticipants(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
+        Competition competition = competitionService.findOneWithParticipants(competitionID);
         competition.finishWeighIn();
         competitionService.save(competition);
         return "redirect:/competition/" + competitionID + "/competing-groups";
@@ -355,7 +453,7 @@ public class CompetitionController {
      */
     @RequestMapping("/{competitionID}/competing-groups")
     public String viewCompetingGroups(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
+        Competition competition = competitionService.findOneWithCompetingGroups(competitionID);
         if (competition.isWeighInComplete()) {
             model.addAttribute("competingGroups", competition.getCompetingGroups());
             model.addAttribute("competition", competition);
@@ -378,10 +476,22 @@ public class CompetitionController {
      */
     @RequestMapping("/{competitionID}/results")
     public String viewRankingGroups(Model model, @PathVariable long competitionID) {
-        Competition competition = competitionService.findOne(competitionID);
-        if (competition.isCompetitionComplete()) {
-            model.addAttribute("rankingGroups", competition.getRankingGroups());
-            model.addAttribute("competition", competition);
+        // A running competition has completed weigh-in, so its engine alone
+        // determines whether it is complete.
+        Optional<CompetitionEngine> engine = engineService.getEngine(competitionID);
+        boolean complete;
+        Leaderboard leaderboard;
+        if (engine.isPresent()) {
+            leaderboard = engine.get().getLeaderboard();
+            complete = leaderboard.isComplete();
+        } else {
+            long version = engineService.getLeaderboardVersion(competitionID);
+            Competition competition = competitionService.findOneWithRankingGroups(competitionID);
+            leaderboard = engineService.getLeaderboard(competition, version);
+            complete = competition.isWeighInComplete() && leaderboard.isComplete();
+        }
+        if (complete) {
+            model.addAttribute("rankingGroups", leaderboard.getRankingSections());
             return "ranking-groups";
         } else {
             return "redirect:/competition/" + competitionID;
@@ -1,13 +1,13 @@
 package dk.aau.ida8.controller;
 
-import dk.aau.ida8.model.Competition;
 import dk.aau.ida8.service.CompetitionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.*;
+import java.util.Date;
 
 /**
  * This class is the controller for the index page of the software.
@@ -25,30 +25,20 @@ public class IndexController {
     /**
      * Display the index page view.
      *
+     * Lists the competitions held today, those upcoming and a page of those
+     * held in the past, latest first.
+     *
+     * @param page  the page of past competitions to display, numbered from 0
      * @param model the Spring model to pass to the view
      * @return      the index page view
      */
     @RequestMapping("/")
-    public String index(Model model) {
-        Calendar cal = new GregorianCalendar();
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        Date today = cal.getTime();
-
-        Iterable<Competition> competitions = competitionService.findAll();
-        List<Competition> futureComps = new ArrayList<>();
-        List<Competition> pastComps = new ArrayList<>();
-        for (Competition c : competitions) {
-            if (c.getCompetitionDate().before(today)) {
-                pastComps.add(c);
-            } else {
-                futureComps.add(c);
-            }
-        }
-        model.addAttribute("competitions", competitionService.findAll());
-        model.addAttribute("pastCompetitions", pastComps);
-        model.addAttribute("futureCompetitions", futureComps);
+    public String index(@RequestParam(value = "page", defaultValue = "0") int page,
+                        Model model) {
+        Date today = new Date();
+        model.addAttribute("todaysCompetitions", competitionService.findOnDay(today));
+        model.addAttribute("futureCompetitions", competitionService.findAfterDay(today));
+        model.addAttribute("pastCompetitions", competitionService.findBeforeDay(today, Math.max(page, 0)));
         return "index";
     }
 }
@@ -2,10 +2,12 @@ package dk.aau.ida8.controller;
 
 
 import com.google.gson.Gson;
-import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.engine.CompetitionEngineService;
+import dk.aau.ida8.engine.ParticipantCommand;
+import dk.aau.ida8.metrics.Metrics;
 import dk.aau.ida8.model.Lift;
 import dk.aau.ida8.model.Participant;
-import dk.aau.ida8.service.LiftService;
+import dk.aau.ida8.model.ParticipantEvent;
 import dk.aau.ida8.service.ParticipantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -16,6 +18,7 @@ import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class is the controller for all participant-centric activities within
@@ -30,7 +33,7 @@ import java.util.List;
 public class ParticipantController {
 
     private ParticipantService participantService;
-    private LiftService liftService;
+    private CompetitionEngineService engineService;
 
     /**
      * Instantiates a ClubController.
@@ -40,13 +43,15 @@ public class ParticipantController {
      * creating these services.
      *
      * @param participantService the service used to access Participant data
-     * @param liftService        the service used to access Lift data
+     * @param engineService      the service used to apply changes to
+     *                           participants, through the engine of a
+     *                           running competition
      */
     @Autowired
     public ParticipantController(ParticipantService participantService,
-                                 LiftService liftService) {
+                                 CompetitionEngineService engineService) {
         this.participantService = participantService;
-        this.liftService = liftService;
+        this.engineService = engineService;
     }
 
     /**
@@ -65,24 +70,17 @@ public class ParticipantController {
     public String registerLift(Model model,
                                @RequestParam("action") String action,
                                @RequestParam("participantID") long participantID) {
-        Participant p = participantService.findOne(participantID);
-        switch (action) {
-            case "PASS":
-                p.addPassedLift();
-                break;
-            case "FAIL":
-                p.addFailedLift();
-                break;
-            case "ABSTAIN":
-                p.addAbstainedLift();
-                break;
-            default:
-                throw new ResourceNotFoundException();
+        Lift.LiftOutcome outcome;
+        try {
+            outcome = Lift.LiftOutcome.valueOf(action);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException();
         }
-        participantService.saveParticipant(p);
-        Competition c = p.getCompetition();
-        model.addAttribute("participant", p);
-        return "redirect:/competition/" + c.getId() + "/dashboard";
+        Lift lift = Metrics.time("participant.registerLift",
+                () -> engineService.execute(ParticipantCommand.registerLift(participantID, outcome)));
+        Metrics.counter("lift." + outcome.name().toLowerCase()).inc();
+        long competitionID = lift.getParticipant().getCompetition().getId();
+        return "redirect:/competition/" + competitionID + "/dashboard";
     }
 
     /**
@@ -94,7 +92,7 @@ public class ParticipantController {
      */
     @RequestMapping(value="/correct-lifts/{participantID}", method = RequestMethod.GET)
     public String correctCompletedLift(Model model, @PathVariable long participantID){
-        Participant p = participantService.findOne(participantID);
+        Participant p = findParticipant(participantID);
         model.addAttribute("participant", p);
         return "correct-lift-form";
     }
@@ -108,6 +106,9 @@ public class ParticipantController {
      * and also ensure that the integer is greater than 0. This method
      * elegantly handles cases where this is not so.
      *
+     * Only lifts whose weight differs from the participant's current weight
+     * for that lift are corrected. Unchanged lifts record no correction.
+     *
      * @param model the Spring model object to pass to the view
      * @param participantID the ID# of the participant whose lifts are to change
      * @param liftStrs the new weights to set for the participants lifts
@@ -120,19 +121,19 @@ public class ParticipantController {
     public String submitCorrectedLifts(Model model,
                                        @RequestParam("id") long participantID,
                                        @RequestParam(value = "lift") List<String> liftStrs) {
-        Participant p = participantService.findOne(participantID);
-        model.addAttribute("participant", p);
         String response;
         List<String> msgs = new ArrayList<>();
+        List<Lift> lifts = findParticipant(participantID).getLifts();
 
         for (int i = 0; i < liftStrs.size(); i++) {
             try {
                 int currWeight = Integer.parseInt(liftStrs.get(i));
-                Lift currLift = p.getLifts().get(i);
-                if (currWeight != currLift.getWeight()) {
-                    currLift.setWeight(currWeight);
+                // Only lifts whose weight has changed are corrected, so that
+                // each correction records a single change.
+                if (i < lifts.size() && lifts.get(i).getWeight() == currWeight) {
+                    continue;
                 }
-                liftService.saveLift(currLift);
+                engineService.execute(ParticipantCommand.correctLift(participantID, i, currWeight));
             } catch (NumberFormatException e) {
                 String msg = "unable to process input weight '" + liftStrs.get(i) +
                         "' (a number is required)";
@@ -163,7 +164,7 @@ public class ParticipantController {
     @RequestMapping(value = "/increase-weight/{participantID}", method = RequestMethod.GET)
     public String increaseWeightForm(Model model,
                                      @PathVariable long participantID) {
-        Participant p = participantService.findOne(participantID);
+        Participant p = findParticipant(participantID);
         model.addAttribute(p);
         if (!p.canChangeWeight()) {
             String msg = "unable to increase weight: this participant has " +
@@ -194,13 +195,10 @@ public class ParticipantController {
     public String increaseWeight(Model model,
                                  @RequestParam("id") long participantID,
                                  @RequestParam("currentWeight") String weightStr) {
-        Participant p = participantService.findOne(participantID);
-        model.addAttribute("participant", p);
         String response;
         try {
             int weight = Integer.parseInt(weightStr);
-            p.increaseWeight(weight);
-            participantService.saveParticipant(p);
+            engineService.execute(ParticipantCommand.increaseWeight(participantID, weight));
             response = jsonResponse(200, "All good!");
         } catch (NumberFormatException e) {
             String msg = "unable to process input weight '" + weightStr +
@@ -232,7 +230,7 @@ public class ParticipantController {
     @RequestMapping(value = "/correct-weight/{participantID}", method = RequestMethod.GET)
     public String correctWeightForm(Model model,
                                     @PathVariable long participantID) {
-        Participant p = participantService.findOne(participantID);
+        Participant p = findParticipant(participantID);
         model.addAttribute(p);
         return "correct-weight-form";
     }
@@ -256,13 +254,10 @@ public class ParticipantController {
     public String correctWeight(Model model,
                                 @RequestParam("id") long participantID,
                                 @RequestParam("currentWeight") String weightStr) {
-        Participant p = participantService.findOne(participantID);
-        model.addAttribute("participant", p);
         String response;
         try {
             int weight = Integer.parseInt(weightStr);
-            p.correctWeight(weight);
-            participantService.saveParticipant(p);
+            engineService.execute(ParticipantCommand.correctWeight(participantID, weight));
             response = jsonResponse(200, "All good!");
         } catch (NumberFormatException e) {
             String msg = "unable to process input weight '" + weightStr +
@@ -284,14 +279,84 @@ public class ParticipantController {
     @RequestMapping(value = "/revert-weight", method = RequestMethod.POST)
     public String revertWeight(Model model,
                                @RequestParam("id") long participantID) {
-        Participant p = participantService.findOne(participantID);
-        model.addAttribute("participant", p);
-        p.revertWeight();
-        participantService.saveParticipant(p);
+        engineService.execute(ParticipantCommand.revertWeight(participantID));
 
         return jsonResponse(200, "All good!");
     }
 
+    /**
+     * Undoes an earlier change to a participant, such as a lift registered or
+     * a weight increased in error.
+     *
+     * This method returns a JSON response with a response code and a message
+     * representing the outcome of the request. If successful, code 200 will
+     * be returned. If not, code 400 with a message explaining the error will
+     * be returned.
+     *
+     * @param model the Spring model to pass to the view
+     * @param participantID the ID# of the participant whose change is to be
+     *                      undone
+     * @param sequence the sequence number of the change, as given by the
+     *                 participant's {@link #history(long) history}
+     * @return a JSON response representing either success or failure
+     */
+    @ResponseBody
+    @RequestMapping(value = "/undo", method = RequestMethod.POST)
+    public String undo(Model model,
+                       @RequestParam("id") long participantID,
+                       @RequestParam("sequence") long sequence) {
+        String response;
+        try {
+            engineService.execute(ParticipantCommand.undo(participantID, sequence));
+            response = jsonResponse(200, "All good!");
+        } catch (InvalidParameterException | UnsupportedOperationException e) {
+            response = jsonResponse(400, e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Gets the history of changes made to a participant, as JSON.
+     *
+     * Each change is given with its sequence number, its type, a description,
+     * the time at which it was made, and whether it has since been undone.
+     *
+     * @param participantID the ID# of the participant whose history to get
+     * @return a JSON array of the changes made to the participant, in order
+     */
+    @ResponseBody
+    @RequestMapping(value = "/{participantID}/history", method = RequestMethod.GET)
+    public String history(@PathVariable long participantID) {
+        List<Map<String, String>> changes = new ArrayList<>();
+        for (ParticipantEvent e : engineService.getEvents(participantID)) {
+            Map<String, String> change = new HashMap<>();
+            change.put("sequence", Long.toString(e.getSequence()));
+            change.put("type", e.getType().toString());
+            change.put("description", e.getDescription());
+            change.put("timestamp", e.getTimestamp().toString());
+            change.put("undone", Boolean.toString(e.isUndone()));
+            changes.add(change);
+        }
+        Gson gson = new Gson();
+        return gson.toJson(changes);
+    }
+
+    /**
+     * Finds a participant, from the engine of their competition if it is
+     * running.
+     *
+     * Changes are written to the database behind a running competition, so
+     * forms which show the current lifts and weights of a participant must
+     * not read them from the database.
+     *
+     * @param participantID the ID# of the participant
+     * @return              the participant
+     */
+    private Participant findParticipant(long participantID) {
+        return engineService.getRunningParticipant(participantID)
+                .orElseGet(() -> participantService.findOne(participantID));
+    }
+
     /**
      * Generates a JSON response String for a given code and message.
      *
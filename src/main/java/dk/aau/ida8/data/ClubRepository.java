@@ -2,20 +2,36 @@ package dk.aau.ida8.data;
 
 
 import dk.aau.ida8.model.Club;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 /**
  * This interface represents the Repository for accessing Club data
  * persisted within the database.
  */
 @Repository
-public interface ClubRepository extends CrudRepository<Club, Long> {
+public interface ClubRepository extends PagingAndSortingRepository<Club, Long> {
+    /**
+     * Finds every club.
+     *
+     * The result is held in the query cache, and is discarded whenever any
+     * club is saved or removed.
+     *
+     * @return every club
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    Iterable<Club> findAll();
+
     /**
      * Defines a query for finding one club by name.
      *
      * @param name the name of the club to search for
      * @return the club found as a result of the search
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Club findByName(String name);
 }
@@ -1,13 +1,104 @@
 package dk.aau.ida8.data;
 
 import dk.aau.ida8.model.Competition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 /**
  * This interface represents the Repository for accessing Competition data
  * persisted within the database.
+ *
+ * Besides {@link #findOne(java.io.Serializable) findOne}, which loads only
+ * the competition itself, a method is provided for each part of the graph of
+ * a competition read by a page. Each fetches that part with the competition in
+ * a single query, using the named entity graphs of {@link Competition}.
+ *
+ * Competitions are listed by date using the index on their competition date,
+ * so that listing them does not read every competition ever held.
  */
 @Repository
 public interface CompetitionRepository extends CrudRepository<Competition, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Finds a competition along with its participants, their lifters and the
+     * lifters' clubs, as read by the sign-up, participants and weigh-in pages.
+     *
+     * @param id the ID# of the competition
+     * @return   the competition, or null if it does not exist
+     */
+    @EntityGraph("Competition.participants")
+    Competition findWithParticipantsById(long id);
+
+    /**
+     * Finds a competition along with its competing groups, as read by the
+     * dashboard and competing groups pages.
+     *
+     * @param id the ID# of the competition
+     * @return   the competition, or null if it does not exist
+     */
+    @EntityGraph("Competition.competingGroups")
+    Competition findWithCompetingGroupsById(long id);
+
+    /**
+     * Finds a competition along with its ranking groups, as read by the
+     * results and scoreboard pages.
+     *
+     * @param id the ID# of the competition
+     * @return   the competition, or null if it does not exist
+     */
+    @EntityGraph("Competition.rankingGroups")
+    Competition findWithRankingGroupsById(long id);
+
+    /**
+     * Finds the competitions held within a period, earliest first.
+     *
+     * @param from  the start of the period, inclusive
+     * @param until the end of the period, exclusive
+     * @return      the competitions held within the period
+     */
+    List<Competition> findByCompetitionDateGreaterThanEqualAndCompetitionDateBeforeOrderByCompetitionDateAsc(
+            Date from, Date until);
+
+    /**
+     * Finds the competitions held on or after a date, earliest first.
+     *
+     * @param from the date from which to find competitions, inclusive
+     * @return     the competitions held on or after the date
+     */
+    List<Competition> findByCompetitionDateGreaterThanEqualOrderByCompetitionDateAsc(Date from);
+
+    /**
+     * Finds a page of the competitions held before a date, latest first.
+     *
+     * @param until    the date until which to find competitions, exclusive
+     * @param pageable the page to find
+     * @return         the page of competitions held before the date
+     */
+    Page<Competition> findByCompetitionDateBeforeOrderByCompetitionDateDesc(Date until, Pageable pageable);
+
+    /**
+     * Counts the competing groups of a competition, which are allocated once
+     * its weigh-in is complete.
+     *
+     * @param id the ID# of the competition
+     * @return   the number of competing groups of the competition
+     */
+    @Query("select count(g) from Competition c join c.competingGroups g where c.id = ?1")
+    long countCompetingGroups(long id);
+
+    /**
+     * Counts the participants of a competition who have lifts remaining.
+     *
+     * @param id the ID# of the competition
+     * @return   the number of participants with lifts remaining
+     */
+    @Query("select count(p) from Competition c join c.participants p where c.id = ?1 and size(p.lifts) < 6")
+    long countParticipantsWithLiftsRemaining(long id);
+}
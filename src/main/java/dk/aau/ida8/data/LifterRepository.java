@@ -1,13 +1,42 @@
 package dk.aau.ida8.data;
 
 import dk.aau.ida8.model.Lifter;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * This interface represents the Repository for accessing Lifter data
  * persisted within the database.
+ *
+ * The lifters of a club are listed a slice at a time, seeking past the ID# of
+ * the last lifter already listed rather than skipping an offset, so that every
+ * slice costs the same however far into the club it lies.
  */
 @Repository
-public interface LifterRepository extends CrudRepository <Lifter, Long> {
+public interface LifterRepository extends PagingAndSortingRepository<Lifter, Long> {
+
+    /**
+     * Finds a slice of the lifters of a club, in order of ID#.
+     *
+     * @param clubId   the ID# of the club
+     * @param afterId  the ID# after which to find lifters; 0 for the first
+     *                 slice
+     * @param pageable the size of the slice to find; its page number should
+     *                 be 0
+     * @return         the slice of lifters
+     */
+    Slice<Lifter> findByClubIdAndIdGreaterThanOrderByIdAsc(long clubId, long afterId, Pageable pageable);
+
+    /**
+     * Counts the lifters of every club with at least one lifter.
+     *
+     * @return a pair of the club ID# and number of lifters for each club
+     */
+    @Query("select l.club.id, count(l) from Lifter l where l.club is not null group by l.club.id")
+    List<Object[]> countByClub();
 }
@@ -0,0 +1,26 @@
+package dk.aau.ida8.data;
+
+import dk.aau.ida8.model.ParticipantEvent;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * This interface represents the Repository for accessing ParticipantEvent
+ * data persisted within the database.
+ */
+@Repository
+public interface ParticipantEventRepository extends CrudRepository<ParticipantEvent, Long> {
+
+    List<ParticipantEvent> findByCompetitionIdOrderBySequenceAsc(long competitionId);
+
+    List<ParticipantEvent> findByParticipantIdOrderBySequenceAsc(long participantId);
+
+    List<ParticipantEvent> findByParticipantIdAndSequenceGreaterThanOrderBySequenceAsc(long participantId,
+                                                                                        long sequence);
+
+    ParticipantEvent findByCompetitionIdAndSequence(long competitionId, long sequence);
+
+    long countByParticipantId(long participantId);
+}
@@ -1,13 +1,41 @@
 package dk.aau.ida8.data;
 
 import dk.aau.ida8.model.Participant;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
 /**
  * This interface represents the Repository for accessing Participant data
  * persisted within the database.
+ *
+ * The participants of a competition are listed a slice at a time, seeking past
+ * the ID# of the last participant already listed rather than skipping an
+ * offset, so that every slice costs the same however far into the competition
+ * it lies.
  */
 @Repository
-public interface ParticipantRepository extends CrudRepository<Participant, Long> {
+public interface ParticipantRepository extends PagingAndSortingRepository<Participant, Long> {
+
+    /**
+     * Finds a slice of the participants of a competition, in order of ID#.
+     *
+     * @param competitionId the ID# of the competition
+     * @param afterId       the ID# after which to find participants; 0 for
+     *                      the first slice
+     * @param pageable      the size of the slice to find; its page number
+     *                      should be 0
+     * @return              the slice of participants
+     */
+    Slice<Participant> findByCompetitionIdAndIdGreaterThanOrderByIdAsc(long competitionId, long afterId,
+                                                                       Pageable pageable);
+
+    /**
+     * Counts the participants of a competition.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the number of participants
+     */
+    long countByCompetitionId(long competitionId);
 }
@@ -0,0 +1,21 @@
+package dk.aau.ida8.data;
+
+import dk.aau.ida8.model.ParticipantSnapshot;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * This interface represents the Repository for accessing ParticipantSnapshot
+ * data persisted within the database.
+ */
+@Repository
+public interface ParticipantSnapshotRepository extends CrudRepository<ParticipantSnapshot, Long> {
+
+    ParticipantSnapshot findFirstByParticipantIdAndSequenceLessThanOrderBySequenceDesc(long participantId,
+                                                                                        long sequence);
+
+    List<ParticipantSnapshot> findByParticipantIdAndSequenceGreaterThanEqual(long participantId,
+                                                                             long sequence);
+}
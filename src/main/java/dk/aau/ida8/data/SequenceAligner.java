@@ -0,0 +1,79 @@
+package dk.aau.ida8.data;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * This class ensures that each entity sequence lies ahead of every identifier
+ * already issued for the entity.
+ *
+ * Identifiers were once issued from a single shared sequence (and, for groups,
+ * from a table), so an existing database may hold identifiers ahead of the
+ * per-entity sequences created by {@link PooledSequenceGenerator}. When the
+ * application starts, and before anything is saved, any such sequence is
+ * restarted just past the highest identifier in its table. Sequences already
+ * ahead are left alone, so this is safe to run on every start.
+ *
+ * Beans which save entities while the application starts must depend on this
+ * bean.
+ */
+@Component
+public class SequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAligner.class);
+
+    private SessionFactoryImplementor sessionFactory;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SequenceAligner(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.sessionFactory = (SessionFactoryImplementor) entityManagerFactory.unwrap(SessionFactory.class);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Restarts each entity sequence which lies behind the identifiers in its
+     * table.
+     */
+    @PostConstruct
+    public void align() {
+        Dialect dialect = sessionFactory.getDialect();
+        for (ClassMetadata metadata : sessionFactory.getAllClassMetadata().values()) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) metadata;
+            IdentifierGenerator generator = persister.getIdentifierGenerator();
+            if (!(generator instanceof PooledSequenceGenerator)) {
+                continue;
+            }
+            DatabaseStructure sequence = ((PooledSequenceGenerator) generator).getDatabaseStructure();
+            Long max = jdbcTemplate.queryForObject("select max(" + persister.getIdentifierColumnNames()[0] +
+                    ") from " + persister.getTableName(), Long.class);
+            if (max == null) {
+                continue;
+            }
+            // The pooled optimizer hands out the block of identifiers ending at
+            // the value returned by the sequence, so the sequence must return
+            // at least max + increment for the block to lie beyond max.
+            long required = max + sequence.getIncrementSize();
+            Long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence.getName()), Long.class);
+            if (next < required) {
+                jdbcTemplate.execute("alter sequence " + sequence.getName() + " restart with " + required);
+                log.info("restarted sequence {} at {}, past the identifiers in {}",
+                        sequence.getName(), required, persister.getTableName());
+            }
+        }
+    }
+}
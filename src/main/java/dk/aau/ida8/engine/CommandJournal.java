@@ -0,0 +1,212 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.model.ParticipantEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class records the events of a running competition in a file on local
+ * disk.
+ *
+ * Each event is appended to the journal, and the journal is forced to disk,
+ * before the command making the change is acknowledged. Events are then
+ * written to the database in the background. If the application stops before
+ * every event has been written, the events remaining in the journal are
+ * written when it next starts, so no acknowledged change is lost.
+ *
+ * Each record occupies one line, holding the
+ * {@link ParticipantEvent#encode() encoded} event and its checksum. A record
+ * only partly written when the application stopped will fail its checksum, and
+ * is discarded along with anything following it.
+ */
+public class CommandJournal implements Closeable {
+
+    private static final String PREFIX = "competition-";
+    private static final String SUFFIX = ".journal";
+    private static final char SEPARATOR = '|';
+
+    private final Path path;
+    private final List<ParticipantEvent> entries;
+    private final FileChannel channel;
+
+    private CommandJournal(Path path, List<ParticipantEvent> entries, FileChannel channel) {
+        this.path = path;
+        this.entries = Collections.unmodifiableList(entries);
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal for a competition, creating it if it does not exist.
+     *
+     * Any records found in an existing journal are read, and are available
+     * from {@link #getEntries()}.
+     *
+     * @param directory     the directory holding the journals
+     * @param competitionId the ID# of the competition
+     * @return              the journal
+     * @throws IOException if the journal cannot be read or created
+     */
+    public static CommandJournal open(Path directory, long competitionId) throws IOException {
+        Files.createDirectories(directory);
+        Path path = getPath(directory, competitionId);
+        List<ParticipantEvent> entries = new ArrayList<>();
+        long validLength = 0;
+        if (Files.exists(path)) {
+            byte[] bytes = Files.readAllBytes(path);
+            int start = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+                ParticipantEvent event = parse(line);
+                if (event == null) {
+                    break;
+                }
+                entries.add(event);
+                start = i + 1;
+                validLength = start;
+            }
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new CommandJournal(path, entries, channel);
+    }
+
+    /**
+     * Determines whether a journal exists for a competition.
+     *
+     * @param directory     the directory holding the journals
+     * @param competitionId the ID# of the competition
+     * @return              true if a journal exists, else false
+     */
+    public static boolean exists(Path directory, long competitionId) {
+        return Files.exists(getPath(directory, competitionId));
+    }
+
+    private static Path getPath(Path directory, long competitionId) {
+        return directory.resolve(PREFIX + competitionId + SUFFIX);
+    }
+
+    /**
+     * Finds the competitions for which a journal exists.
+     *
+     * @param directory the directory holding the journals
+     * @return          the ID#s of the competitions with journals
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Long> findCompetitionIds(Path directory) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return ids;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(PREFIX.length(),
+                            name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not a journal written by this class
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Parses one record of the journal.
+     *
+     * @param line the record, without its line separator
+     * @return     the event, or null if the record is incomplete or corrupt
+     */
+    private static ParticipantEvent parse(String line) {
+        int last = line.lastIndexOf(SEPARATOR);
+        if (last < 0) {
+            return null;
+        }
+        String record = line.substring(0, last);
+        try {
+            if (Long.parseLong(line.substring(last + 1), 16) != checksum(record)) {
+                return null;
+            }
+            return ParticipantEvent.decode(record);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Gets the events read from the journal when it was opened.
+     *
+     * @return the events, in the order in which they were appended
+     */
+    public List<ParticipantEvent> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Appends an event to the journal, returning once it has been forced to
+     * disk.
+     *
+     * @param event the event to append, with its sequence number set
+     * @throws IOException if the event cannot be written
+     */
+    public synchronized void append(ParticipantEvent event) throws IOException {
+        String record = event.encode();
+        String line = record + SEPARATOR + Long.toHexString(checksum(record)) + "\n";
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Discards every record in the journal, once each has been written to the
+     * database.
+     *
+     * @throws IOException if the journal cannot be truncated
+     */
+    public synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    /**
+     * Closes and deletes the journal, once every event has been written to
+     * the database.
+     *
+     * @throws IOException if the journal cannot be deleted
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
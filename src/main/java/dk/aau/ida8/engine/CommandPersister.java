@@ -0,0 +1,421 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.data.CompetitionRepository;
+import dk.aau.ida8.data.ParticipantEventRepository;
+import dk.aau.ida8.data.ParticipantRepository;
+import dk.aau.ida8.data.ParticipantSnapshotRepository;
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.ParticipantEvent;
+import dk.aau.ida8.model.ParticipantSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class writes {@link ParticipantEvent events} to the database.
+ *
+ * An event is persisted by storing it, and by applying it again, within the
+ * same transaction, to the participant as loaded from the database. As events
+ * are persisted in the order in which they were applied to the live state, the
+ * persisted state follows the live state.
+ *
+ * Every {@link #SNAPSHOT_INTERVAL} events of a participant, a
+ * {@link ParticipantSnapshot snapshot} of the participant is stored. An event
+ * is undone by rebuilding the participant from the latest snapshot preceding
+ * it, so only the events following that snapshot need be loaded.
+ *
+ * Journalled events are written in batches, each event in its own
+ * transaction. The sequence number of the last event written is saved with
+ * the competition in the same transaction, so that replaying a journal never
+ * writes an event twice. Events which cannot be written are kept as
+ * {@link DeadLetter dead letters}.
+ */
+@Component
+public class CommandPersister {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandPersister.class);
+
+    /**
+     * The number of events of a participant between snapshots.
+     */
+    static final int SNAPSHOT_INTERVAL = 10;
+
+    /**
+     * The number of times an event may fail to be written, other than by
+     * being rejected by the participant, before it is made a dead letter.
+     */
+    static final int MAX_ATTEMPTS = 3;
+
+    private CompetitionRepository competitionRepository;
+    private ParticipantRepository participantRepository;
+    private ParticipantEventRepository eventRepository;
+    private ParticipantSnapshotRepository snapshotRepository;
+    private TransactionTemplate newTransaction;
+
+    /**
+     * The number of times each event, by competition and sequence number,
+     * has failed to be written.
+     */
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private final List<DeadLetter> deadLetters = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public CommandPersister(CompetitionRepository competitionRepository,
+                            ParticipantRepository participantRepository,
+                            ParticipantEventRepository eventRepository,
+                            ParticipantSnapshotRepository snapshotRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.competitionRepository = competitionRepository;
+        this.participantRepository = participantRepository;
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies a command to the persisted participant, and saves the result
+     * along with the event recording it.
+     *
+     * @param command the command to apply
+     * @param <T>     the type of the result of the command
+     * @return        the result of the command
+     * @throws InvalidParameterException if the participant does not exist
+     */
+    @Transactional
+    public <T> T apply(ParticipantCommand<T> command) throws InvalidParameterException {
+        Participant p = participantRepository.findOne(command.getParticipantId());
+        if (p == null) {
+            String msg = "unable to apply command: no participant " + command.getParticipantId();
+            throw new InvalidParameterException(msg);
+        }
+        Competition competition = p.getCompetition();
+        ParticipantEvent event = command.getEvent();
+        event.setSequence(competition.getId(), competition.getJournalSequence() + 1);
+        applyEvent(p, event);
+        store(p, event);
+        competition.setJournalSequence(event.getSequence());
+        competitionRepository.save(competition);
+        participantRepository.save(p);
+        return command.getResult(p);
+    }
+
+    /**
+     * Writes a batch of journalled events to the database.
+     *
+     * The batch is written in a single transaction, so that the competition
+     * and its groups are loaded once for the whole batch rather than once for
+     * each event. Where the batch cannot be written, each event is instead
+     * written in its own transaction, along with the sequence number saved
+     * with the competition, so that an event which cannot be written does not
+     * prevent the events before it from being written. Events already
+     * written, according to that sequence number, are skipped.
+     *
+     * An event which cannot be applied (as it could not have been applied to
+     * the live state either) is added to the {@link #getDeadLetters() dead
+     * letters}, and the events following it are written. Where an event
+     * cannot be written for any other reason, such as the database being
+     * unavailable, the exception is rethrown so that the batch may be retried
+     * from that event; once an event has failed {@link #MAX_ATTEMPTS} times,
+     * it too is added to the dead letters.
+     *
+     * @param competitionId the ID# of the competition to which the events
+     *                      apply
+     * @param events        the journalled events, in order of sequence
+     * @return              the number of events written
+     * @throws InvalidParameterException if the competition does not exist
+     */
+    public int applyAll(long competitionId, List<ParticipantEvent> events)
+            throws InvalidParameterException {
+        if (competitionRepository.findOne(competitionId) == null) {
+            throw new InvalidParameterException("unable to apply events: no competition " + competitionId);
+        }
+        try {
+            int written = writeAll(competitionId, events);
+            for (ParticipantEvent e : events) {
+                attempts.remove(attemptKey(e));
+            }
+            return written;
+        } catch (RuntimeException ex) {
+            log.warn("unable to write {} journalled events for competition {} together; " +
+                    "writing each alone", events.size(), competitionId, ex);
+        }
+        int written = 0;
+        for (ParticipantEvent e : events) {
+            try {
+                if (write(competitionId, e)) {
+                    written++;
+                }
+                attempts.remove(attemptKey(e));
+            } catch (InvalidParameterException | UnsupportedOperationException ex) {
+                deadLetter(competitionId, e, ex);
+            } catch (RuntimeException ex) {
+                if (attempts.merge(attemptKey(e), 1, Integer::sum) < MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                deadLetter(competitionId, e, ex);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes journalled events to the database, in a single new transaction.
+     *
+     * @param competitionId the ID# of the competition to which the events
+     *                      apply
+     * @param events        the events, in order of sequence
+     * @return              the number of events written
+     */
+    private int writeAll(long competitionId, List<ParticipantEvent> events) {
+        return newTransaction.execute(status -> {
+            Competition competition = competitionRepository.findOne(competitionId);
+            int written = 0;
+            for (ParticipantEvent e : events) {
+                if (write(competition, e)) {
+                    written++;
+                }
+            }
+            competitionRepository.save(competition);
+            return written;
+        });
+    }
+
+    /**
+     * Writes one journalled event to the database, in a new transaction.
+     *
+     * @param competitionId the ID# of the competition to which the event
+     *                      applies
+     * @param event         the event
+     * @return              true if the event was written, or false if it had
+     *                      already been written
+     */
+    private boolean write(long competitionId, ParticipantEvent event) {
+        return newTransaction.execute(status -> {
+            Competition competition = competitionRepository.findOne(competitionId);
+            boolean written = write(competition, event);
+            competitionRepository.save(competition);
+            return written;
+        });
+    }
+
+    /**
+     * Writes one journalled event to the database, within the current
+     * transaction, and advances the sequence number of the competition.
+     *
+     * @param competition the competition to which the event applies
+     * @param event       the event
+     * @return            true if the event was written, or false if it had
+     *                    already been written
+     */
+    private boolean write(Competition competition, ParticipantEvent event) {
+        if (event.getSequence() <= competition.getJournalSequence()) {
+            return false;
+        }
+        Participant p = participantRepository.findOne(event.getParticipantId());
+        if (p == null) {
+            String msg = "no participant " + event.getParticipantId();
+            throw new InvalidParameterException(msg);
+        }
+        applyEvent(p, event);
+        store(p, event);
+        competition.setJournalSequence(event.getSequence());
+        return true;
+    }
+
+    /**
+     * Records an event which cannot be written as a dead letter, and moves
+     * the sequence number saved with the competition past it, so that the
+     * events following it may be written.
+     *
+     * @param competitionId the ID# of the competition to which the event
+     *                      applies
+     * @param event         the event
+     * @param cause         the reason the event cannot be written
+     */
+    private void deadLetter(long competitionId, ParticipantEvent event, RuntimeException cause) {
+        log.error("unable to write journalled event {} '{}' for competition {}; " +
+                        "it is kept as a dead letter and in the journal",
+                event.getSequence(), event.getDescription(), competitionId, cause);
+        attempts.remove(attemptKey(event));
+        deadLetters.add(new DeadLetter(event, cause.toString()));
+        Metrics.counter("persister.deadLetters").inc();
+        newTransaction.execute(status -> {
+            Competition competition = competitionRepository.findOne(competitionId);
+            if (competition.getJournalSequence() < event.getSequence()) {
+                competition.setJournalSequence(event.getSequence());
+                competitionRepository.save(competition);
+            }
+            return null;
+        });
+    }
+
+    private static String attemptKey(ParticipantEvent event) {
+        return event.getCompetitionId() + ":" + event.getSequence();
+    }
+
+    /**
+     * Gets the journalled events which could not be written to the database.
+     *
+     * The live state of a competition includes these events, but its
+     * persisted state does not, so they must be corrected by hand.
+     *
+     * @return the events which could not be written, in the order in which
+     *         they failed
+     */
+    public List<DeadLetter> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+
+    /**
+     * Determines whether any journalled event of a competition could not be
+     * written to the database.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              true if the competition has dead letters
+     */
+    public boolean hasDeadLetters(long competitionId) {
+        for (DeadLetter d : deadLetters) {
+            if (d.getEvent().getCompetitionId() == competitionId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies an event to a persisted participant.
+     *
+     * An undo event is applied by rebuilding the participant, without the
+     * event undone, from the latest snapshot preceding that event. Snapshots
+     * taken since the event undone no longer hold, and are deleted.
+     *
+     * @param p     the participant
+     * @param event the event to apply
+     */
+    private void applyEvent(Participant p, ParticipantEvent event) {
+        if (!event.isUndo()) {
+            event.applyTo(p);
+            return;
+        }
+        ParticipantEvent target = eventRepository.findByCompetitionIdAndSequence(
+                event.getCompetitionId(), event.getTargetSequence());
+        if (target == null || target.getParticipantId() != p.getId()) {
+            String msg = "unable to undo event " + event.getTargetSequence() +
+                    ": no such event for participant " + p.getId();
+            throw new InvalidParameterException(msg);
+        }
+        ParticipantSnapshot snapshot = snapshotRepository
+                .findFirstByParticipantIdAndSequenceLessThanOrderBySequenceDesc(p.getId(), target.getSequence());
+        List<ParticipantEvent> events = eventRepository.findByParticipantIdAndSequenceGreaterThanOrderBySequenceAsc(
+                p.getId(), snapshot == null ? 0 : snapshot.getSequence());
+        p.undo(target, snapshot, events);
+        snapshotRepository.delete(snapshotRepository.findByParticipantIdAndSequenceGreaterThanEqual(
+                p.getId(), target.getSequence()));
+    }
+
+    /**
+     * Stores an event which has been applied to a participant, taking a
+     * snapshot of the participant where due.
+     *
+     * @param p     the participant
+     * @param event the event applied
+     */
+    private void store(Participant p, ParticipantEvent event) {
+        eventRepository.save(event);
+        if (eventRepository.countByParticipantId(p.getId()) % SNAPSHOT_INTERVAL == 0) {
+            snapshotRepository.save(new ParticipantSnapshot(p, event.getSequence()));
+        }
+    }
+
+    /**
+     * Finds the events of a participant.
+     *
+     * @param participantId the ID# of the participant
+     * @return              the events of the participant, in order
+     */
+    @Transactional(readOnly = true)
+    public List<ParticipantEvent> findEvents(long participantId) {
+        return eventRepository.findByParticipantIdOrderBySequenceAsc(participantId);
+    }
+
+    /**
+     * Finds the events of a competition.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the events of the competition, in order
+     */
+    @Transactional(readOnly = true)
+    public List<ParticipantEvent> findCompetitionEvents(long competitionId) {
+        return eventRepository.findByCompetitionIdOrderBySequenceAsc(competitionId);
+    }
+
+    /**
+     * Determines whether a competition is running, without loading it.
+     *
+     * This agrees with {@link Competition#isCompetitionStarted()}: a
+     * competition is running once its weigh-in is complete, until every
+     * participant has completed their lifts.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              true if the competition is running, else false
+     */
+    @Transactional(readOnly = true)
+    public boolean isRunning(long competitionId) {
+        return competitionRepository.countCompetingGroups(competitionId) > 0
+                && competitionRepository.countParticipantsWithLiftsRemaining(competitionId) > 0;
+    }
+
+    /**
+     * Finds the ID# of the competition in which a participant is competing.
+     *
+     * @param participantId the ID# of the participant
+     * @return              the ID# of the competition, or null if the
+     *                      participant does not exist
+     */
+    @Transactional(readOnly = true)
+    public Long findCompetitionId(long participantId) {
+        Participant p = participantRepository.findOne(participantId);
+        if (p == null || p.getCompetition() == null) {
+            return null;
+        }
+        return p.getCompetition().getId();
+    }
+
+    /**
+     * This class represents a journalled event which could not be written to
+     * the database.
+     */
+    public static class DeadLetter {
+
+        private final ParticipantEvent event;
+        private final String reason;
+
+        DeadLetter(ParticipantEvent event, String reason) {
+            this.event = event;
+            this.reason = reason;
+        }
+
+        public ParticipantEvent getEvent() {
+            return event;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
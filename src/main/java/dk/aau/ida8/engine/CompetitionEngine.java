@@ -0,0 +1,474 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Leaderboard;
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.ParticipantEvent;
+import dk.aau.ida8.model.ParticipantSnapshot;
+import dk.aau.ida8.service.ScoreboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class holds the live state of one running competition.
+ *
+ * While a competition is running, the engine owns the competition, its
+ * participants and its groups. Every change is made by submitting a
+ * {@link ParticipantCommand command}, and all commands are applied, in the
+ * order submitted, by a single engine thread. As only this thread changes the
+ * state, the state needs no locking and a command takes only as long as the
+ * change itself.
+ *
+ * After each command is applied, its {@link ParticipantEvent event} is
+ * appended to the competition's {@link CommandJournal journal}, and the
+ * command is acknowledged once the journal has been forced to disk. The engine
+ * keeps the events of each participant, so that any earlier change may be
+ * undone by rebuilding the participant without it. The engine then creates a new {@link Leaderboard},
+ * which is read by every view of the competition, so views are neither
+ * blocked by commands nor read from the database.
+ *
+ * Journalled events are written to the database in the background, by a
+ * second thread, in batches of every event journalled since the previous
+ * batch. Where a batch cannot be written, it is retried after a delay; the
+ * events remain in the journal in the meantime.
+ *
+ * Once the competition is complete, the engine stops accepting commands. When
+ * every event has been written, the journal is deleted and the engine is
+ * retired.
+ *
+ * The time from the submission of each lift to the publication of the
+ * resulting leaderboard to scoreboards is recorded by the
+ * "scoreboard.latency" timer. Publishing only queues the update for each
+ * scoreboard, so the engine never waits on a scoreboard's connection.
+ */
+public class CompetitionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CompetitionEngine.class);
+
+    /**
+     * The time, in seconds, to wait before retrying a batch of events which
+     * could not be written to the database.
+     */
+    static final long RETRY_DELAY = 5;
+
+    private final Competition competition;
+    private final Map<Long, Participant> participants = new HashMap<>();
+    private final Map<Long, List<ParticipantEvent>> history = new HashMap<>();
+    private final CommandJournal journal;
+    private final CommandPersister persister;
+    private final ScoreboardService scoreboardService;
+    private final Consumer<CompetitionEngine> onRetired;
+    private final ExecutorService commandExecutor;
+    private final ScheduledThreadPoolExecutor persistenceExecutor;
+    private final Queue<ParticipantEvent> unwritten = new ConcurrentLinkedQueue<>();
+    private final List<ParticipantEvent> failed = new ArrayList<>();
+    private long sequence;
+    private volatile Leaderboard leaderboard;
+
+    /**
+     * Creates an engine for a running competition.
+     *
+     * The competition must be fully loaded, including its participants, their
+     * lifts and its groups, as the engine never returns to the database for
+     * them. Any events in the journal must already have been written to the
+     * database.
+     *
+     * @param competition       the competition to run
+     * @param events            the events of the competition so far, in order
+     * @param journal           the journal to which to append events
+     * @param persister         the persister to which to write events
+     * @param scoreboardService the service to which to publish changes
+     * @param onRetired         called once the competition is complete and
+     *                          every event has been written
+     */
+    public CompetitionEngine(Competition competition,
+                             List<ParticipantEvent> events,
+                             CommandJournal journal,
+                             CommandPersister persister,
+                             ScoreboardService scoreboardService,
+                             Consumer<CompetitionEngine> onRetired) {
+        this.competition = competition;
+        this.journal = journal;
+        this.sequence = competition.getJournalSequence();
+        this.persister = persister;
+        this.scoreboardService = scoreboardService;
+        this.onRetired = onRetired;
+        for (Participant p : competition.getParticipants()) {
+            participants.put(p.getId(), p);
+            history.put(p.getId(), new ArrayList<>());
+        }
+        for (ParticipantEvent e : events) {
+            List<ParticipantEvent> participantHistory = history.get(e.getParticipantId());
+            if (participantHistory != null) {
+                participantHistory.add(e);
+            }
+        }
+        this.commandExecutor = Executors.newSingleThreadExecutor(
+                r -> newThread(r, "competition-" + competition.getId() + "-engine"));
+        this.persistenceExecutor = new ScheduledThreadPoolExecutor(1,
+                r -> newThread(r, "competition-" + competition.getId() + "-persister"));
+        this.leaderboard = new Leaderboard(competition);
+    }
+
+    private static Thread newThread(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /**
+     * Applies a command to the live state, waiting for it to be applied.
+     *
+     * Any exception thrown by the command (for example, where a weight
+     * increase is not permitted) is rethrown to the caller, and the state is
+     * left unchanged. Where the command cannot be journalled, its change to
+     * the participant is rolled back, an UncheckedIOException is thrown and
+     * the engine is retired, so that the competition is next loaded from the
+     * database and journal.
+     *
+     * @param command the command to apply
+     * @param <T>     the type of the result of the command
+     * @return        the result of the command
+     * @throws RejectedExecutionException if the engine has stopped accepting
+     *                                    commands
+     */
+    public <T> T execute(ParticipantCommand<T> command) throws RejectedExecutionException {
+        long submitted = System.nanoTime();
+        return await(commandExecutor.submit(() -> apply(command, submitted)), "applying " + command);
+    }
+
+    /**
+     * Waits for a task submitted to the engine thread, rethrowing any
+     * exception thrown by the task.
+     *
+     * @param task        the task
+     * @param description a description of the task, for use in errors
+     * @param <T>         the type of the result of the task
+     * @return            the result of the task
+     */
+    private static <T> T await(Future<T> task, String description) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while " + description, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("failed while " + description, e.getCause());
+        }
+    }
+
+    /**
+     * Applies a command on the engine thread.
+     *
+     * @param command   the command to apply
+     * @param submitted the time at which the command was submitted, from
+     *                  {@link System#nanoTime()}
+     * @param <T>       the type of the result of the command
+     * @return          the result of the command
+     */
+    private <T> T apply(ParticipantCommand<T> command, long submitted) {
+        Participant p = participants.get(command.getParticipantId());
+        if (p == null) {
+            String msg = "participant " + command.getParticipantId() +
+                    " is not competing in competition " + competition.getId();
+            throw new InvalidParameterException(msg);
+        }
+        List<ParticipantEvent> participantHistory = history.get(p.getId());
+        ParticipantEvent event = command.getEvent();
+        ParticipantEvent target = null;
+        ParticipantSnapshot previous = new ParticipantSnapshot(p, sequence);
+        if (event.isUndo()) {
+            target = findEvent(participantHistory, event.getTargetSequence());
+            p.undo(target, null, participantHistory);
+        } else {
+            event.applyTo(p);
+        }
+        T result = command.getResult(p);
+        event.setSequence(competition.getId(), sequence + 1);
+        try {
+            journal.append(event);
+        } catch (IOException e) {
+            // The change was never recorded, so it is rolled back to leave the
+            // live state matching the journal and database.
+            previous.restore(p);
+            if (target != null) {
+                target.setUndone(false);
+            }
+            retire();
+            throw new UncheckedIOException("unable to journal " + command, e);
+        }
+        sequence = event.getSequence();
+        participantHistory.add(event);
+        unwritten.add(event.copy());
+        persistenceExecutor.execute(this::write);
+
+        Leaderboard before = leaderboard;
+        Leaderboard after = new Leaderboard(competition);
+        leaderboard = after;
+        scoreboardService.publish(before, after, result instanceof Lift ? (Lift) result : null);
+        if (result instanceof Lift) {
+            Metrics.timer("scoreboard.latency").update(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        }
+
+        if (after.isComplete()) {
+            retire();
+        }
+        return result;
+    }
+
+    /**
+     * Finds the event with a given sequence number within the events of a
+     * participant.
+     *
+     * @param events   the events of the participant
+     * @param sequence the sequence number of the event
+     * @return         the event
+     * @throws InvalidParameterException if the participant has no such event
+     */
+    private static ParticipantEvent findEvent(List<ParticipantEvent> events, long sequence)
+            throws InvalidParameterException {
+        for (ParticipantEvent e : events) {
+            if (e.getSequence() == sequence) {
+                return e;
+            }
+        }
+        String msg = "unable to undo event " + sequence + ": no such event for this participant";
+        throw new InvalidParameterException(msg);
+    }
+
+    /**
+     * Writes every event journalled since the last batch to the database, on
+     * the persistence thread.
+     */
+    private void write() {
+        List<ParticipantEvent> batch = new ArrayList<>(failed);
+        ParticipantEvent event;
+        while ((event = unwritten.poll()) != null) {
+            batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persister.applyAll(competition.getId(), batch);
+            failed.clear();
+        } catch (RuntimeException e) {
+            log.error("unable to write {} events for competition {}, retrying in {}s " +
+                            "(events remain in the journal)",
+                    batch.size(), competition.getId(), RETRY_DELAY, e);
+            failed.clear();
+            failed.addAll(batch);
+            if (!persistenceExecutor.isShutdown()) {
+                persistenceExecutor.schedule(this::write, RETRY_DELAY, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting commands, and retires the engine once every queued
+     * event has been written.
+     */
+    private void retire() {
+        commandExecutor.shutdown();
+        persistenceExecutor.execute(() -> {
+            closeJournal(failed.isEmpty() && unwritten.isEmpty()
+                    && !persister.hasDeadLetters(competition.getId()));
+            onRetired.accept(this);
+        });
+        persistenceExecutor.shutdown();
+    }
+
+    /**
+     * Closes the journal, deleting it if every event has been written. A
+     * journal holding {@link CommandPersister.DeadLetter dead letters} is
+     * kept.
+     *
+     * @param written true if every event has been written, else false
+     */
+    private void closeJournal(boolean written) {
+        try {
+            if (written) {
+                journal.delete();
+            } else {
+                journal.close();
+            }
+        } catch (IOException e) {
+            log.error("unable to close journal for competition {}", competition.getId(), e);
+        }
+    }
+
+    /**
+     * Stops accepting commands, leaving queued events to be written. Events
+     * which cannot be written remain in the journal.
+     */
+    public void shutdown() {
+        commandExecutor.shutdown();
+        try {
+            persistenceExecutor.execute(() -> closeJournal(false));
+        } catch (RejectedExecutionException e) {
+            // already retired
+        }
+        persistenceExecutor.shutdown();
+    }
+
+    /**
+     * Waits for every queued event to be written, after the engine has
+     * stopped accepting commands.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return        true if every event was written, else false
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        try {
+            return commandExecutor.awaitTermination(timeout, unit) &&
+                    persistenceExecutor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Gets the ID# of the competition run by this engine.
+     *
+     * @return the ID# of the competition
+     */
+    public long getCompetitionId() {
+        return competition.getId();
+    }
+
+    /**
+     * Gets the ID#s of the participants in the competition.
+     *
+     * @return the ID#s of the participants
+     */
+    public Set<Long> getParticipantIds() {
+        return Collections.unmodifiableSet(participants.keySet());
+    }
+
+    /**
+     * Gets the events of a participant, recorded by this engine or before it
+     * was started.
+     *
+     * @param participantId the ID# of the participant
+     * @return              copies of the events, in order
+     * @throws InvalidParameterException  if the participant is not competing
+     *                                    in the competition
+     * @throws RejectedExecutionException if the engine has stopped accepting
+     *                                    commands
+     */
+    public List<ParticipantEvent> getEvents(long participantId)
+            throws InvalidParameterException, RejectedExecutionException {
+        Future<List<ParticipantEvent>> result = commandExecutor.submit(() -> {
+            List<ParticipantEvent> events = history.get(participantId);
+            if (events == null) {
+                String msg = "participant " + participantId +
+                        " is not competing in competition " + competition.getId();
+                throw new InvalidParameterException(msg);
+            }
+            List<ParticipantEvent> copies = new ArrayList<>();
+            for (ParticipantEvent e : events) {
+                copies.add(e.copy());
+            }
+            return copies;
+        });
+        return await(result, "reading events of participant " + participantId);
+    }
+
+    /**
+     * Gets a copy of the current state of a participant.
+     *
+     * The copy is made on the engine thread, so it reflects every command
+     * applied so far, and may then be read on any thread.
+     *
+     * @param participantId the ID# of the participant
+     * @return              a copy of the participant
+     * @throws InvalidParameterException  if the participant is not competing
+     *                                    in the competition
+     * @throws RejectedExecutionException if the engine has stopped accepting
+     *                                    commands
+     */
+    public Participant getParticipant(long participantId)
+            throws InvalidParameterException, RejectedExecutionException {
+        Future<Participant> result = commandExecutor.submit(() -> {
+            Participant p = participants.get(participantId);
+            if (p == null) {
+                String msg = "participant " + participantId +
+                        " is not competing in competition " + competition.getId();
+                throw new InvalidParameterException(msg);
+            }
+            return p.copy();
+        });
+        return await(result, "reading participant " + participantId);
+    }
+
+    /**
+     * Recreates the leaderboard of this competition on the engine thread,
+     * following a change which affects its scoring, such as the reloading of
+     * Sinclair coefficients, and publishes the change to scoreboards.
+     *
+     * @throws RejectedExecutionException if the engine has stopped accepting
+     *                                    commands
+     */
+    public void refresh() throws RejectedExecutionException {
+        await(commandExecutor.submit(() -> {
+            Leaderboard before = leaderboard;
+            Leaderboard after = new Leaderboard(competition);
+            leaderboard = after;
+            scoreboardService.publish(before, after, null);
+            return null;
+        }), "refreshing the leaderboard");
+    }
+
+    /**
+     * Subscribes a new scoreboard to this competition, on the engine thread.
+     *
+     * Changes are only published on the engine thread, so the scoreboard is
+     * sent a snapshot of the current leaderboard, followed by every change
+     * made after it, with none missed or sent ahead of the snapshot.
+     *
+     * @return the emitter through which updates are sent
+     * @throws RejectedExecutionException if the engine has stopped accepting
+     *                                    commands
+     */
+    public SseEmitter subscribe() throws RejectedExecutionException {
+        return await(commandExecutor.submit(() -> scoreboardService.subscribe(leaderboard)),
+                "subscribing a scoreboard");
+    }
+
+    /**
+     * Gets the leaderboard created after the most recent command.
+     *
+     * @return the current leaderboard of the competition
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+}
@@ -0,0 +1,397 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Group;
+import dk.aau.ida8.model.Leaderboard;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.ParticipantEvent;
+import dk.aau.ida8.service.LeaderboardService;
+import dk.aau.ida8.service.ScoreboardService;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs a {@link CompetitionEngine} for each running competition.
+ *
+ * An engine is started the first time a running competition is used, by
+ * loading the whole competition once. From then on, all changes to its
+ * participants are applied by the engine, and its leaderboard is read from the
+ * engine. Changes to participants of competitions which are not running (for
+ * example, corrections made after a competition is complete) are applied
+ * directly to the database.
+ *
+ * Each engine journals its events to a file in the directory given by the
+ * engine.journal.location property. When the application starts, and again
+ * before an engine is started, any events remaining in a journal are written
+ * to the database.
+ */
+@Service
+@DependsOn("sequenceAligner")
+public class CompetitionEngineService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompetitionEngineService.class);
+
+    /**
+     * The time, in seconds, to wait for queued events to be written when the
+     * application is stopped.
+     */
+    static final long SHUTDOWN_TIMEOUT = 30;
+
+    private final Map<Long, CompetitionEngine> engines = new ConcurrentHashMap<>();
+    private final Map<Long, CompetitionEngine> enginesByParticipant = new ConcurrentHashMap<>();
+    private EntityManagerFactory entityManagerFactory;
+    private CommandPersister persister;
+    private LeaderboardService leaderboardService;
+    private ScoreboardService scoreboardService;
+    private Path journalDirectory;
+
+    @Autowired
+    public CompetitionEngineService(EntityManagerFactory entityManagerFactory,
+                                    CommandPersister persister,
+                                    LeaderboardService leaderboardService,
+                                    ScoreboardService scoreboardService,
+                                    @Value("${engine.journal.location:journal}")
+                                    String journalLocation) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.persister = persister;
+        this.leaderboardService = leaderboardService;
+        this.scoreboardService = scoreboardService;
+        this.journalDirectory = Paths.get(journalLocation);
+    }
+
+    /**
+     * Writes any events remaining in journals to the database, following a
+     * stop of the application before every event was written.
+     *
+     * @throws IOException if the journal directory cannot be read
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        for (long competitionId : CommandJournal.findCompetitionIds(journalDirectory)) {
+            try (CommandJournal journal = CommandJournal.open(journalDirectory, competitionId)) {
+                replay(competitionId, journal);
+                if (!persister.hasDeadLetters(competitionId)) {
+                    journal.delete();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("unable to recover journal for competition {}", competitionId, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the events read from a journal to the database, then empties
+     * the journal, unless any event could not be written.
+     *
+     * @param competitionId the ID# of the competition
+     * @param journal       the journal of the competition
+     * @throws IOException if the journal cannot be emptied
+     */
+    private void replay(long competitionId, CommandJournal journal) throws IOException {
+        if (!journal.getEntries().isEmpty()) {
+            int written = persister.applyAll(competitionId, journal.getEntries());
+            log.info("recovered {} journalled events for competition {}", written, competitionId);
+            leaderboardService.invalidate(competitionId);
+        }
+        if (!persister.hasDeadLetters(competitionId)) {
+            journal.truncate();
+        }
+    }
+
+    /**
+     * Gets the engine for a competition, starting it if the competition is
+     * running.
+     *
+     * Whether a competition without an engine is running is first determined
+     * by a query, so that competitions which are not running, such as those
+     * complete, are neither loaded nor hold up the start of other engines.
+     * Where a journal remains, its events are written first, as they may
+     * change whether the competition is running.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the engine for the competition, or an empty
+     *                      optional if the competition is not running
+     */
+    public Optional<CompetitionEngine> getEngine(long competitionId) {
+        CompetitionEngine engine = engines.get(competitionId);
+        if (engine != null) {
+            return Optional.of(engine);
+        }
+        if (!persister.isRunning(competitionId)
+                && !CommandJournal.exists(journalDirectory, competitionId)) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            engine = engines.get(competitionId);
+            if (engine == null) {
+                engine = start(competitionId);
+                if (engine == null) {
+                    return Optional.empty();
+                }
+                engines.put(competitionId, engine);
+                for (Long id : engine.getParticipantIds()) {
+                    enginesByParticipant.put(id, engine);
+                }
+            }
+            return Optional.of(engine);
+        }
+    }
+
+    /**
+     * Starts an engine for a competition, if the competition is running.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the engine, or null if the competition is not
+     *                      running
+     * @throws UncheckedIOException if the journal of the competition cannot
+     *                              be opened
+     */
+    private CompetitionEngine start(long competitionId) throws UncheckedIOException {
+        try {
+            if (CommandJournal.exists(journalDirectory, competitionId)) {
+                try (CommandJournal journal = CommandJournal.open(journalDirectory, competitionId)) {
+                    replay(competitionId, journal);
+                }
+                if (!persister.isRunning(competitionId)) {
+                    return null;
+                }
+            }
+            Competition competition = load(competitionId);
+            if (competition == null || !competition.isCompetitionStarted()) {
+                return null;
+            }
+            CommandJournal journal = CommandJournal.open(journalDirectory, competitionId);
+            try {
+                List<ParticipantEvent> events = persister.findCompetitionEvents(competitionId);
+                return new CompetitionEngine(competition, events, journal, persister,
+                        scoreboardService, this::retire);
+            } catch (RuntimeException e) {
+                closeQuietly(journal);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to open journal for competition " + competitionId, e);
+        }
+    }
+
+    private static void closeQuietly(CommandJournal journal) {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("unable to close journal", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the version of a competition, to be got before the competition is
+     * loaded in order to {@link #getLeaderboard(Competition, long) get its
+     * leaderboard}.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the version of the competition
+     * @see                 LeaderboardService#getVersion(long)
+     */
+    public long getLeaderboardVersion(long competitionId) {
+        return leaderboardService.getVersion(competitionId);
+    }
+
+    /**
+     * Gets the current leaderboard for a competition, from its engine if it
+     * is running.
+     *
+     * @param competition the competition for which to get the leaderboard
+     * @param version     the version of the competition, as got before it
+     *                    was loaded
+     * @return            the leaderboard for the competition
+     */
+    public Leaderboard getLeaderboard(Competition competition, long version) {
+        CompetitionEngine engine = engines.get(competition.getId());
+        if (engine != null) {
+            return engine.getLeaderboard();
+        }
+        return leaderboardService.getLeaderboard(competition, version);
+    }
+
+    /**
+     * Recreates the leaderboard of every running competition, and discards
+     * those of every other competition, following a change which affects the
+     * scoring of every competition.
+     */
+    public void refreshLeaderboards() {
+        leaderboardService.invalidateAll();
+        for (CompetitionEngine engine : engines.values()) {
+            try {
+                engine.refresh();
+            } catch (RejectedExecutionException e) {
+                // The competition has just completed; its leaderboard is
+                // discarded when its engine is retired.
+            }
+        }
+    }
+
+    /**
+     * Applies a command to a participant.
+     *
+     * Where the participant's competition is running, the command is applied
+     * by the competition's engine. Otherwise, it is applied directly to the
+     * database.
+     *
+     * @param command the command to apply
+     * @param <T>     the type of the result of the command
+     * @return        the result of the command
+     */
+    public <T> T execute(ParticipantCommand<T> command) {
+        long participantId = command.getParticipantId();
+        CompetitionEngine engine = enginesByParticipant.get(participantId);
+        Long competitionId = engine == null ?
+                persister.findCompetitionId(participantId) : engine.getCompetitionId();
+        if (engine == null && competitionId != null) {
+            engine = getEngine(competitionId).orElse(null);
+        }
+        if (engine != null) {
+            try {
+                return engine.execute(command);
+            } catch (RejectedExecutionException e) {
+                // The competition has just completed; wait for its engine to
+                // finish writing, then apply the command to the database.
+                engine.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+        T result = persister.apply(command);
+        if (competitionId != null) {
+            leaderboardService.invalidate(competitionId);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current state of a participant from the engine of their
+     * competition, if it is running.
+     *
+     * While a competition is running, changes are written to the database
+     * behind the engine, so the database may not yet show the latest lifts
+     * and weights of its participants.
+     *
+     * @param participantId the ID# of the participant
+     * @return              a copy of the participant held by the engine, or
+     *                      an empty optional if their competition is not
+     *                      running
+     */
+    public Optional<Participant> getRunningParticipant(long participantId) {
+        CompetitionEngine engine = enginesByParticipant.get(participantId);
+        if (engine == null) {
+            Long competitionId = persister.findCompetitionId(participantId);
+            if (competitionId != null) {
+                engine = getEngine(competitionId).orElse(null);
+            }
+        }
+        if (engine != null) {
+            try {
+                return Optional.of(engine.getParticipant(participantId));
+            } catch (RejectedExecutionException e) {
+                // The competition has just completed; the database is
+                // current once its engine has finished writing.
+                engine.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the events of a participant, from the engine of their competition
+     * if it is running.
+     *
+     * @param participantId the ID# of the participant
+     * @return              the events of the participant, in order
+     */
+    public List<ParticipantEvent> getEvents(long participantId) {
+        CompetitionEngine engine = enginesByParticipant.get(participantId);
+        if (engine != null) {
+            try {
+                return engine.getEvents(participantId);
+            } catch (RejectedExecutionException e) {
+                engine.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+        return persister.findEvents(participantId);
+    }
+
+    /**
+     * Removes an engine once its competition is complete and every event
+     * has been written.
+     *
+     * @param engine the engine to remove
+     */
+    private void retire(CompetitionEngine engine) {
+        engines.remove(engine.getCompetitionId(), engine);
+        for (Long id : engine.getParticipantIds()) {
+            enginesByParticipant.remove(id, engine);
+        }
+        leaderboardService.invalidate(engine.getCompetitionId());
+    }
+
+    /**
+     * Loads a competition, including everything used while it is running,
+     * detached from any persistence context.
+     *
+     * @param competitionId the ID# of the competition to load
+     * @return              the competition, or null if it does not exist
+     */
+    private Competition load(long competitionId) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            Competition competition = em.find(Competition.class, competitionId);
+            if (competition == null) {
+                return null;
+            }
+            for (Participant p : competition.getParticipants()) {
+                Hibernate.initialize(p.getLifts());
+            }
+            for (Group g : competition.getCompetingGroups()) {
+                Hibernate.initialize(g.getUnsortedParticipants());
+            }
+            for (Group g : competition.getRankingGroups()) {
+                Hibernate.initialize(g.getUnsortedParticipants());
+            }
+            return competition;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Stops every engine when the application is stopped, waiting for queued
+     * events to be written.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (CompetitionEngine engine : engines.values()) {
+            engine.shutdown();
+        }
+        for (CompetitionEngine engine : engines.values()) {
+            engine.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        }
+    }
+}
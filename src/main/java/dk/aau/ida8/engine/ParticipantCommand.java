@@ -0,0 +1,132 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.Participant;
+import dk.aau.ida8.model.ParticipantEvent;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class represents a change to be made to one participant during a
+ * competition: the registration of a lift, a change of weight, a correction or
+ * the undoing of an earlier change.
+ *
+ * A command holds the {@link ParticipantEvent event} recording the change. The
+ * event is applied first to the live state held by a
+ * {@link CompetitionEngine}, and is then journalled and stored, being applied
+ * again to the persisted participant when written to the database.
+ *
+ * @param <T> the type of the result of applying the command
+ */
+public final class ParticipantCommand<T> {
+
+    private final ParticipantEvent event;
+    private final Function<Participant, T> result;
+
+    private ParticipantCommand(ParticipantEvent event, Function<Participant, T> result) {
+        this.event = event;
+        this.result = result;
+    }
+
+    public long getParticipantId() {
+        return event.getParticipantId();
+    }
+
+    /**
+     * Gets the event recording the change made by this command.
+     *
+     * @return the event
+     */
+    public ParticipantEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets the result of this command, once its event has been applied.
+     *
+     * @param p the participant to which the event was applied
+     * @return  the result of the command
+     */
+    T getResult(Participant p) {
+        return result.apply(p);
+    }
+
+    /**
+     * Creates a command registering a lift at the participant's current
+     * weight.
+     *
+     * @param participantId the ID# of the participant making the lift
+     * @param outcome       the outcome of the lift
+     * @return              the command, resulting in the lift registered
+     */
+    public static ParticipantCommand<Lift> registerLift(long participantId, Lift.LiftOutcome outcome) {
+        return new ParticipantCommand<>(ParticipantEvent.liftRegistered(participantId, outcome), p -> {
+            List<Lift> lifts = p.getLifts();
+            return lifts.get(lifts.size() - 1);
+        });
+    }
+
+    /**
+     * Creates a command increasing the weight to be lifted next.
+     *
+     * @param participantId the ID# of the participant
+     * @param weight        the new weight
+     * @return              the command
+     */
+    public static ParticipantCommand<Void> increaseWeight(long participantId, int weight) {
+        return new ParticipantCommand<>(ParticipantEvent.weightIncreased(participantId, weight), p -> null);
+    }
+
+    /**
+     * Creates a command correcting the weight to be lifted next.
+     *
+     * @param participantId the ID# of the participant
+     * @param weight        the corrected weight
+     * @return              the command
+     */
+    public static ParticipantCommand<Void> correctWeight(long participantId, int weight) {
+        return new ParticipantCommand<>(ParticipantEvent.weightCorrected(participantId, weight), p -> null);
+    }
+
+    /**
+     * Creates a command reverting the weight to be lifted next to its
+     * previous value.
+     *
+     * @param participantId the ID# of the participant
+     * @return              the command
+     */
+    public static ParticipantCommand<Void> revertWeight(long participantId) {
+        return new ParticipantCommand<>(ParticipantEvent.weightReverted(participantId), p -> null);
+    }
+
+    /**
+     * Creates a command correcting the weight of a completed lift.
+     *
+     * @param participantId the ID# of the participant
+     * @param index         the index of the lift within the participant's
+     *                      lifts
+     * @param weight        the corrected weight
+     * @return              the command
+     */
+    public static ParticipantCommand<Void> correctLift(long participantId, int index, int weight) {
+        return new ParticipantCommand<>(ParticipantEvent.liftCorrected(participantId, index, weight), p -> null);
+    }
+
+    /**
+     * Creates a command undoing an earlier change to a participant.
+     *
+     * @param participantId the ID# of the participant
+     * @param sequence      the sequence number of the event recording the
+     *                      change to undo
+     * @return              the command
+     */
+    public static ParticipantCommand<Void> undo(long participantId, long sequence) {
+        return new ParticipantCommand<>(ParticipantEvent.eventUndone(participantId, sequence), p -> null);
+    }
+
+    @Override
+    public String toString() {
+        return event.getDescription() + " for participant " + getParticipantId();
+    }
+}
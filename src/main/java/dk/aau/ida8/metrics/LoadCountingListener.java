@@ -0,0 +1,34 @@
+package dk.aau.ida8.metrics;
+
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * This class records the entities loaded, and the lazy collections fetched,
+ * by Hibernate against the {@link RequestStatistics} of the current request.
+ *
+ * The listener is appended to Hibernate's own listeners, so it is called
+ * once an entity or collection has been loaded.
+ */
+public class LoadCountingListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addEntityLoad();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addCollectionFetch();
+        }
+    }
+}
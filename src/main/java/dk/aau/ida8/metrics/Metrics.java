@@ -0,0 +1,106 @@
+package dk.aau.ida8.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * This class holds the timers and counters of the application.
+ *
+ * Metrics are held in a single registry, which is shared with Spring (see
+ * {@link MetricsConfiguration}) and so exported by the actuator's metrics
+ * endpoint. Because the registry is static, metrics may be recorded by model
+ * classes, such as {@link dk.aau.ida8.model.Competition}, which are not
+ * managed by Spring.
+ *
+ * Timers are named with the prefix "timer." and counters with the prefix
+ * "counter.", following the convention of Spring Boot's own metrics. The
+ * endpoint reports the count, rates and percentiles (in milliseconds) of each
+ * timer.
+ */
+public final class Metrics {
+
+    /**
+     * The name of the shared registry holding the application's metrics.
+     */
+    public static final String REGISTRY_NAME = "wms";
+
+    private static final MetricRegistry registry = SharedMetricRegistries.getOrCreate(REGISTRY_NAME);
+
+    private Metrics() {
+
+    }
+
+    /**
+     * Gets the registry holding the application's metrics.
+     *
+     * @return the registry
+     */
+    public static MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets a timer, creating it if it does not exist.
+     *
+     * An operation is most simply timed by {@link #time(String, Supplier)}.
+     *
+     * @param name the name of the timer, without the "timer." prefix
+     * @return     the timer
+     */
+    public static Timer timer(String name) {
+        return registry.timer("timer." + name);
+    }
+
+    /**
+     * Times an operation which produces a result, for example:-
+     *
+     * <pre>
+     *     Lift lift = Metrics.time("participant.registerLift", () -> ...);
+     * </pre>
+     *
+     * The operation is timed whether it completes or throws an exception.
+     *
+     * @param name      the name of the timer, without the "timer." prefix
+     * @param operation the operation to time
+     * @param <T>       the type of the result of the operation
+     * @return          the result of the operation
+     */
+    public static <T> T time(String name, Supplier<T> operation) {
+        Timer.Context context = timer(name).time();
+        try {
+            return operation.get();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Times an operation which produces no result.
+     *
+     * @param name      the name of the timer, without the "timer." prefix
+     * @param operation the operation to time
+     * @see             #time(String, Supplier)
+     */
+    public static void time(String name, Runnable operation) {
+        Timer.Context context = timer(name).time();
+        try {
+            operation.run();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Gets a counter, creating it if it does not exist.
+     *
+     * @param name the name of the counter, without the "counter." prefix
+     * @return     the counter
+     */
+    public static Counter counter(String name) {
+        return registry.counter("counter." + name);
+    }
+}
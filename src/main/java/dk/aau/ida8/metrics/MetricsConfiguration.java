@@ -0,0 +1,42 @@
+package dk.aau.ida8.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import dk.aau.ida8.service.RequestStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * This class configures the recording of metrics.
+ *
+ * The registry of {@link Metrics} is given to Spring, in place of the one
+ * Spring Boot would otherwise create, so that metrics recorded by the model
+ * and by Spring are exported together by the actuator's metrics endpoint.
+ * The time taken to render each view is recorded by a
+ * {@link RenderTimingInterceptor}, and the SQL and Hibernate statistics of
+ * each request by a {@link RequestStatisticsInterceptor}.
+ */
+@Configuration
+public class MetricsConfiguration extends WebMvcConfigurerAdapter {
+
+    @Autowired
+    private RequestStatisticsService requestStatisticsService;
+
+    /**
+     * Gets the registry in which metrics are held.
+     *
+     * @return the registry
+     */
+    @Bean
+    public MetricRegistry metricRegistry() {
+        return Metrics.getRegistry();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor());
+        registry.addInterceptor(new RequestStatisticsInterceptor(requestStatisticsService));
+    }
+}
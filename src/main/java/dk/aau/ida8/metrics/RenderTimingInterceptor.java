@@ -0,0 +1,42 @@
+package dk.aau.ida8.metrics;
+
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records the time taken to render each view.
+ *
+ * Rendering is timed from when the controller returns a view until the
+ * response is complete, so the time taken by the controller itself is not
+ * included. The time is recorded by a timer named after the view, for example
+ * "render.competition-dashboard". Redirects are not timed.
+ */
+public class RenderTimingInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String START = RenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW = RenderTimingInterceptor.class.getName() + ".view";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response,
+                           Object handler, ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW, modelAndView.getViewName());
+            request.setAttribute(START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Long start = (Long) request.getAttribute(START);
+        if (start != null) {
+            Metrics.timer("render." + request.getAttribute(VIEW))
+                    .update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dk.aau.ida8.metrics;
+
+import com.codahale.metrics.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class records the time taken by each call to a repository.
+ *
+ * Each repository method has its own timer, named after the repository and
+ * method, for example "repository.CompetitionRepository.findOne". Methods
+ * inherited from Spring Data's own interfaces are named after the repository
+ * through which they are called.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    private static final String REPOSITORY_PACKAGE = "dk.aau.ida8.data";
+
+    /**
+     * Times a call to a repository.
+     *
+     * @param call       the call
+     * @return           the result of the call
+     * @throws Throwable any exception thrown by the call
+     */
+    @Around("execution(* dk.aau.ida8.data.*Repository+.*(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        String name = "repository." + repositoryName(call) + "." + call.getSignature().getName();
+        Timer.Context context = Metrics.timer(name).time();
+        try {
+            return call.proceed();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Determines the name of the repository through which a call is made.
+     *
+     * @param call the call
+     * @return     the simple name of the repository interface
+     */
+    private static String repositoryName(ProceedingJoinPoint call) {
+        Class<?> declaringType = call.getSignature().getDeclaringType();
+        if (declaringType.getPackage().getName().equals(REPOSITORY_PACKAGE)) {
+            return declaringType.getSimpleName();
+        }
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(call.getTarget())) {
+            if (type.getPackage().getName().equals(REPOSITORY_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return declaringType.getSimpleName();
+    }
+}
@@ -0,0 +1,118 @@
+package dk.aau.ida8.metrics;
+
+/**
+ * This class holds the SQL and Hibernate statistics of one request.
+ *
+ * The statistics of a request are bound to the thread handling the request,
+ * from {@link #begin(String)} until {@link #end()}, and recorded by Hibernate
+ * listeners (see {@link StatementCountingListener} and
+ * {@link LoadCountingListener}) through {@link #current()}. Work done on other
+ * threads, such as the writing of events by a competition engine, is not
+ * recorded against any request.
+ */
+public class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> current = new ThreadLocal<>();
+
+    private final String handler;
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+    private long flushNanos;
+
+    private RequestStatistics(String handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Begins recording the statistics of a request on the current thread.
+     *
+     * @param handler the name of the handler of the request
+     * @return        the statistics of the request
+     */
+    public static RequestStatistics begin(String handler) {
+        RequestStatistics statistics = new RequestStatistics(handler);
+        current.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Ends recording the statistics of the request on the current thread.
+     *
+     * @return the statistics of the request, or null if none was being
+     *         recorded
+     */
+    public static RequestStatistics end() {
+        RequestStatistics statistics = current.get();
+        current.remove();
+        return statistics;
+    }
+
+    /**
+     * Gets the statistics of the request on the current thread.
+     *
+     * @return the statistics of the request, or null if none is being
+     *         recorded
+     */
+    static RequestStatistics current() {
+        return current.get();
+    }
+
+    void addStatement() {
+        statements++;
+    }
+
+    void addEntityLoad() {
+        entityLoads++;
+    }
+
+    void addCollectionFetch() {
+        collectionFetches++;
+    }
+
+    void addFlushNanos(long nanos) {
+        flushNanos += nanos;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets the number of SQL statements prepared during the request.
+     *
+     * @return the number of statements
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Gets the number of entities loaded during the request, from the
+     * database or the second-level cache.
+     *
+     * @return the number of entities loaded
+     */
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * Gets the number of lazy collections fetched during the request.
+     *
+     * @return the number of collections fetched
+     */
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    /**
+     * Gets the time spent flushing changes to the database during the
+     * request.
+     *
+     * @return the time spent flushing, in nanoseconds
+     */
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package dk.aau.ida8.metrics;
+
+import dk.aau.ida8.service.RequestStatisticsService;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This class records the SQL and Hibernate statistics of each controller
+ * request, from before its handler is called until its view is rendered.
+ *
+ * Requests are named after their handler, for example
+ * "CompetitionController.competitionDashboard".
+ */
+public class RequestStatisticsInterceptor extends HandlerInterceptorAdapter {
+
+    private final RequestStatisticsService requestStatisticsService;
+
+    public RequestStatisticsInterceptor(RequestStatisticsService requestStatisticsService) {
+        this.requestStatisticsService = requestStatisticsService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            requestStatisticsService.begin(method.getBeanType().getSimpleName() + "." +
+                    method.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        requestStatisticsService.end(request.getRequestURI());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The request continues on another thread, such as a scoreboard
+        // stream; what has been recorded so far is kept.
+        requestStatisticsService.end(request.getRequestURI());
+    }
+}
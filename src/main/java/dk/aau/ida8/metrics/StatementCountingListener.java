@@ -0,0 +1,53 @@
+package dk.aau.ida8.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * This class records the statements prepared, and the time spent flushing,
+ * by a Hibernate session against the {@link RequestStatistics} of the current
+ * request.
+ *
+ * Hibernate creates a listener for each session, as configured by the
+ * hibernate.session.events.auto property.
+ */
+public class StatementCountingListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long flushStart;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addStatement();
+        }
+    }
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        addFlushTime();
+    }
+
+    @Override
+    public void partialFlushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        addFlushTime();
+    }
+
+    private void addFlushTime() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.addFlushNanos(System.nanoTime() - flushStart);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package dk.aau.ida8.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Arrays;
 import java.util.List;
@@ -8,9 +12,11 @@ import java.util.List;
  * This class represents an address stored within the system.
  */
 @Entity
+@BatchSize(size = Competition.BATCH_SIZE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Address {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     private String building;
@@ -1,5 +1,9 @@
 package dk.aau.ida8.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,12 +14,21 @@ import java.util.stream.Collectors;
  *
  * Each club has a number of lifters associated with it. These compete on behalf
  * of the club in competitions.
+ *
+ * Clubs, their lifters and addresses change rarely but are read by most
+ * pages, so they are held in the second-level cache (see ehcache.xml).
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "club_name_idx", columnList = "name"),
+        @Index(name = "club_address_idx", columnList = "address_id")
+})
+@BatchSize(size = Competition.BATCH_SIZE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Club {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     private String name;
@@ -25,6 +38,7 @@ public class Club {
 
     @OneToMany(cascade = {CascadeType.ALL})
     @JoinColumn(name = "club_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Lifter> lifters = new ArrayList<>();
 
     /**
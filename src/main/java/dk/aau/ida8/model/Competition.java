@@ -1,8 +1,15 @@
 package dk.aau.ida8.model;
 
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.util.SinclairCalculator;
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
+import dk.aau.ida8.util.StartNumberAllocator;
+import dk.aau.ida8.util.WeightCategories;
+import dk.aau.ida8.util.WeightClass;
 import dk.aau.ida8.util.groupbuilders.GroupBuilder;
 import dk.aau.ida8.util.groupbuilders.SinclairGroupBuilder;
 import dk.aau.ida8.util.groupbuilders.TotalWeightGroupBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.annotation.PostConstruct;
@@ -10,7 +17,6 @@ import javax.persistence.*;
 import java.security.InvalidParameterException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * This class represents one weightlifting competition.
@@ -58,10 +64,42 @@ import java.util.stream.IntStream;
  * After a competition is created, weightlifters sign-up to participate, with
  * each lifter's participation encapsulated and stored within a
  * {@link Participant Participant} instance.
+ *
+ * The pages of a competition each read a different part of its graph. The
+ * named entity graphs below describe the part fetched with the competition for
+ * each page (see {@link dk.aau.ida8.data.CompetitionRepository}). Whatever a
+ * graph leaves out is loaded in batches, rather than one row at a time, as set
+ * by the {@link BatchSize batch sizes} of the associations.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "competition_date_idx", columnList = "competitionDate"),
+        @Index(name = "competition_host_idx", columnList = "host_id"),
+        @Index(name = "competition_location_idx", columnList = "location_id")
+})
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Competition.participants",
+                attributeNodes = @NamedAttributeNode(value = "participants", subgraph = "participant"),
+                subgraphs = {
+                        @NamedSubgraph(name = "participant",
+                                attributeNodes = @NamedAttributeNode(value = "lifter", subgraph = "lifter")),
+                        @NamedSubgraph(name = "lifter",
+                                attributeNodes = @NamedAttributeNode("club"))
+                }),
+        @NamedEntityGraph(name = "Competition.competingGroups",
+                attributeNodes = @NamedAttributeNode("competingGroups")),
+        @NamedEntityGraph(name = "Competition.rankingGroups",
+                attributeNodes = @NamedAttributeNode("rankingGroups"))
+})
+@BatchSize(size = Competition.BATCH_SIZE)
 public class Competition {
 
+    /**
+     * The number of rows of an association loaded at once, where the
+     * association is not fetched with the entity which owns it.
+     */
+    public static final int BATCH_SIZE = 100;
+
     /**
      * Defines an enumeration representing the type of a competition.
      */
@@ -85,19 +123,22 @@ public class Competition {
     }
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     @OneToMany(cascade = {CascadeType.ALL})
     @JoinColumn(name = "competition_id")
+    @BatchSize(size = BATCH_SIZE)
     private List<Participant> participants = new ArrayList<>();
 
     @OneToMany(cascade = {CascadeType.ALL})
     @JoinColumn(name = "competition_id")
+    @BatchSize(size = BATCH_SIZE)
     private List<Group> competingGroups = new ArrayList<>();
 
     @OneToMany(cascade = {CascadeType.ALL})
     @JoinColumn(name = "competition_id")
+    @BatchSize(size = BATCH_SIZE)
     private List<Group> rankingGroups = new ArrayList<>();
 
     private String competitionName;
@@ -116,6 +157,28 @@ public class Competition {
     @ManyToOne
     private Club host;
 
+    /**
+     * The Olympic cycle whose Sinclair coefficients are used to score this
+     * competition. Where this is not set, the cycle is determined by the
+     * competition date.
+     */
+    private Integer sinclairCycle;
+
+    /**
+     * The name of the set of weight categories in which a total weight
+     * competition is held. Where this is not set, the default categories of
+     * {@link WeightClass} are used.
+     */
+    private String weightCategories;
+
+    /**
+     * The sequence number of the last journalled command written to the
+     * database for this competition. Commands are only written where their
+     * sequence number is greater, so a journal may safely be replayed more
+     * than once.
+     */
+    private Long journalSequence;
+
     /**
      * Contains the groupBuilder used to generate ranking and competing groups
      * for this competition.
@@ -123,6 +186,75 @@ public class Competition {
     @Transient
     private GroupBuilder groupBuilder;
 
+    /**
+     * Contains the Sinclair calculator for the cycle applicable to this
+     * competition, along with the generation of coefficients from which it
+     * was obtained. The calculator is obtained again once new coefficients
+     * are loaded.
+     */
+    @Transient
+    private SinclairCalculator sinclairCalculator;
+
+    @Transient
+    private int sinclairGeneration;
+
+    /**
+     * Contains the set of weight categories named by weightCategories, so
+     * that finding a participant's weight class need not look it up by name.
+     */
+    @Transient
+    private WeightCategories weightCategoryLimits;
+
+    /**
+     * Allocates start numbers to new participants. This is built from the
+     * start numbers of the existing participants when first required.
+     */
+    @Transient
+    private StartNumberAllocator startNumberAllocator;
+
+    /**
+     * Index participants by the ID# of their lifter and by their start
+     * number. These are built from the list of participants when first
+     * required, and then kept up-to-date as participants are added and
+     * removed.
+     */
+    @Transient
+    private Map<Long, Participant> participantsByLifterId;
+
+    @Transient
+    private Map<Integer, Participant> participantsByStartNumber;
+
+    /**
+     * Contain the competing and ranking groups of this competition, in order.
+     * Both group fields are mapped to the same table, so each contains every
+     * group of the competition once loaded; these lists hold only the groups
+     * of the relevant kind. They are built when first required.
+     */
+    @Transient
+    private List<Group> competingGroupList;
+
+    @Transient
+    private List<Group> rankingGroupList;
+
+    /**
+     * Contains the groups of which each participant is a member, so that a
+     * change in a participant need only be passed on to their own groups.
+     */
+    @Transient
+    private Map<Participant, List<Group>> groupsByParticipant;
+
+    /**
+     * The positions, within the lists of competing and ranking groups, of the
+     * first group which is not yet complete. These cursors only advance,
+     * except where undoing a lift makes a group incomplete again, when they
+     * are positioned again from the start. They are -1 until first required.
+     */
+    @Transient
+    private int currentCompetingGroupIndex = -1;
+
+    @Transient
+    private int currentRankingGroupIndex = -1;
+
     /**
      * Creates a new Competition object.
      *
@@ -220,6 +352,7 @@ public class Competition {
 
     public void setCompetitionDate(Date competitionDate) {
         this.competitionDate = competitionDate;
+        this.sinclairCalculator = null;
     }
 
     public void setLastRegistrationDate(Date lastRegistrationDate) {
@@ -228,6 +361,52 @@ public class Competition {
 
     public void setMaxNumParticipants(int maxNumParticipants) {
         this.maxNumParticipants = maxNumParticipants;
+        synchronized (this) {
+            this.startNumberAllocator = null;
+        }
+    }
+
+    /**
+     * Sets the Olympic cycle whose Sinclair coefficients are used to score
+     * this competition.
+     *
+     * @param sinclairCycle the first year of the cycle, or null to determine
+     *                      the cycle by the competition date
+     */
+    public void setSinclairCycle(Integer sinclairCycle) {
+        this.sinclairCycle = sinclairCycle;
+        this.sinclairCalculator = null;
+    }
+
+    /**
+     * Sets the set of weight categories in which this competition is held.
+     *
+     * @param weightCategories           the name of the set of categories, or
+     *                                   null (or empty) to use the default
+     *                                   categories
+     * @throws InvalidParameterException if there is no set of categories
+     *                                   with the given name
+     */
+    public void setWeightCategories(String weightCategories) throws InvalidParameterException {
+        if (weightCategories != null && weightCategories.isEmpty()) {
+            weightCategories = null;
+        }
+        if (weightCategories != null && !WeightClass.hasCategories(weightCategories)) {
+            String msg = "unknown weight categories: " + weightCategories;
+            throw new InvalidParameterException(msg);
+        }
+        this.weightCategories = weightCategories;
+        this.weightCategoryLimits = null;
+    }
+
+    /**
+     * Sets the sequence number of the last journalled command written to the
+     * database for this competition.
+     *
+     * @param journalSequence the sequence number of the last command written
+     */
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
     }
 
     /**
@@ -237,6 +416,7 @@ public class Competition {
      */
     private void setRankingGroups(List<Group> rankingGroups) {
         this.rankingGroups = rankingGroups;
+        resetGroupIndices();
     }
 
     /**
@@ -247,6 +427,19 @@ public class Competition {
      */
     private void setCompetingGroups(List<Group> competingGroups) {
         this.competingGroups = competingGroups;
+        resetGroupIndices();
+    }
+
+    /**
+     * Discards the cached lists of groups, the groups of each participant,
+     * and the current group cursors, following a change to the groups.
+     */
+    private void resetGroupIndices() {
+        competingGroupList = null;
+        rankingGroupList = null;
+        groupsByParticipant = null;
+        currentCompetingGroupIndex = -1;
+        currentRankingGroupIndex = -1;
     }
 
     /******************
@@ -333,6 +526,76 @@ public class Competition {
         return maxNumParticipants;
     }
 
+    /**
+     * Gets the Olympic cycle whose Sinclair coefficients are used to score
+     * this competition.
+     *
+     * Where no cycle has been set, this is the year of the competition.
+     *
+     * @return the year determining the Sinclair coefficients, or null if
+     *         neither a cycle nor a competition date has been set
+     */
+    public Integer getSinclairCycle() {
+        if (sinclairCycle != null) {
+            return sinclairCycle;
+        } else if (competitionDate != null) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(competitionDate);
+            return cal.get(Calendar.YEAR);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the Sinclair calculator used to score this competition.
+     *
+     * See {@link SinclairCoefficientRegistry#getCalculator(Integer)} for
+     * details of how the calculator is chosen.
+     *
+     * @return the Sinclair calculator for this competition
+     */
+    public SinclairCalculator getSinclairCalculator() {
+        int generation = SinclairCoefficientRegistry.getGeneration();
+        if (sinclairCalculator == null || sinclairGeneration != generation) {
+            sinclairCalculator = SinclairCoefficientRegistry.getCalculator(getSinclairCycle());
+            sinclairGeneration = generation;
+        }
+        return sinclairCalculator;
+    }
+
+    /**
+     * Gets the name of the set of weight categories in which this competition
+     * is held.
+     *
+     * @return the name of the set of categories
+     */
+    public String getWeightCategories() {
+        return weightCategories == null ? WeightClass.DEFAULT_CATEGORIES : weightCategories;
+    }
+
+    /**
+     * Gets the set of weight categories in which this competition is held.
+     *
+     * @return the set of categories for this competition
+     */
+    public WeightCategories getWeightCategoryLimits() {
+        if (weightCategoryLimits == null) {
+            weightCategoryLimits = WeightClass.getCategories(weightCategories);
+        }
+        return weightCategoryLimits;
+    }
+
+    /**
+     * Gets the sequence number of the last journalled command written to the
+     * database for this competition.
+     *
+     * @return the sequence number of the last command written, or 0 if no
+     *         command has been written
+     */
+    public long getJournalSequence() {
+        return journalSequence == null ? 0 : journalSequence;
+    }
+
     /**
      * Gets the host club for this competition.
      *
@@ -366,9 +629,12 @@ public class Competition {
      * @return the list of ranking groups for this competition
      */
     public List<Group> getRankingGroups() {
-        return rankingGroups.stream()
-                .filter(Group::isRankingGroup)
-                .collect(Collectors.toList());
+        if (rankingGroupList == null) {
+            rankingGroupList = Collections.unmodifiableList(rankingGroups.stream()
+                    .filter(Group::isRankingGroup)
+                    .collect(Collectors.toList()));
+        }
+        return rankingGroupList;
     }
 
 
@@ -384,9 +650,12 @@ public class Competition {
      * @return the list of ranking groups for this competition
      */
     public List<Group> getCompetingGroups() {
-        return competingGroups.stream()
-                .filter(Group::isCompetingGroup)
-                .collect(Collectors.toList());
+        if (competingGroupList == null) {
+            competingGroupList = Collections.unmodifiableList(competingGroups.stream()
+                    .filter(Group::isCompetingGroup)
+                    .collect(Collectors.toList()));
+        }
+        return competingGroupList;
     }
 
     /******************
@@ -415,6 +684,14 @@ public class Competition {
      */
     void addParticipant(Participant p) {
         participants.add(p);
+        synchronized (this) {
+            if (startNumberAllocator != null) {
+                startNumberAllocator.reserve(p.getStartNumber());
+            }
+            if (participantsByLifterId != null) {
+                indexParticipant(p);
+            }
+        }
     }
 
     /**
@@ -433,7 +710,19 @@ public class Competition {
      * @param participant the participant object to remove
      */
     void removeParticipant(Participant participant) {
-        participants.remove(participant);
+        if (participants.remove(participant)) {
+            synchronized (this) {
+                if (startNumberAllocator != null) {
+                    startNumberAllocator.release(participant.getStartNumber());
+                }
+                if (participantsByLifterId != null) {
+                    if (participant.getLifter() != null) {
+                        participantsByLifterId.remove(participant.getLifter().getId(), participant);
+                    }
+                    participantsByStartNumber.remove(participant.getStartNumber(), participant);
+                }
+            }
+        }
     }
 
     /**
@@ -442,12 +731,74 @@ public class Competition {
      * @param lifter the lifter for which to obtain the participation
      *               instance
      * @return participation instance for the passed lifter
+     * @throws InvalidParameterException if the lifter is not participating in
+     *                                   this competition
      */
-    public Participant selectParticipantByLifter(Lifter lifter) {
-        List<Participant> ps = getParticipants().stream()
-                .filter(p -> p.getLifter().equals(lifter))
-                .collect(Collectors.toList());
-        return ps.get(0);
+    public synchronized Participant selectParticipantByLifter(Lifter lifter)
+            throws InvalidParameterException {
+        buildParticipantIndex();
+        Participant p = participantsByLifterId.get(lifter.getId());
+        if (p == null) {
+            String msg = "lifter " + lifter.getId() + " is not participating";
+            throw new InvalidParameterException(msg);
+        }
+        return p;
+    }
+
+    /**
+     * Gets the participant with the given start number.
+     *
+     * @param startNumber the start number of the participant
+     * @return            the participant with the given start number
+     * @throws InvalidParameterException if no participant has the given start
+     *                                   number
+     */
+    public synchronized Participant selectParticipantByStartNumber(int startNumber)
+            throws InvalidParameterException {
+        buildParticipantIndex();
+        Participant p = participantsByStartNumber.get(startNumber);
+        if (p == null) {
+            String msg = "no participant has start number " + startNumber;
+            throw new InvalidParameterException(msg);
+        }
+        return p;
+    }
+
+    /**
+     * Determines whether a lifter is participating in this competition.
+     *
+     * @param lifter the lifter to check for
+     * @return       true if the lifter is participating, else false
+     */
+    public synchronized boolean isParticipating(Lifter lifter) {
+        buildParticipantIndex();
+        return participantsByLifterId.containsKey(lifter.getId());
+    }
+
+    /**
+     * Builds the indices of participants by lifter ID# and by start number,
+     * if these have not already been built.
+     */
+    private void buildParticipantIndex() {
+        if (participantsByLifterId == null) {
+            participantsByLifterId = new HashMap<>(participants.size() * 2);
+            participantsByStartNumber = new HashMap<>(participants.size() * 2);
+            for (Participant p : participants) {
+                indexParticipant(p);
+            }
+        }
+    }
+
+    /**
+     * Adds a participant to the indices of participants.
+     *
+     * @param p the participant to index
+     */
+    private void indexParticipant(Participant p) {
+        if (p.getLifter() != null) {
+            participantsByLifterId.put(p.getLifter().getId(), p);
+        }
+        participantsByStartNumber.put(p.getStartNumber(), p);
     }
 
     /**
@@ -487,10 +838,14 @@ public class Competition {
      * The competing and ranking groups are used to ensure the proper order
      * of the competition, and to determine the winners of the competition
      * after completion, respectively.
+     *
+     * The time taken is recorded by the "groupBuilder.allocate" timer.
      */
     private void allocateGroups() {
-        setRankingGroups(getGroupBuilder().createRankingGroups());
-        setCompetingGroups(getGroupBuilder().createCompetingGroups());
+        Metrics.time("groupBuilder.allocate", () -> {
+            setRankingGroups(getGroupBuilder().createRankingGroups());
+            setCompetingGroups(getGroupBuilder().createCompetingGroups());
+        });
     }
 
     /**
@@ -524,15 +879,66 @@ public class Competition {
      *                                   any ranking group
      */
     public int getRank(Participant participant) throws InvalidParameterException {
-        for (Group g : getRankingGroups()) {
-            if (g.containsParticipant(participant)) {
-                return g.getRank(participant);
+        for (Group g : getGroupsOf(participant)) {
+            if (g.isRankingGroup()) {
+                Integer rank = g.getRankings().get(participant);
+                if (rank != null) {
+                    return rank;
+                }
             }
         }
         String msg = "unable to find Participant within any ranking group";
         throw new InvalidParameterException(msg);
     }
 
+    /**
+     * Notifies this competition that the state of one of its participants has
+     * changed, for example following a lift or a change in weight.
+     *
+     * Groups cache their ordering and rankings between changes. This method
+     * passes the notification on to each group containing the participant,
+     * so that it discards its cached ordering. Where the change makes a
+     * complete group incomplete again, such as where a final lift is undone,
+     * the current group cursors are positioned again.
+     *
+     * @param participant the participant whose state has changed
+     */
+    void participantChanged(Participant participant) {
+        boolean reopened = false;
+        for (Group g : getGroupsOf(participant)) {
+            reopened |= g.participantChanged(participant);
+        }
+        if (reopened) {
+            currentCompetingGroupIndex = -1;
+            currentRankingGroupIndex = -1;
+        }
+    }
+
+    /**
+     * Gets the competing and ranking groups of which a participant is a
+     * member.
+     *
+     * @param participant the participant whose groups to get
+     * @return            the groups containing the participant
+     */
+    private List<Group> getGroupsOf(Participant participant) {
+        if (groupsByParticipant == null) {
+            Map<Participant, List<Group>> map = new IdentityHashMap<>();
+            for (Group g : getCompetingGroups()) {
+                for (Participant p : g.getUnsortedParticipants()) {
+                    map.computeIfAbsent(p, k -> new ArrayList<>(2)).add(g);
+                }
+            }
+            for (Group g : getRankingGroups()) {
+                for (Participant p : g.getUnsortedParticipants()) {
+                    map.computeIfAbsent(p, k -> new ArrayList<>(2)).add(g);
+                }
+            }
+            groupsByParticipant = map;
+        }
+        return groupsByParticipant.getOrDefault(participant, Collections.emptyList());
+    }
+
     /**
      * Gets the competing group currently competing in the competition.
      *
@@ -543,12 +949,10 @@ public class Competition {
      *         complete
      */
     public Optional<Group> getCurrentCompetingGroup() {
-        for (Group g : getCompetingGroups()) {
-            for (Participant p : g.getParticipants()) {
-                if (!p.allLiftsComplete()) {
-                    return Optional.of(g);
-                }
-            }
+        List<Group> groups = getCompetingGroups();
+        currentCompetingGroupIndex = advanceCursor(groups, currentCompetingGroupIndex);
+        if (currentCompetingGroupIndex < groups.size()) {
+            return Optional.of(groups.get(currentCompetingGroupIndex));
         }
         return Optional.empty();
     }
@@ -564,16 +968,35 @@ public class Competition {
      *         complete
      */
     public Optional<Group> getCurrentRankingGroup() {
-        for (Group g : getRankingGroups()) {
-            for (Participant p : g.getParticipants()) {
-                if (!p.allLiftsComplete()) {
-                    return Optional.of(g);
-                }
-            }
+        List<Group> groups = getRankingGroups();
+        currentRankingGroupIndex = advanceCursor(groups, currentRankingGroupIndex);
+        if (currentRankingGroupIndex < groups.size()) {
+            return Optional.of(groups.get(currentRankingGroupIndex));
         }
         return Optional.empty();
     }
 
+    /**
+     * Advances a cursor over a list of groups past any complete groups.
+     *
+     * The cursor does not move while the group at its position has lifts
+     * outstanding, so this takes constant time except when a group has just
+     * finished.
+     *
+     * @param groups the groups over which the cursor moves
+     * @param index  the current position of the cursor, or -1 if it has not
+     *               yet been positioned
+     * @return       the position of the first incomplete group at or after
+     *               the cursor, or the size of the list if all are complete
+     */
+    private static int advanceCursor(List<Group> groups, int index) {
+        int i = Math.max(index, 0);
+        while (i < groups.size() && groups.get(i).isComplete()) {
+            i++;
+        }
+        return i;
+    }
+
 
 
     /**
@@ -581,19 +1004,61 @@ public class Competition {
      *
      * Start numbers are allocated randomly from a range of numbers from 1 up
      * to the maximum number of participants. The same number cannot be
-     * allocated twice. This method generates a range of numbers up to max
-     * participants, and excludes those already allocated. It then returns this
-     * list.
+     * allocated twice. This method lists those numbers in the range which
+     * have not yet been allocated.
      *
      * @return list of all available start numbers
      */
     public List<Integer> availableStartNumbers() {
-        List<Integer> remainingNumbers = IntStream.rangeClosed(1, getMaxNumParticipants())
-                .boxed()
-                .collect(Collectors.toList());
-        getParticipants()
-                .forEach(p -> remainingNumbers.remove((Integer) p.getStartNumber()));
-        return remainingNumbers;
+        return getStartNumberAllocator().getAvailable();
+    }
+
+    /**
+     * Allocates a random start number which has not yet been allocated to
+     * another participant.
+     *
+     * @return the allocated start number
+     * @throws UnsupportedOperationException if all start numbers have been
+     *                                       allocated
+     */
+    int allocateStartNumber() throws UnsupportedOperationException {
+        return getStartNumberAllocator().allocate();
+    }
+
+    /**
+     * Notifies this competition that the start number of a participant has
+     * been changed, so that the old number becomes available and the new
+     * number does not.
+     *
+     * @param participant    the participant whose start number has changed
+     * @param oldStartNumber the previous start number of the participant
+     */
+    synchronized void startNumberChanged(Participant participant, int oldStartNumber) {
+        if (startNumberAllocator != null) {
+            startNumberAllocator.release(oldStartNumber);
+            startNumberAllocator.reserve(participant.getStartNumber());
+        }
+        if (participantsByStartNumber != null) {
+            participantsByStartNumber.remove(oldStartNumber, participant);
+            participantsByStartNumber.put(participant.getStartNumber(), participant);
+        }
+    }
+
+    /**
+     * Gets the start number allocator for this competition, creating it from
+     * the start numbers of existing participants if necessary.
+     *
+     * @return the start number allocator for this competition
+     */
+    private synchronized StartNumberAllocator getStartNumberAllocator() {
+        if (startNumberAllocator == null) {
+            List<Integer> allocated = new ArrayList<>(participants.size());
+            for (Participant p : participants) {
+                allocated.add(p.getStartNumber());
+            }
+            startNumberAllocator = new StartNumberAllocator(getMaxNumParticipants(), allocated);
+        }
+        return startNumberAllocator;
     }
 
     /**
@@ -603,13 +1068,17 @@ public class Competition {
      * has been completed by the user. Any signed-up participants should be
      * removed from the competition if they have not yet been checked-in by the
      * time weigh-in is finished.
+     *
+     * The time taken is recorded by the "competition.finishWeighIn" timer.
      */
     public void finishWeighIn() {
-        List<Participant> ps = getParticipants().stream()
-                .filter(Participant::isNotWeighedIn)
-                .collect(Collectors.toList());
-        ps.forEach(this::removeParticipant);
-        allocateGroups();
+        Metrics.time("competition.finishWeighIn", () -> {
+            List<Participant> ps = getParticipants().stream()
+                    .filter(Participant::isNotWeighedIn)
+                    .collect(Collectors.toList());
+            ps.forEach(this::removeParticipant);
+            allocateGroups();
+        });
     }
 
     /**
@@ -676,21 +1145,12 @@ public class Competition {
      * Determines whether the competition is complete.
      *
      * A competition is complete when all participants have undertaken all of
-     * the required lifts.
+     * the required lifts, that is when every competing group is complete.
      *
      * @return true, if complete, else false
      */
     public boolean isCompetitionComplete() {
-        if (isWeighInComplete()) {
-            for (Participant p : getParticipants()) {
-                if (!p.allLiftsComplete()) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            return false;
-        }
+        return isWeighInComplete() && !getCurrentCompetingGroup().isPresent();
     }
 
     /**
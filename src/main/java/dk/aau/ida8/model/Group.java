@@ -1,10 +1,15 @@
 package dk.aau.ida8.model;
 
 
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.util.LiftingOrder;
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
 import dk.aau.ida8.util.groupcomparators.CompetingComparator;
 import dk.aau.ida8.util.groupcomparators.SinclairRankingComparator;
 import dk.aau.ida8.util.groupcomparators.TotalWeightRankingComparator;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import java.security.InvalidParameterException;
 import java.util.*;
@@ -42,7 +47,8 @@ import java.util.stream.Stream;
  * order in which participants participate in lifts.
  */
 @Entity
-@Table(name="COMPETITION_GROUP")
+@Table(name="COMPETITION_GROUP",
+        indexes = @Index(name = "competition_group_competition_idx", columnList = "competition_id"))
 public class Group {
 
     /**
@@ -56,13 +62,23 @@ public class Group {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.TABLE)
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     /**
      * The list of Participants within a Group.
      */
     @ManyToMany(cascade = {CascadeType.ALL})
+    @JoinTable(name = "COMPETITION_GROUP_PARTICIPANTS",
+            joinColumns = @JoinColumn(name = "competition_group_id"),
+            inverseJoinColumns = @JoinColumn(name = "participants_id"),
+            indexes = {
+                    @Index(name = "competition_group_participants_group_idx",
+                            columnList = "competition_group_id"),
+                    @Index(name = "competition_group_participants_participant_idx",
+                            columnList = "participants_id")
+            })
+    @BatchSize(size = Competition.BATCH_SIZE)
     private List<Participant> participants;
 
     private ComparatorType comparatorType;
@@ -73,6 +89,49 @@ public class Group {
     @Transient
     private Comparator<Participant> groupComparator;
 
+    /**
+     * Indicates whether the list of participants is currently sorted using
+     * the group comparator. This is cleared whenever the state of a member of
+     * the group changes, so that sorting only takes place when the order may
+     * actually have changed.
+     */
+    @Transient
+    private boolean sorted = false;
+
+    /**
+     * Contains the rank of each participant within this group, as calculated
+     * by {@link #getRankings()}. This is null until first requested, and is
+     * discarded whenever the ordering of the group may have changed.
+     */
+    @Transient
+    private Map<Participant, Integer> rankings;
+
+    /**
+     * The generation of Sinclair coefficients with which the participants
+     * were last sorted. Where coefficients have since been reloaded, Sinclair
+     * scores may have changed, so the sorted order and cached rankings are
+     * discarded.
+     */
+    @Transient
+    private int sortedGeneration;
+
+    /**
+     * Holds the order of lifting for a competing group. This is built when
+     * the next participant to lift is first requested, and thereafter only
+     * the participant whose state changed is re-positioned within it.
+     */
+    @Transient
+    private LiftingOrder liftingOrder;
+
+    /**
+     * Contains those members of the group who still have lifts to carry out.
+     * This is built when first required, and participants are removed from it
+     * as they complete their final lift, so that determining whether the
+     * group is complete does not require every participant to be checked.
+     */
+    @Transient
+    private Set<Participant> outstandingParticipants;
+
     /**
      * Empty constructor required by Hibernate.
      */
@@ -130,19 +189,44 @@ public class Group {
      * This will represent the participant currently in the lead for a ranking
      * group, or the participant next to lift in a competing group.
      *
+     * For a competing group, the next participant is taken from the
+     * {@link LiftingOrder lifting order} of the group, rather than by sorting
+     * all participants.
+     *
      * @return the first participant within the group
      */
     public Participant getFirstParticipant() {
+        if (isCompetingGroup()) {
+            return getLiftingOrder().peek();
+        }
         return getParticipants().get(0);
     }
 
+    /**
+     * Gets the lifting order for this group, creating it if necessary.
+     *
+     * @return the lifting order for this group
+     */
+    private LiftingOrder getLiftingOrder() {
+        if (liftingOrder == null) {
+            liftingOrder = new LiftingOrder(participants, getGroupComparator());
+        }
+        return liftingOrder;
+    }
+
     /**
      * Gets a sorted list of all participants.
      *
+     * The list is only re-sorted where the state of a participant within the
+     * group has changed since it was last sorted.
+     *
      * @return sorted list of all participants in the group
      */
     public List<Participant> getParticipants() {
-        sortParticipants();
+        checkGeneration();
+        if (!sorted) {
+            sortParticipants();
+        }
         return participants;
     }
 
@@ -186,7 +270,64 @@ public class Group {
      * by taking the lowest of these lifters' ID#.
      */
     public void sortParticipants() {
+        sortedGeneration = SinclairCoefficientRegistry.getGeneration();
         participants.sort(getGroupComparator());
+        sorted = true;
+    }
+
+    /**
+     * Notifies this group that the state of a participant has changed.
+     *
+     * A change in the lifts or weights of a participant may alter the order
+     * of the group, so the sorted order and cached rankings are discarded if
+     * the participant is a member of this group, and the participant is
+     * re-positioned within the lifting order. Where nothing has yet been
+     * cached, there is nothing to discard and membership is not checked.
+     *
+     * Participants who have completed all of their lifts are no longer
+     * counted as outstanding. A participant whose final lift is undone is
+     * counted as outstanding again.
+     *
+     * @param p the participant whose state has changed
+     * @return  true if the participant had completed all of their lifts, and
+     *          is again outstanding
+     */
+    boolean participantChanged(Participant p) {
+        boolean reopened = false;
+        if (outstandingParticipants != null) {
+            if (p.allLiftsComplete()) {
+                outstandingParticipants.remove(p);
+            } else {
+                reopened = outstandingParticipants.add(p);
+            }
+        }
+        if (liftingOrder != null) {
+            if (liftingOrder.contains(p)) {
+                liftingOrder.update(p);
+                invalidateOrdering();
+            }
+        } else if ((sorted || rankings != null) && containsParticipant(p)) {
+            invalidateOrdering();
+        }
+        return reopened;
+    }
+
+    /**
+     * Discards the sorted order and cached rankings of this group where the
+     * Sinclair coefficients have been reloaded since it was sorted.
+     */
+    private void checkGeneration() {
+        if (sorted && sortedGeneration != SinclairCoefficientRegistry.getGeneration()) {
+            invalidateOrdering();
+        }
+    }
+
+    /**
+     * Discards the sorted order and cached rankings of this group.
+     */
+    private void invalidateOrdering() {
+        sorted = false;
+        rankings = null;
     }
 
     /**
@@ -201,7 +342,7 @@ public class Group {
         } else if (getComparatorType() == ComparatorType.TOTAL_WEIGHT_RANKING) {
             this.groupComparator = new TotalWeightRankingComparator();
         } else if (getComparatorType() == ComparatorType.COMPETING) {
-            this.groupComparator =  new CompetingComparator();
+            this.groupComparator = CompetingComparator.INSTANCE;
         } else {
             String msg = "unknown competition type: " + getComparatorType();
             throw new UnsupportedOperationException(msg);
@@ -240,7 +381,42 @@ public class Group {
      * @param p participant to add
      */
     public void addParticipant(Participant p){
-        getParticipants().add(p);
+        participants.add(p);
+        if (liftingOrder != null) {
+            liftingOrder.add(p);
+        }
+        if (outstandingParticipants != null && !p.allLiftsComplete()) {
+            outstandingParticipants.add(p);
+        }
+        invalidateOrdering();
+    }
+
+    /**
+     * Determines whether all participants in this group have completed all of
+     * their lifts.
+     *
+     * @return true if all lifts in the group are complete, else false
+     */
+    public boolean isComplete() {
+        return getOutstandingParticipantsCount() == 0;
+    }
+
+    /**
+     * Counts the participants in this group who have not yet completed all of
+     * their lifts.
+     *
+     * @return the number of participants with lifts outstanding
+     */
+    public int getOutstandingParticipantsCount() {
+        if (outstandingParticipants == null) {
+            outstandingParticipants = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Participant p : participants) {
+                if (!p.allLiftsComplete()) {
+                    outstandingParticipants.add(p);
+                }
+            }
+        }
+        return outstandingParticipants.size();
     }
 
     /**
@@ -257,44 +433,48 @@ public class Group {
      *                                   group
      */
     public int getRank(Participant p) throws InvalidParameterException {
-        if (getParticipants().contains(p)) {
-            return getRankings().get(p);
-        } else {
+        Integer rank = getRankings().get(p);
+        if (rank == null) {
             String msg = "participant " + p + " is not in this group";
             throw new InvalidParameterException(msg);
         }
+        return rank;
     }
 
     /**
      * Determines the rankings of all participants within the group.
      *
-     * Because participants may be ranked equally, this method groups all
-     * participants using the encapsulated comparator, and then groups the
-     * participants by "score". Rankings are contained within a Map indexed
-     * by rank, with lists of participants for its values.
+     * Because participants may be ranked equally, this method walks the sorted
+     * participants using the encapsulated comparator, and gives a participant
+     * the same rank as its predecessor where the two compare as equal.
      *
-     * In most cases, the list will contain only one value. However, where
-     * participants are tied, a list will contain more elements.
+     * The rankings are calculated once and cached until the state of a
+     * participant in the group changes (see
+     * {@link #participantChanged(Participant)}), so repeated lookups while
+     * rendering a results table do not re-sort the group. They are also
+     * recalculated once the Sinclair coefficients have been reloaded. The
+     * time taken to calculate the rankings is recorded by the
+     * "group.rankings" timer.
      *
-     * @return a map indexed by rank with value being a list of participants
+     * @return a map from each participant to their rank within the group
      */
-    private Map<Participant, Integer> getRankings() {
-        List<Participant> ps = getParticipants();
-        List<Integer> ranks = new ArrayList<>();
-        ranks.add(1); // First value will always be 1
-        for (int i = 1; i < ps.size(); i++) {
-            if (getGroupComparator().compare(ps.get(i-1), ps.get(i)) == 0) {
-                int prevRank = ranks.get(ranks.size()-1);
-                ranks.add(prevRank);
-            } else {
-                ranks.add(i+1);
-            }
-        }
-        Map<Participant, Integer> rankMap = new HashMap<>();
-        for (int i = 0; i < ranks.size(); i++) {
-            rankMap.put(ps.get(i), ranks.get(i));
+    Map<Participant, Integer> getRankings() {
+        checkGeneration();
+        if (rankings == null) {
+            rankings = Metrics.time("group.rankings", () -> {
+                List<Participant> ps = getParticipants();
+                Map<Participant, Integer> rankMap = new HashMap<>();
+                int rank = 1; // First value will always be 1
+                for (int i = 0; i < ps.size(); i++) {
+                    if (i > 0 && getGroupComparator().compare(ps.get(i-1), ps.get(i)) != 0) {
+                        rank = i + 1;
+                    }
+                    rankMap.put(ps.get(i), rank);
+                }
+                return rankMap;
+            });
         }
-        return rankMap;
+        return rankings;
     }
 
     /**
@@ -0,0 +1,345 @@
+package dk.aau.ida8.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class represents a snapshot of the standings within a competition.
+ *
+ * The dashboard and results views display, for every participant, their lifts,
+ * best lifts, total, Sinclair score and rank. Calculating these while a view is
+ * rendered would recalculate them for every cell of every view. Instead, a
+ * leaderboard calculates every value once, when created, and holds them in
+ * immutable {@link Row rows}.
+ *
+ * As a leaderboard is immutable, the same leaderboard can be shared between
+ * all viewers of a competition until the state of the competition changes.
+ */
+public class Leaderboard {
+
+    private final long competitionId;
+    private final List<Row> competingRows;
+    private final List<Section> rankingSections;
+
+    /**
+     * Creates a leaderboard from the current state of a competition.
+     *
+     * @param competition the competition for which to create a leaderboard
+     */
+    public Leaderboard(Competition competition) {
+        this.competitionId = competition.getId();
+
+        Map<Participant, Integer> ranks = new IdentityHashMap<>();
+        for (Group g : competition.getRankingGroups()) {
+            ranks.putAll(g.getRankings());
+        }
+
+        Optional<Group> currentGroup = competition.getCurrentCompetingGroup();
+        if (currentGroup.isPresent()) {
+            this.competingRows = createRows(currentGroup.get(), ranks);
+        } else {
+            this.competingRows = Collections.emptyList();
+        }
+
+        List<Section> sections = new ArrayList<>();
+        for (Group g : competition.getRankingGroups()) {
+            sections.add(new Section(g.getId(), createRows(g, ranks)));
+        }
+        this.rankingSections = Collections.unmodifiableList(sections);
+    }
+
+    /**
+     * Creates a row for each participant in a group, in the order of the
+     * group.
+     *
+     * @param group the group for which to create rows
+     * @param ranks the rank of each participant
+     * @return      the rows for the participants of the group
+     */
+    private static List<Row> createRows(Group group, Map<Participant, Integer> ranks) {
+        List<Row> rows = new ArrayList<>(group.getParticipantsCount());
+        for (Participant p : group.getParticipants()) {
+            Integer rank = ranks.get(p);
+            rows.add(new Row(p, rank == null ? 0 : rank));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Gets the ID# of the competition for which this leaderboard was created.
+     *
+     * @return the ID# of the competition
+     */
+    public long getCompetitionId() {
+        return competitionId;
+    }
+
+    /**
+     * Gets the rows for the participants of the current competing group, in
+     * the order in which they are to lift.
+     *
+     * @return the rows for the current competing group, or an empty list if
+     *         the competition is complete
+     */
+    public List<Row> getCompetingRows() {
+        return competingRows;
+    }
+
+    /**
+     * Gets the row for the participant next to lift.
+     *
+     * @return the row for the participant next to lift, or an empty optional
+     *         if the competition is complete
+     */
+    public Optional<Row> getCurrentRow() {
+        return competingRows.isEmpty() ? Optional.empty() : Optional.of(competingRows.get(0));
+    }
+
+    /**
+     * Determines whether the competition was complete when this leaderboard
+     * was created.
+     *
+     * @return true if every competing group was complete, else false
+     */
+    public boolean isComplete() {
+        return competingRows.isEmpty();
+    }
+
+    /**
+     * Gets a section for each ranking group, with the rows for the
+     * participants in order of rank.
+     *
+     * @return the sections for each ranking group
+     */
+    public List<Section> getRankingSections() {
+        return rankingSections;
+    }
+
+    /**
+     * This class represents one ranking group within a leaderboard.
+     */
+    public static class Section {
+
+        private final long id;
+        private final List<Row> rows;
+
+        private Section(long id, List<Row> rows) {
+            this.id = id;
+            this.rows = rows;
+        }
+
+        /**
+         * Gets the ID# of the group which this section represents.
+         *
+         * @return the ID# of the group
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Gets the rows for the participants of the group, in order of rank.
+         *
+         * @return the rows for the participants of the group
+         */
+        public List<Row> getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * This class represents the standing of one participant within a
+     * leaderboard.
+     */
+    public static class Row {
+
+        private final long id;
+        private final int startNumber;
+        private final String forename;
+        private final String surname;
+        private final String fullName;
+        private final String genderInitial;
+        private final String dateOfBirthString;
+        private final String clubName;
+        private final double bodyWeight;
+        private final int currentWeight;
+        private final List<Cell> snatchCells;
+        private final List<Cell> cleanAndJerkCells;
+        private final int bestSnatch;
+        private final int bestCleanAndJerk;
+        private final int totalScore;
+        private final double sinclairScore;
+        private final int rank;
+        private final boolean weightChangeAllowed;
+
+        private Row(Participant p, int rank) {
+            this.id = p.getId();
+            this.startNumber = p.getStartNumber();
+            this.forename = p.getForename();
+            this.surname = p.getSurname();
+            this.fullName = p.getFullName();
+            this.genderInitial = p.getGenderInitial();
+            this.dateOfBirthString = p.getDateOfBirth() == null ? "" : p.getDateOfBirthString();
+            this.clubName = p.getClubName();
+            this.bodyWeight = p.getBodyWeight();
+            this.currentWeight = p.getCurrentWeight();
+            this.snatchCells = createCells(p.getSnatchLifts());
+            this.cleanAndJerkCells = createCells(p.getCleanAndJerkLifts());
+            this.bestSnatch = p.getBestSnatch();
+            this.bestCleanAndJerk = p.getBestCleanAndJerk();
+            this.totalScore = p.getTotalScore();
+            this.sinclairScore = p.getSinclairScore();
+            this.rank = rank;
+            this.weightChangeAllowed = p.canChangeWeight();
+        }
+
+        /**
+         * Creates a cell for each of the three attempts at a type of lift,
+         * with a blank cell for each attempt not yet made.
+         *
+         * @param lifts the lifts made of one type
+         * @return      the cells for the three attempts
+         */
+        private static List<Cell> createCells(List<Lift> lifts) {
+            List<Cell> cells = new ArrayList<>(3);
+            for (Lift l : lifts) {
+                cells.add(new Cell(l));
+            }
+            while (cells.size() < 3) {
+                cells.add(Cell.INCOMPLETE);
+            }
+            return Collections.unmodifiableList(cells);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getStartNumber() {
+            return startNumber;
+        }
+
+        public String getForename() {
+            return forename;
+        }
+
+        public String getSurname() {
+            return surname;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getGenderInitial() {
+            return genderInitial;
+        }
+
+        public String getDateOfBirthString() {
+            return dateOfBirthString;
+        }
+
+        public String getClubName() {
+            return clubName;
+        }
+
+        public double getBodyWeight() {
+            return bodyWeight;
+        }
+
+        public int getCurrentWeight() {
+            return currentWeight;
+        }
+
+        public List<Cell> getSnatchCells() {
+            return snatchCells;
+        }
+
+        public List<Cell> getCleanAndJerkCells() {
+            return cleanAndJerkCells;
+        }
+
+        public int getBestSnatch() {
+            return bestSnatch;
+        }
+
+        public int getBestCleanAndJerk() {
+            return bestCleanAndJerk;
+        }
+
+        public int getTotalScore() {
+            return totalScore;
+        }
+
+        public double getSinclairScore() {
+            return sinclairScore;
+        }
+
+        /**
+         * Gets the rank of the participant within their ranking group.
+         *
+         * @return the rank of the participant, or 0 if the participant is not
+         *         in a ranking group
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * Determines whether the participant was permitted to change weight
+         * when this leaderboard was created.
+         *
+         * @return true if the participant could change weight, else false
+         */
+        public boolean canChangeWeight() {
+            return weightChangeAllowed;
+        }
+    }
+
+    /**
+     * This class represents one attempt at a lift within a leaderboard row.
+     */
+    public static class Cell {
+
+        /**
+         * The cell representing an attempt not yet made.
+         */
+        static final Cell INCOMPLETE = new Cell("", "incomplete-lift");
+
+        private final String text;
+        private final String cssClass;
+
+        private Cell(Lift lift) {
+            this(lift.isAbstained() ? "-" : Integer.toString(lift.getWeight()),
+                    lift.getOutcome().toString().toLowerCase() + "-lift");
+        }
+
+        private Cell(String text, String cssClass) {
+            this.text = text;
+            this.cssClass = cssClass;
+        }
+
+        /**
+         * Gets the text to display for this attempt: the weight, or a dash
+         * if abstained.
+         *
+         * @return the text to display for this attempt
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Gets the CSS class to apply to this attempt, reflecting its outcome.
+         *
+         * @return the CSS class to apply to this attempt
+         */
+        public String getCssClass() {
+            return cssClass;
+        }
+    }
+}
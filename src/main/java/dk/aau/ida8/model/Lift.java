@@ -3,7 +3,9 @@ package dk.aau.ida8.model;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import java.security.InvalidParameterException;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -20,6 +22,7 @@ import java.time.LocalDateTime;
  * be the weight lifted if successful, or 0 if not).
  */
 @Entity
+@Table(indexes = @Index(name = "lift_participant_idx", columnList = "participant_id"))
 public class Lift {
 
     /**
@@ -42,7 +45,7 @@ public class Lift {
     }
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private Long id;
 
     private LiftOutcome outcome;
@@ -89,6 +92,27 @@ public class Lift {
         return new Lift(participant, liftType, weight, LiftOutcome.ABSTAIN);
     }
 
+    /**
+     * Creates a new Lift object made at a given time.
+     *
+     * This is used where a lift is recreated from a
+     * {@link ParticipantEvent recorded event}, so that the lift keeps the time
+     * at which it was originally made.
+     *
+     * @param participant the participant undertaking the lift
+     * @param liftType    the type of lift
+     * @param weight      the weight of the lift
+     * @param outcome     the outcome of the lift
+     * @param timestamp   the time at which the lift was made
+     * @return a Lift object containing values as passed to this method
+     */
+    static Lift madeAt(Participant participant, LiftType liftType, int weight,
+                       LiftOutcome outcome, LocalDateTime timestamp) {
+        Lift lift = new Lift(participant, liftType, weight, outcome);
+        lift.timestamp = timestamp;
+        return lift;
+    }
+
     /**
      * Empty constructor required for Hibernate.
      */
@@ -189,6 +213,9 @@ public class Lift {
     /**
      * Sets the weight for a particular lift.
      *
+     * The participant undertaking the lift is notified of the correction, as
+     * it may affect their scores and ranking.
+     *
      * @param weight the weight to set the lift to
      * @throws InvalidParameterException if weight passed is less than or
      *                                   equal to zero
@@ -199,6 +226,19 @@ public class Lift {
             throw new InvalidParameterException(msg);
         }
         this.weight = weight;
+        if (participant != null) {
+            participant.liftChanged(this);
+        }
+    }
+
+    /**
+     * Restores the weight of this lift to a previously recorded value,
+     * without notifying the participant.
+     *
+     * @param weight the weight to restore
+     */
+    void restoreWeight(int weight) {
+        this.weight = weight;
     }
 
     /**
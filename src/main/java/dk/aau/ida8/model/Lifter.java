@@ -1,5 +1,8 @@
 package dk.aau.ida8.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.persistence.*;
@@ -17,6 +20,9 @@ import java.util.List;
  * representing an individual's participation within a particular competition.
  */
 @Entity
+@Table(indexes = @Index(name = "lifter_club_idx", columnList = "club_id"))
+@BatchSize(size = Competition.BATCH_SIZE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Lifter {
 
     /**
@@ -35,7 +41,7 @@ public class Lifter {
     }
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     private String forename;
@@ -1,13 +1,17 @@
 package dk.aau.ida8.model;
 
 import dk.aau.ida8.util.SinclairCalculator;
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
+import dk.aau.ida8.util.WeightCategories;
 import dk.aau.ida8.util.WeightClass;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import java.security.InvalidParameterException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This class represents the participation of one lifter in a competition. It
@@ -23,10 +27,15 @@ import java.util.stream.Collectors;
  * be possible to carry-out more than three lifts of each type.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "participant_competition_idx", columnList = "competition_id"),
+        @Index(name = "participant_lifter_idx", columnList = "lifter_id")
+})
+@BatchSize(size = Competition.BATCH_SIZE)
 public class Participant {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled")
     private long id;
 
     /**
@@ -59,12 +68,78 @@ public class Participant {
      */
     private int previousWeight;
 
-    @OneToMany(cascade = {CascadeType.ALL})
+    @OneToMany(cascade = {CascadeType.ALL}, orphanRemoval = true)
     @JoinColumn(name = "participant_id")
+    @BatchSize(size = Competition.BATCH_SIZE)
     private List<Lift> lifts = new ArrayList<>();
 
     private boolean weighedIn = false;
 
+    /**
+     * Contains values derived from the list of lifts, such as the best lift
+     * of each type. This is built on first use (including after loading from
+     * the database) and is kept up to date as lifts are added or corrected.
+     */
+    @Transient
+    private LiftAggregates liftAggregates;
+
+    /**
+     * Contains this participant's weight class, along with the body weight
+     * and set of categories from which it was found. The weight class is
+     * found at weigh-in, and again only if either of these has changed, as it
+     * is requested many times when grouping and sorting participants.
+     */
+    @Transient
+    private int weightClass;
+
+    @Transient
+    private double weightClassBodyWeight;
+
+    @Transient
+    private WeightCategories weightClassCategories;
+
+    /**
+     * This class holds aggregate values derived from a participant's lifts.
+     *
+     * Scores and lift counts are requested many times per participant when
+     * sorting groups and rendering results. Holding them here allows these to
+     * be read directly, rather than filtering the list of lifts each time.
+     */
+    private static class LiftAggregates {
+        private final List<Lift> snatchLifts = new ArrayList<>();
+        private final List<Lift> cleanAndJerkLifts = new ArrayList<>();
+        private final List<Lift> snatchLiftsView = Collections.unmodifiableList(snatchLifts);
+        private final List<Lift> cleanAndJerkLiftsView = Collections.unmodifiableList(cleanAndJerkLifts);
+        private int bestSnatch = 0;
+        private int bestCleanAndJerk = 0;
+
+        /**
+         * Creates the aggregates for an existing list of lifts.
+         *
+         * @param lifts the lifts from which to calculate the aggregates
+         */
+        LiftAggregates(List<Lift> lifts) {
+            for (Lift l : lifts) {
+                add(l);
+            }
+        }
+
+        /**
+         * Updates the aggregates to take account of a new lift.
+         *
+         * @param lift the lift to add
+         */
+        void add(Lift lift) {
+            if (lift.isSnatch()) {
+                snatchLifts.add(lift);
+                bestSnatch = Math.max(bestSnatch, lift.getScore());
+            } else if (lift.isCleanAndJerk()) {
+                cleanAndJerkLifts.add(lift);
+                bestCleanAndJerk = Math.max(bestCleanAndJerk, lift.getScore());
+            }
+        }
+    }
+
     public long getId() {
         return id;
     }
@@ -90,6 +165,33 @@ public class Participant {
         this.startNumber = generateStartNumber();
     }
 
+    /**
+     * Creates a copy of this participant, including copies of its lifts.
+     *
+     * The copy is not part of the competition, so changes to it are not
+     * passed on to the competition's groups. This allows a participant held
+     * by a competition engine to be copied on the engine's thread, and the
+     * copy then read on another, for example to display a form.
+     *
+     * @return a copy of this participant
+     */
+    public Participant copy() {
+        Participant copy = new Participant();
+        copy.id = id;
+        copy.lifter = lifter;
+        copy.startNumber = startNumber;
+        copy.startingSnatchWeight = startingSnatchWeight;
+        copy.startingCleanAndJerkWeight = startingCleanAndJerkWeight;
+        copy.currentWeight = currentWeight;
+        copy.previousWeight = previousWeight;
+        copy.weightChanges = weightChanges;
+        copy.weighedIn = weighedIn;
+        for (Lift l : lifts) {
+            copy.lifts.add(Lift.madeAt(copy, l.getLiftType(), l.getWeight(), l.getOutcome(), l.getTimestamp()));
+        }
+        return copy;
+    }
+
     /**
      * Determines the equality of two objects.
      *
@@ -122,10 +224,11 @@ public class Participant {
      * maximum number of participants for a competition.
      *
      * @return a randomly generated start number
+     * @throws UnsupportedOperationException if all start numbers in the
+     *                                       competition have been allocated
      */
-    private int generateStartNumber() {
-        List<Integer> nums = getCompetition().availableStartNumbers();
-        return nums.get(new Random().nextInt(nums.size()));
+    private int generateStartNumber() throws UnsupportedOperationException {
+        return getCompetition().allocateStartNumber();
     }
 
     /**
@@ -161,6 +264,7 @@ public class Participant {
         this.currentWeight = startingSnatchWeight;
         this.previousWeight = startingSnatchWeight;
         setWeighedIn(true);
+        notifyChanged();
     }
 
     /**
@@ -299,6 +403,7 @@ public class Participant {
     private void setCurrentWeight(int newWeight) {
         this.previousWeight = getCurrentWeight();
         this.currentWeight = newWeight;
+        notifyChanged();
     }
 
     /**
@@ -413,13 +518,12 @@ public class Participant {
      * @return the combined total of the best snatch and best clean & jerk
      */
     public int getTotalScore() {
-        int total;
-        if (getBestSnatch() == 0 || getBestCleanAndJerk() == 0) {
-            total = 0;
+        LiftAggregates a = getLiftAggregates();
+        if (a.bestSnatch == 0 || a.bestCleanAndJerk == 0) {
+            return 0;
         } else {
-            total = getBestSnatch() + getBestCleanAndJerk();
+            return a.bestSnatch + a.bestCleanAndJerk;
         }
-        return total;
     }
 
     /**
@@ -429,15 +533,7 @@ public class Participant {
      * @return the best clean & jerk lift weight
      */
     public int getBestCleanAndJerk() {
-        Optional<Lift> l = getLifts().stream()
-                .filter(Lift::isCleanAndJerk)
-                .max(scoreComparator());
-
-        if (l.isPresent()) {
-            return l.get().getScore();
-        } else {
-            return 0;
-        }
+        return getLiftAggregates().bestCleanAndJerk;
     }
 
     /**
@@ -447,25 +543,20 @@ public class Participant {
      * @return the best snatch lift weight
      */
     public int getBestSnatch() {
-        Optional<Lift> l = getLifts().stream()
-                 .filter(Lift::isSnatch)
-                 .max(scoreComparator());
-
-        if (l.isPresent()) {
-            return l.get().getScore();
-        } else {
-            return 0;
-        }
+        return getLiftAggregates().bestSnatch;
     }
 
     /**
-     * Defines a comparator which is used to sort/select lifts based on their
-     * score.
+     * Gets the aggregate values derived from this participant's lifts,
+     * calculating these from the list of lifts if not already available.
      *
-     * @return the lift comparator
+     * @return the lift aggregates for this participant
      */
-    private Comparator<Lift> scoreComparator() {
-        return (l1, l2) -> l1.getScore() - l2.getScore();
+    private LiftAggregates getLiftAggregates() {
+        if (liftAggregates == null) {
+            liftAggregates = new LiftAggregates(getLifts());
+        }
+        return liftAggregates;
     }
 
     /**
@@ -501,12 +592,10 @@ public class Participant {
     /**
      * Gets a list of all snatches completed.
      *
-     * @return list of snatches
+     * @return unmodifiable list of snatches
      */
     public List<Lift> getSnatchLifts() {
-        return getLifts().stream()
-                .filter(l -> l.isSnatch())
-                .collect(Collectors.toList());
+        return getLiftAggregates().snatchLiftsView;
     }
 
     /**
@@ -515,18 +604,16 @@ public class Participant {
      * @return the number of snatch lifts completed by this participant
      */
     public int snatchCount() {
-        return getSnatchLifts().size();
+        return getLiftAggregates().snatchLifts.size();
     }
 
     /**
      * Gets a list of all clean & jerk lifts completed.
      *
-     * @return list of clean & jerk lifts
+     * @return unmodifiable list of clean & jerk lifts
      */
     public List<Lift> getCleanAndJerkLifts() {
-        return getLifts().stream()
-                .filter(l -> l.isCleanAndJerk())
-                .collect(Collectors.toList());
+        return getLiftAggregates().cleanAndJerkLiftsView;
     }
 
     /**
@@ -535,7 +622,29 @@ public class Participant {
      * @return the number of clean & jerk lifts completed by this participant
      */
     public int cleanAndJerkCount() {
-        return getCleanAndJerkLifts().size();
+        return getLiftAggregates().cleanAndJerkLifts.size();
+    }
+
+    /**
+     * Gets the time at which this participant completed their first snatch.
+     *
+     * @return timestamp of the first snatch, or null if no snatch completed
+     */
+    public LocalDateTime getFirstSnatchTimestamp() {
+        List<Lift> ls = getLiftAggregates().snatchLifts;
+        return ls.isEmpty() ? null : ls.get(0).getTimestamp();
+    }
+
+    /**
+     * Gets the time at which this participant completed their first clean &
+     * jerk.
+     *
+     * @return timestamp of the first clean & jerk, or null if no clean & jerk
+     *         completed
+     */
+    public LocalDateTime getFirstCleanAndJerkTimestamp() {
+        List<Lift> ls = getLiftAggregates().cleanAndJerkLifts;
+        return ls.isEmpty() ? null : ls.get(0).getTimestamp();
     }
 
      /**
@@ -546,10 +655,7 @@ public class Participant {
      *
      */
     public void addPassedLift() throws InvalidParameterException {
-        validateLiftConditions();
-        Lift lift = Lift.passedLift(this, getCurrentLiftType(), getCurrentWeight());
-        incrementWeight();
-        addLift(lift);
+        registerLift(Lift.LiftOutcome.PASS, LocalDateTime.now());
     }
 
     /**
@@ -560,9 +666,7 @@ public class Participant {
      *
      */
     public void addFailedLift() throws InvalidParameterException {
-        validateLiftConditions();
-        Lift lift = Lift.failedLift(this, getCurrentLiftType(), getCurrentWeight());
-        addLift(lift);
+        registerLift(Lift.LiftOutcome.FAIL, LocalDateTime.now());
     }
 
     /**
@@ -573,8 +677,27 @@ public class Participant {
      *
      */
     public void addAbstainedLift() throws InvalidParameterException {
+        registerLift(Lift.LiftOutcome.ABSTAIN, LocalDateTime.now());
+    }
+
+    /**
+     * Creates and adds a lift, made at a given time, to a participation
+     * instance.
+     *
+     * The lift is made at the current weight. Where the lift is passed, the
+     * current weight is then incremented.
+     *
+     * @param outcome   the outcome of the lift
+     * @param timestamp the time at which the lift was made
+     * @throws InvalidParameterException if the lift is of a type which has
+     *                                   been fully completed
+     */
+    void registerLift(Lift.LiftOutcome outcome, LocalDateTime timestamp) throws InvalidParameterException {
         validateLiftConditions();
-        Lift lift = Lift.abstainedLift(this, getCurrentLiftType(), getCurrentWeight());
+        Lift lift = Lift.madeAt(this, getCurrentLiftType(), getCurrentWeight(), outcome, timestamp);
+        if (outcome == Lift.LiftOutcome.PASS) {
+            incrementWeight();
+        }
         addLift(lift);
     }
 
@@ -589,8 +712,135 @@ public class Participant {
      */
     private void addLift(Lift lift) {
         lifts.add(lift);
+        if (liftAggregates != null) {
+            liftAggregates.add(lift);
+        }
         setWeightChanges(0);
         checkAndUpdateStartingWeight();
+        notifyChanged();
+    }
+
+    /**
+     * Rebuilds the state of this participant from a snapshot and the events
+     * which follow it.
+     *
+     * Undone events, and undo events themselves, are skipped.
+     *
+     * @param snapshot the snapshot from which to start, or null to start
+     *                 from the state immediately following weigh-in
+     * @param events   the events following the snapshot, in order
+     * @throws InvalidParameterException     if an event cannot be applied
+     * @throws UnsupportedOperationException if an event is not permitted
+     */
+    public void rebuild(ParticipantSnapshot snapshot, List<ParticipantEvent> events)
+            throws InvalidParameterException, UnsupportedOperationException {
+        if (snapshot == null) {
+            restoreState(getStartingSnatchWeight(), getStartingSnatchWeight(), 0, new int[0]);
+        } else {
+            snapshot.restore(this);
+        }
+        for (ParticipantEvent e : events) {
+            if (!e.isUndone() && !e.isUndo()) {
+                e.applyTo(this);
+            }
+        }
+    }
+
+    /**
+     * Undoes an earlier event, by rebuilding this participant without it.
+     *
+     * Where the remaining events can no longer be applied (for example, where
+     * undoing a lift would leave a later weight increase invalid), the event
+     * is not undone, this participant is left unchanged and an exception is
+     * thrown.
+     *
+     * @param target   the event to undo
+     * @param snapshot the latest snapshot preceding the event, or null if
+     *                 there is none
+     * @param events   every event following the snapshot, including the event
+     *                 to undo, in order
+     * @throws InvalidParameterException     if the event cannot be undone
+     * @throws UnsupportedOperationException if the events do not account for
+     *                                       every lift of this participant
+     */
+    public void undo(ParticipantEvent target, ParticipantSnapshot snapshot,
+                     List<ParticipantEvent> events)
+            throws InvalidParameterException, UnsupportedOperationException {
+        if (target.isUndone() || target.isUndo() || !events.contains(target)) {
+            String msg = "unable to undo event " + target.getSequence() +
+                    ": event is not an active change to this participant";
+            throw new InvalidParameterException(msg);
+        }
+        int liftsRecorded = snapshot == null ? 0 : snapshot.getLiftsCount();
+        for (ParticipantEvent e : events) {
+            if (e.isLiftRegistered() && !e.isUndone()) {
+                liftsRecorded++;
+            }
+        }
+        if (liftsRecorded != getLiftsCount()) {
+            String msg = "unable to undo event " + target.getSequence() +
+                    ": the recorded events do not account for every lift";
+            throw new UnsupportedOperationException(msg);
+        }
+        target.setUndone(true);
+        try {
+            rebuild(snapshot, events);
+        } catch (RuntimeException e) {
+            target.setUndone(false);
+            rebuild(snapshot, events);
+            String msg = "unable to undo event " + target.getSequence() +
+                    ": later changes depend upon it (" + e.getMessage() + ")";
+            throw new InvalidParameterException(msg);
+        }
+    }
+
+    /**
+     * Restores the state of this participant to previously recorded values.
+     *
+     * Lifts beyond those recorded are discarded, and the weights of the
+     * remaining lifts are restored.
+     *
+     * @param currentWeight  the weight to be lifted next
+     * @param previousWeight the weight previously to be lifted next
+     * @param weightChanges  the number of weight changes since the last lift
+     * @param liftWeights    the weight of each lift recorded
+     */
+    void restoreState(int currentWeight, int previousWeight, int weightChanges, int[] liftWeights) {
+        this.currentWeight = currentWeight;
+        this.previousWeight = previousWeight;
+        this.weightChanges = weightChanges;
+        while (lifts.size() > liftWeights.length) {
+            lifts.remove(lifts.size() - 1);
+        }
+        for (int i = 0; i < lifts.size(); i++) {
+            lifts.get(i).restoreWeight(liftWeights[i]);
+        }
+        liftAggregates = null;
+        notifyChanged();
+    }
+
+    /**
+     * Notifies this participant that one of its lifts has been corrected.
+     *
+     * This is called by {@link Lift#setWeight(int)}, as a correction to the
+     * weight of a lift may alter this participant's scores. The lift
+     * aggregates are discarded, to be recalculated when next required.
+     *
+     * @param lift the lift which has been corrected
+     */
+    void liftChanged(Lift lift) {
+        liftAggregates = null;
+        notifyChanged();
+    }
+
+    /**
+     * Notifies the competition that the state of this participant has
+     * changed, so that any cached group ordering or rankings can be discarded.
+     */
+    private void notifyChanged() {
+        if (getCompetition() != null) {
+            getCompetition().participantChanged(this);
+        }
     }
 
     /**
@@ -698,6 +948,7 @@ public class Participant {
      */
     public void setBodyWeight(double weight){
         getLifter().setBodyWeight(weight);
+        notifyChanged();
     }
 
     public int getStartingSnatchWeight() {
@@ -759,7 +1010,14 @@ public class Participant {
      * @return this participant's weight class
      */
     public int getWeightClass() {
-        return WeightClass.findWeightClass(this);
+        WeightCategories categories = WeightClass.getCategories(getCompetition());
+        double bodyWeight = getBodyWeight();
+        if (categories != weightClassCategories || bodyWeight != weightClassBodyWeight) {
+            weightClass = categories.find(getGender(), bodyWeight);
+            weightClassBodyWeight = bodyWeight;
+            weightClassCategories = categories;
+        }
+        return weightClass;
     }
 
     /**
@@ -773,10 +1031,17 @@ public class Participant {
     /**
      * Calculates the sinclair score for this participation.
      *
+     * The score is calculated using the Sinclair coefficients applicable to
+     * the competition, or the latest coefficients where this participation is
+     * not part of a competition.
+     *
      * @return the sinclair score for this participation
      */
     public double getSinclairScore(){
-        return new SinclairCalculator().apply(this);
+        SinclairCalculator calculator = getCompetition() == null
+                ? SinclairCoefficientRegistry.getLatestCalculator()
+                : getCompetition().getSinclairCalculator();
+        return calculator.apply(this);
     }
 
     /**
@@ -794,6 +1059,11 @@ public class Participant {
      * @param startNumber the value to set as the participant's starting number
      */
     public void setStartNumber(int startNumber) {
+        int oldStartNumber = this.startNumber;
         this.startNumber = startNumber;
+        if (getCompetition() != null) {
+            getCompetition().startNumberChanged(this, oldStartNumber);
+        }
+        notifyChanged();
     }
 }
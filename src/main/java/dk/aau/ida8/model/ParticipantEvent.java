@@ -0,0 +1,340 @@
+package dk.aau.ida8.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.security.InvalidParameterException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class represents one change made to a participant during a
+ * competition.
+ *
+ * Every lift, weight change and correction made during a competition is
+ * recorded as an event, numbered in the order in which the changes were made
+ * within the competition. Events are never deleted: together they form the
+ * audit trail of the competition, and the state of a participant can be
+ * rebuilt by applying their events in order (see
+ * {@link Participant#rebuild(ParticipantSnapshot, List)}).
+ *
+ * An event may be undone by a later undo event. The undone event is marked as
+ * such, and is skipped whenever the participant is rebuilt.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "participant_event_participant_idx", columnList = "participantId, sequence"),
+        @Index(name = "participant_event_competition_idx", columnList = "competitionId, sequence")
+})
+public class ParticipantEvent {
+
+    /**
+     * Defines the types of change which may be recorded.
+     */
+    public enum EventType {
+        LIFT_REGISTERED, WEIGHT_INCREASED, WEIGHT_CORRECTED, WEIGHT_REVERTED,
+        LIFT_CORRECTED, EVENT_UNDONE
+    }
+
+    @Id
+    @GeneratedValue(generator = "pooled")
+    private Long id;
+
+    private long competitionId;
+    private long participantId;
+    private long sequence;
+    private EventType type;
+    private Lift.LiftOutcome outcome;
+    private int weight;
+    private int liftIndex;
+    private long targetSequence;
+    private LocalDateTime timestamp;
+    private boolean undone;
+
+    /**
+     * Empty constructor required for Hibernate.
+     */
+    public ParticipantEvent() {
+
+    }
+
+    private ParticipantEvent(long participantId, EventType type) {
+        this.participantId = participantId;
+        this.type = type;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    /**
+     * Creates an event recording a lift made at the participant's current
+     * weight.
+     *
+     * @param participantId the ID# of the participant
+     * @param outcome       the outcome of the lift
+     * @return              the event
+     */
+    public static ParticipantEvent liftRegistered(long participantId, Lift.LiftOutcome outcome) {
+        ParticipantEvent e = new ParticipantEvent(participantId, EventType.LIFT_REGISTERED);
+        e.outcome = outcome;
+        return e;
+    }
+
+    /**
+     * Creates an event recording an increase in the weight to be lifted next.
+     *
+     * @param participantId the ID# of the participant
+     * @param weight        the new weight
+     * @return              the event
+     */
+    public static ParticipantEvent weightIncreased(long participantId, int weight) {
+        ParticipantEvent e = new ParticipantEvent(participantId, EventType.WEIGHT_INCREASED);
+        e.weight = weight;
+        return e;
+    }
+
+    /**
+     * Creates an event recording a correction to the weight to be lifted
+     * next.
+     *
+     * @param participantId the ID# of the participant
+     * @param weight        the corrected weight
+     * @return              the event
+     */
+    public static ParticipantEvent weightCorrected(long participantId, int weight) {
+        ParticipantEvent e = new ParticipantEvent(participantId, EventType.WEIGHT_CORRECTED);
+        e.weight = weight;
+        return e;
+    }
+
+    /**
+     * Creates an event recording the reversion of the weight to be lifted
+     * next to its previous value.
+     *
+     * @param participantId the ID# of the participant
+     * @return              the event
+     */
+    public static ParticipantEvent weightReverted(long participantId) {
+        return new ParticipantEvent(participantId, EventType.WEIGHT_REVERTED);
+    }
+
+    /**
+     * Creates an event recording a correction to the weight of a completed
+     * lift.
+     *
+     * @param participantId the ID# of the participant
+     * @param liftIndex     the index of the lift within the participant's
+     *                      lifts
+     * @param weight        the corrected weight
+     * @return              the event
+     */
+    public static ParticipantEvent liftCorrected(long participantId, int liftIndex, int weight) {
+        ParticipantEvent e = new ParticipantEvent(participantId, EventType.LIFT_CORRECTED);
+        e.liftIndex = liftIndex;
+        e.weight = weight;
+        return e;
+    }
+
+    /**
+     * Creates an event recording that an earlier event has been undone.
+     *
+     * @param participantId  the ID# of the participant
+     * @param targetSequence the sequence number of the event undone
+     * @return               the event
+     */
+    public static ParticipantEvent eventUndone(long participantId, long targetSequence) {
+        ParticipantEvent e = new ParticipantEvent(participantId, EventType.EVENT_UNDONE);
+        e.targetSequence = targetSequence;
+        return e;
+    }
+
+    /**
+     * Applies the change recorded by this event to a participant.
+     *
+     * An undo event cannot be applied alone, as it requires the history of
+     * the participant; see
+     * {@link Participant#undo(ParticipantEvent, ParticipantSnapshot, List)}.
+     *
+     * @param p the participant to which to apply this event
+     * @throws InvalidParameterException     if the change is not valid for
+     *                                       the participant
+     * @throws UnsupportedOperationException if the change is not permitted,
+     *                                       or this is an undo event
+     */
+    public void applyTo(Participant p) throws InvalidParameterException, UnsupportedOperationException {
+        switch (type) {
+            case LIFT_REGISTERED:
+                p.registerLift(outcome, timestamp);
+                break;
+            case WEIGHT_INCREASED:
+                p.increaseWeight(weight);
+                break;
+            case WEIGHT_CORRECTED:
+                p.correctWeight(weight);
+                break;
+            case WEIGHT_REVERTED:
+                p.revertWeight();
+                break;
+            case LIFT_CORRECTED:
+                List<Lift> lifts = p.getLifts();
+                if (liftIndex < 0 || liftIndex >= lifts.size()) {
+                    String msg = "participant " + participantId + " has no lift " + liftIndex;
+                    throw new InvalidParameterException(msg);
+                }
+                Lift lift = lifts.get(liftIndex);
+                if (lift.getWeight() != weight) {
+                    lift.setWeight(weight);
+                }
+                break;
+            default:
+                String msg = "an undo event cannot be applied alone";
+                throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    /**
+     * Creates a copy of this event, not yet persisted.
+     *
+     * @return the copy
+     */
+    public ParticipantEvent copy() {
+        ParticipantEvent e = new ParticipantEvent(participantId, type);
+        e.competitionId = competitionId;
+        e.sequence = sequence;
+        e.outcome = outcome;
+        e.weight = weight;
+        e.liftIndex = liftIndex;
+        e.targetSequence = targetSequence;
+        e.timestamp = timestamp;
+        e.undone = undone;
+        return e;
+    }
+
+    /**
+     * Encodes this event as a single line of text.
+     *
+     * @return the encoded event
+     */
+    public String encode() {
+        return type + " " + competitionId + " " + participantId + " " + sequence + " " +
+                (outcome == null ? "-" : outcome.toString()) + " " + weight + " " +
+                liftIndex + " " + targetSequence + " " + timestamp;
+    }
+
+    /**
+     * Decodes an event encoded by {@link #encode()}.
+     *
+     * @param encoded the encoded event
+     * @return        the event
+     * @throws IllegalArgumentException if the text is not a valid event
+     */
+    public static ParticipantEvent decode(String encoded) throws IllegalArgumentException {
+        String[] parts = encoded.split(" ");
+        if (parts.length != 9) {
+            throw new IllegalArgumentException("unable to decode event '" + encoded + "'");
+        }
+        try {
+            ParticipantEvent e = new ParticipantEvent(Long.parseLong(parts[2]),
+                    EventType.valueOf(parts[0]));
+            e.competitionId = Long.parseLong(parts[1]);
+            e.sequence = Long.parseLong(parts[3]);
+            e.outcome = parts[4].equals("-") ? null : Lift.LiftOutcome.valueOf(parts[4]);
+            e.weight = Integer.parseInt(parts[5]);
+            e.liftIndex = Integer.parseInt(parts[6]);
+            e.targetSequence = Long.parseLong(parts[7]);
+            e.timestamp = LocalDateTime.parse(parts[8]);
+            return e;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("unable to decode event '" + encoded + "'", ex);
+        }
+    }
+
+    /**
+     * Describes the change recorded by this event, for display in the audit
+     * trail.
+     *
+     * @return a description of this event
+     */
+    public String getDescription() {
+        switch (type) {
+            case LIFT_REGISTERED:
+                return outcome.toString().toLowerCase() + " lift registered";
+            case WEIGHT_INCREASED:
+                return "weight increased to " + weight + "kg";
+            case WEIGHT_CORRECTED:
+                return "weight corrected to " + weight + "kg";
+            case WEIGHT_REVERTED:
+                return "weight reverted";
+            case LIFT_CORRECTED:
+                return "lift " + (liftIndex + 1) + " corrected to " + weight + "kg";
+            default:
+                return "event " + targetSequence + " undone";
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getCompetitionId() {
+        return competitionId;
+    }
+
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    /**
+     * Gets the sequence number of this event within its competition.
+     *
+     * @return the sequence number, or 0 if not yet recorded
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Records this event as the given event within a competition.
+     *
+     * @param competitionId the ID# of the competition
+     * @param sequence      the sequence number of this event
+     */
+    public void setSequence(long competitionId, long sequence) {
+        this.competitionId = competitionId;
+        this.sequence = sequence;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public boolean isUndo() {
+        return type == EventType.EVENT_UNDONE;
+    }
+
+    public boolean isLiftRegistered() {
+        return type == EventType.LIFT_REGISTERED;
+    }
+
+    /**
+     * Gets the sequence number of the event undone by this event.
+     *
+     * @return the sequence number of the event undone, or 0 if this is not
+     *         an undo event
+     */
+    public long getTargetSequence() {
+        return targetSequence;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isUndone() {
+        return undone;
+    }
+
+    public void setUndone(boolean undone) {
+        this.undone = undone;
+    }
+}
@@ -0,0 +1,118 @@
+package dk.aau.ida8.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * This class records the state of a participant after a given
+ * {@link ParticipantEvent event}.
+ *
+ * Rebuilding a participant from every one of their events becomes slower as
+ * a competition goes on. A snapshot is therefore taken periodically, and a
+ * participant is rebuilt from their latest snapshot before the point of
+ * interest, applying only the events which follow it.
+ *
+ * The lifts of a participant are only ever added to, and otherwise only their
+ * weights may be corrected. A snapshot therefore records the weight of each
+ * lift made, and restores a participant by discarding any later lifts and
+ * restoring the weights of the remainder.
+ */
+@Entity
+@Table(indexes = @Index(name = "participant_snapshot_participant_idx", columnList = "participantId, sequence"))
+public class ParticipantSnapshot {
+
+    @Id
+    @GeneratedValue(generator = "pooled")
+    private Long id;
+
+    private long participantId;
+    private long sequence;
+    private int currentWeight;
+    private int previousWeight;
+    private int weightChanges;
+    private String liftWeights;
+
+    /**
+     * Empty constructor required for Hibernate.
+     */
+    public ParticipantSnapshot() {
+
+    }
+
+    /**
+     * Creates a snapshot of the current state of a participant.
+     *
+     * @param p        the participant
+     * @param sequence the sequence number of the last event applied to the
+     *                 participant
+     */
+    public ParticipantSnapshot(Participant p, long sequence) {
+        this.participantId = p.getId();
+        this.sequence = sequence;
+        this.currentWeight = p.getCurrentWeight();
+        this.previousWeight = p.getPreviousWeight();
+        this.weightChanges = p.getWeightChanges();
+        StringBuilder sb = new StringBuilder();
+        for (Lift l : p.getLifts()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(l.getWeight());
+        }
+        this.liftWeights = sb.toString();
+    }
+
+    /**
+     * Restores a participant to the state recorded by this snapshot.
+     *
+     * This is also used to roll back a change to a participant which could
+     * not be recorded.
+     *
+     * @param p the participant to restore
+     */
+    public void restore(Participant p) {
+        p.restoreState(currentWeight, previousWeight, weightChanges, getLiftWeights());
+    }
+
+    /**
+     * Gets the weight of each lift made when this snapshot was taken.
+     *
+     * @return the weights of the lifts, in the order made
+     */
+    int[] getLiftWeights() {
+        if (liftWeights == null || liftWeights.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = liftWeights.split(",");
+        int[] weights = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            weights[i] = Integer.parseInt(parts[i]);
+        }
+        return weights;
+    }
+
+    /**
+     * Counts the lifts made when this snapshot was taken.
+     *
+     * @return the number of lifts made
+     */
+    public int getLiftsCount() {
+        return getLiftWeights().length;
+    }
+
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    /**
+     * Gets the sequence number of the last event included in this snapshot.
+     *
+     * @return the sequence number of the last event included
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
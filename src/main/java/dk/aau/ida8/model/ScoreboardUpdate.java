@@ -0,0 +1,232 @@
+package dk.aau.ida8.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an update to be pushed to live scoreboards.
+ *
+ * Rather than sending the whole of a {@link Leaderboard} to every scoreboard
+ * after every change, an update contains only what has changed: the result of
+ * the lift just made (if any), the participant next to lift, and the rank and
+ * scores of those participants whose standing has changed.
+ *
+ * An update is created by comparing the leaderboard of a competition from
+ * before a change with the leaderboard from after it. A snapshot, containing
+ * the standing of every participant, is also sent when a scoreboard first
+ * connects.
+ */
+public class ScoreboardUpdate {
+
+    private final long competitionId;
+    private final LiftResult lift;
+    private final NextLifter next;
+    private final List<Standing> standings;
+    private final boolean complete;
+
+    private ScoreboardUpdate(Leaderboard after, LiftResult lift, List<Standing> standings) {
+        this.competitionId = after.getCompetitionId();
+        this.lift = lift;
+        List<Leaderboard.Row> rows = after.getCompetingRows();
+        this.next = rows.isEmpty() ? null : new NextLifter(rows.get(0));
+        this.complete = rows.isEmpty();
+        this.standings = Collections.unmodifiableList(standings);
+    }
+
+    /**
+     * Creates an update containing the standing of every participant.
+     *
+     * @param leaderboard the leaderboard of the competition
+     * @return            an update containing the whole leaderboard
+     */
+    public static ScoreboardUpdate snapshot(Leaderboard leaderboard) {
+        List<Standing> standings = new ArrayList<>();
+        for (Leaderboard.Section s : leaderboard.getRankingSections()) {
+            for (Leaderboard.Row r : s.getRows()) {
+                standings.add(new Standing(r));
+            }
+        }
+        return new ScoreboardUpdate(leaderboard, null, standings);
+    }
+
+    /**
+     * Creates an update containing the changes between two leaderboards of
+     * the same competition.
+     *
+     * @param before the leaderboard from before the change
+     * @param after  the leaderboard from after the change
+     * @param lift   the lift which caused the change, or null if the change
+     *               was not the result of a lift
+     * @return       an update containing the changes between the leaderboards
+     */
+    public static ScoreboardUpdate between(Leaderboard before, Leaderboard after, Lift lift) {
+        Map<Long, Leaderboard.Row> previous = new HashMap<>();
+        for (Leaderboard.Section s : before.getRankingSections()) {
+            for (Leaderboard.Row r : s.getRows()) {
+                previous.put(r.getId(), r);
+            }
+        }
+        List<Standing> standings = new ArrayList<>();
+        for (Leaderboard.Section s : after.getRankingSections()) {
+            for (Leaderboard.Row r : s.getRows()) {
+                Leaderboard.Row p = previous.get(r.getId());
+                if (p == null || p.getRank() != r.getRank() ||
+                        p.getTotalScore() != r.getTotalScore() ||
+                        p.getSinclairScore() != r.getSinclairScore()) {
+                    standings.add(new Standing(r));
+                }
+            }
+        }
+        LiftResult result = lift == null ? null : new LiftResult(lift);
+        return new ScoreboardUpdate(after, result, standings);
+    }
+
+    public long getCompetitionId() {
+        return competitionId;
+    }
+
+    /**
+     * Gets the result of the lift which caused this update.
+     *
+     * @return the lift result, or null if this update was not caused by a
+     *         lift
+     */
+    public LiftResult getLift() {
+        return lift;
+    }
+
+    /**
+     * Gets the participant next to lift.
+     *
+     * @return the participant next to lift, or null if the competition is
+     *         complete
+     */
+    public NextLifter getNext() {
+        return next;
+    }
+
+    /**
+     * Gets the standings of those participants whose rank or scores have
+     * changed.
+     *
+     * @return the changed standings
+     */
+    public List<Standing> getStandings() {
+        return standings;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * This class represents the outcome of a lift.
+     */
+    public static class LiftResult {
+
+        private final long participantId;
+        private final String fullName;
+        private final Lift.LiftType liftType;
+        private final int weight;
+        private final Lift.LiftOutcome outcome;
+
+        private LiftResult(Lift lift) {
+            this.participantId = lift.getParticipant().getId();
+            this.fullName = lift.getParticipant().getFullName();
+            this.liftType = lift.getLiftType();
+            this.weight = lift.getWeight();
+            this.outcome = lift.getOutcome();
+        }
+
+        public long getParticipantId() {
+            return participantId;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public Lift.LiftType getLiftType() {
+            return liftType;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public Lift.LiftOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    /**
+     * This class represents the participant next to lift.
+     */
+    public static class NextLifter {
+
+        private final long participantId;
+        private final String fullName;
+        private final String clubName;
+        private final int currentWeight;
+
+        private NextLifter(Leaderboard.Row row) {
+            this.participantId = row.getId();
+            this.fullName = row.getFullName();
+            this.clubName = row.getClubName();
+            this.currentWeight = row.getCurrentWeight();
+        }
+
+        public long getParticipantId() {
+            return participantId;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getClubName() {
+            return clubName;
+        }
+
+        public int getCurrentWeight() {
+            return currentWeight;
+        }
+    }
+
+    /**
+     * This class represents the rank and scores of one participant.
+     */
+    public static class Standing {
+
+        private final long participantId;
+        private final int rank;
+        private final int totalScore;
+        private final double sinclairScore;
+
+        private Standing(Leaderboard.Row row) {
+            this.participantId = row.getId();
+            this.rank = row.getRank();
+            this.totalScore = row.getTotalScore();
+            this.sinclairScore = row.getSinclairScore();
+        }
+
+        public long getParticipantId() {
+            return participantId;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public int getTotalScore() {
+            return totalScore;
+        }
+
+        public double getSinclairScore() {
+            return sinclairScore;
+        }
+    }
+}
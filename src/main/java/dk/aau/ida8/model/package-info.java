@@ -0,0 +1,12 @@
+/**
+ * This package holds the domain model of the system: competitions, their
+ * participants and groups, lifters, clubs and lifts.
+ *
+ * Every entity takes its identifier from a pooled sequence of its own, by way
+ * of the generator declared here (see {@link dk.aau.ida8.data.PooledSequenceGenerator}).
+ */
+@GenericGenerator(name = "pooled", strategy = PooledSequenceGenerator.STRATEGY)
+package dk.aau.ida8.model;
+
+import dk.aau.ida8.data.PooledSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
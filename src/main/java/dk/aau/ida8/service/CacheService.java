@@ -0,0 +1,118 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.model.Club;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Statistics;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class manages the second-level cache holding reference data: clubs,
+ * their lifters and addresses (see ehcache.xml).
+ *
+ * Hibernate keeps cached entities up to date as they are saved and removed.
+ * The lifters of a club are cached as a collection of the club, however, and
+ * a lifter may join or leave a club without the club itself being saved. The
+ * cached lifters of every club are therefore discarded whenever a lifter is
+ * saved or removed.
+ */
+@Service
+public class CacheService {
+
+    private static final String CLUB_LIFTERS_REGION = Club.class.getName() + ".lifters";
+
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    public CacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Discards the cached lifters of every club, following a change to the
+     * club of a lifter.
+     */
+    public void evictClubLifters() {
+        sessionFactory.getCache().evictCollectionRegion(CLUB_LIFTERS_REGION);
+    }
+
+    /**
+     * Gets the statistics of every cache region.
+     *
+     * @return the statistics of each region, ordered by region name
+     */
+    public List<RegionStatistics> getStatistics() {
+        CacheManager cacheManager = CacheManager.getInstance();
+        String[] names = cacheManager.getCacheNames();
+        Arrays.sort(names);
+        List<RegionStatistics> statistics = new ArrayList<>();
+        for (String name : names) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                statistics.add(new RegionStatistics(name, cache.getStatistics()));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * This class represents the statistics of one cache region.
+     */
+    public static class RegionStatistics {
+
+        private final String region;
+        private final long hits;
+        private final long misses;
+        private final long size;
+        private final long evictions;
+        private final double hitRate;
+
+        RegionStatistics(String region, Statistics statistics) {
+            this.region = region;
+            this.hits = statistics.getCacheHits();
+            this.misses = statistics.getCacheMisses();
+            this.size = statistics.getObjectCount();
+            this.evictions = statistics.getEvictionCount();
+            long requests = hits + misses;
+            this.hitRate = requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Gets the proportion of requests to this region which were found in
+         * the cache.
+         *
+         * @return the hit rate, from 0 to 1, or 0 if there have been no
+         *         requests
+         */
+        public double getHitRate() {
+            return hitRate;
+        }
+    }
+}
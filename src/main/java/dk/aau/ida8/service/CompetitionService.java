@@ -3,23 +3,54 @@ package dk.aau.ida8.service;
 //This service layer handles the explicit access given to approved methods
 
 import dk.aau.ida8.data.CompetitionRepository;
+import dk.aau.ida8.data.LifterRepository;
 import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Lifter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 //service annotation to tell Spring that this is a service-class
 @Service
 //Service-class CompetitionService creation
 public class CompetitionService {
 
+    //Number of past competitions listed on each page of the index page
+    public static final int PAST_PAGE_SIZE = 20;
+
     //Instance variable instantiation
     private CompetitionRepository competitionRepository;
+    private LifterRepository lifterRepository;
+    private LeaderboardService leaderboardService;
+    private TransactionTemplate transaction;
+
+    //Lock for each competition, held while its participants are changed and saved.
+    //Start numbers are allocated from the participants as loaded, so two sign-ups
+    //loading the competition at once could otherwise be given the same number.
+    private final Map<Long, Object> participantLocks = new ConcurrentHashMap<>();
 
     //Autowired annotation to tell Spring to create new instance of competitionRepository
     @Autowired
     //Constructor to instantiate class
-    public CompetitionService(CompetitionRepository competitionRepository) {
+    public CompetitionService(CompetitionRepository competitionRepository,
+                              LifterRepository lifterRepository,
+                              LeaderboardService leaderboardService,
+                              PlatformTransactionManager transactionManager) {
         this.competitionRepository = competitionRepository;
+        this.lifterRepository = lifterRepository;
+        this.leaderboardService = leaderboardService;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     //Method to find all the competitions
@@ -27,19 +58,100 @@ public class CompetitionService {
         return competitionRepository.findAll();
     }
 
+    //Method to find the competitions held on a given day, earliest first
+    public List<Competition> findOnDay(Date day) {
+        Date start = startOfDay(day, 0);
+        return competitionRepository
+                .findByCompetitionDateGreaterThanEqualAndCompetitionDateBeforeOrderByCompetitionDateAsc(
+                        start, startOfDay(day, 1));
+    }
+
+    //Method to find the competitions held after a given day, earliest first
+    public List<Competition> findAfterDay(Date day) {
+        return competitionRepository.findByCompetitionDateGreaterThanEqualOrderByCompetitionDateAsc(
+                startOfDay(day, 1));
+    }
+
+    //Method to find a page of the competitions held before a given day, latest first.
+    //Pages are numbered from 0 and hold PAST_PAGE_SIZE competitions.
+    public Page<Competition> findBeforeDay(Date day, int page) {
+        return competitionRepository.findByCompetitionDateBeforeOrderByCompetitionDateDesc(
+                startOfDay(day, 0), new PageRequest(page, PAST_PAGE_SIZE));
+    }
+
+    //Method to find the start of the day a number of days after a given day
+    private static Date startOfDay(Date day, int daysAfter) {
+        Calendar cal = new GregorianCalendar();
+        cal.setTime(day);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.add(Calendar.DAY_OF_MONTH, daysAfter);
+        return cal.getTime();
+    }
+
     //Method to find one competition based on the competition ID
     public Competition findOne(Long id) {
         return competitionRepository.findOne(id);
     }
 
+    //Method to find one competition along with its participants, their lifters and clubs.
+    //Used by the sign-up, participants and weigh-in pages.
+    public Competition findOneWithParticipants(Long id) {
+        return competitionRepository.findWithParticipantsById(id);
+    }
+
+    //Method to find one competition along with its competing groups.
+    //Used by the dashboard and competing groups pages.
+    public Competition findOneWithCompetingGroups(Long id) {
+        return competitionRepository.findWithCompetingGroupsById(id);
+    }
+
+    //Method to find one competition along with its ranking groups.
+    //Used by the results and scoreboard pages.
+    public Competition findOneWithRankingGroups(Long id) {
+        return competitionRepository.findWithRankingGroupsById(id);
+    }
+
 
     //Method to save a competition. Takes a competition object and saves in database.
+    //The leaderboard of the competition is discarded, as it may have changed.
     public Competition save (Competition competition){
-        return competitionRepository.save(competition);
+        Competition saved = competitionRepository.save(competition);
+        leaderboardService.invalidate(saved.getId());
+        return saved;
+    }
+
+    //Method to sign-up a lifter to a competition. The competition is loaded, changed and
+    //saved while holding its lock, so that each sign-up is given an unused start number.
+    public Competition signUp(long competitionId, long lifterId) {
+        return changeParticipants(competitionId, lifterId, Competition::addParticipant);
+    }
+
+    //Method to remove a lifter from a competition, while holding its lock.
+    public Competition removeParticipant(long competitionId, long lifterId) {
+        return changeParticipants(competitionId, lifterId, Competition::removeParticipant);
+    }
+
+    //Method to change the participants of a competition, and save it, in one transaction
+    //while holding the lock of the competition.
+    private Competition changeParticipants(long competitionId, long lifterId,
+                                           BiConsumer<Competition, Lifter> change) {
+        synchronized (participantLocks.computeIfAbsent(competitionId, id -> new Object())) {
+            Competition saved = transaction.execute(status -> {
+                Competition competition = competitionRepository.findWithParticipantsById(competitionId);
+                change.accept(competition, lifterRepository.findOne(lifterId));
+                return competitionRepository.save(competition);
+            });
+            leaderboardService.invalidate(competitionId);
+            return saved;
+        }
     }
 
     //Method to delete a competition
     public void delete (Long id){
         competitionRepository.delete(id);
+        leaderboardService.invalidate(id);
     }
 }
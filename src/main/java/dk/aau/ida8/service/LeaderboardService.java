@@ -0,0 +1,104 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Leaderboard;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class provides the {@link Leaderboard leaderboards} for competitions.
+ *
+ * A leaderboard is created when first requested for a competition, and is
+ * then shared between all requests for that competition until it is
+ * discarded by {@link #invalidate(long)}. Any change to the state of a
+ * competition, its participants or their lifts must be followed by a call to
+ * invalidate the leaderboard of the competition.
+ *
+ * Each invalidation advances the {@link #getVersion(long) version} of the
+ * competition. A leaderboard is only shared where the competition has not
+ * been invalidated since it was loaded, so that a leaderboard created from a
+ * competition loaded before a change is never shared after that change.
+ */
+@Service
+public class LeaderboardService {
+
+    private final Map<Long, Entry> leaderboards = new ConcurrentHashMap<>();
+    private final Map<Long, Long> invalidations = new ConcurrentHashMap<>();
+    private final AtomicLong allInvalidations = new AtomicLong();
+
+    /**
+     * Gets the version of a competition, which changes each time the
+     * leaderboard of the competition is invalidated.
+     *
+     * The version must be got before the competition is loaded, and passed
+     * to {@link #getLeaderboard(Competition, long)}.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the version of the competition
+     */
+    public long getVersion(long competitionId) {
+        return invalidations.getOrDefault(competitionId, 0L) + allInvalidations.get();
+    }
+
+    /**
+     * Gets the leaderboard for a competition, creating it if the competition
+     * has changed since the leaderboard was last created.
+     *
+     * A leaderboard created from a competition which has been invalidated
+     * since it was loaded is returned, but not shared.
+     *
+     * @param competition the competition for which to get the leaderboard
+     * @param version     the version of the competition, as got before it
+     *                    was loaded
+     * @return            the leaderboard for the competition
+     */
+    public Leaderboard getLeaderboard(Competition competition, long version) {
+        long id = competition.getId();
+        Entry entry = leaderboards.get(id);
+        if (entry != null && entry.version == getVersion(id)) {
+            return entry.leaderboard;
+        }
+        Entry created = new Entry(new Leaderboard(competition), version);
+        leaderboards.compute(id, (k, existing) -> getVersion(id) == version ? created : existing);
+        return created.leaderboard;
+    }
+
+    /**
+     * Discards the leaderboard for a competition, following a change to its
+     * state.
+     *
+     * @param competitionId the ID# of the competition which has changed
+     */
+    public void invalidate(long competitionId) {
+        invalidations.merge(competitionId, 1L, Long::sum);
+        leaderboards.remove(competitionId);
+    }
+
+    /**
+     * Discards the leaderboards for all competitions, following a change
+     * which affects the scoring of every competition.
+     */
+    public void invalidateAll() {
+        allInvalidations.incrementAndGet();
+        leaderboards.clear();
+    }
+
+    /**
+     * This class represents a shared leaderboard, along with the version of
+     * the competition from which it was created.
+     */
+    private static class Entry {
+
+        private final Leaderboard leaderboard;
+        private final long version;
+
+        Entry(Leaderboard leaderboard, long version) {
+            this.leaderboard = leaderboard;
+            this.version = version;
+        }
+    }
+
+}
@@ -14,10 +14,13 @@ import org.springframework.stereotype.Service;
 public class LiftService {
 
     private LiftRepository liftRepository;
+    private LeaderboardService leaderboardService;
 
     @Autowired
-    public LiftService(LiftRepository liftRepository) {
+    public LiftService(LiftRepository liftRepository,
+                       LeaderboardService leaderboardService) {
         this.liftRepository = liftRepository;
+        this.leaderboardService = leaderboardService;
     }
 
     /**Method to find all lifts in the system
@@ -33,9 +36,14 @@ public class LiftService {
         return liftRepository.findOne(id);
     }
 
-    //Save method to save a lift-object to a database
+    //Save method to save a lift-object to a database. The leaderboard of the
+    //competition in which the lift was made is discarded, as it may have changed.
     public Lift saveLift(Lift lift){
-        return liftRepository.save(lift);
+        Lift saved = liftRepository.save(lift);
+        if (saved.getParticipant() != null && saved.getParticipant().getCompetition() != null) {
+            leaderboardService.invalidate(saved.getParticipant().getCompetition().getId());
+        }
+        return saved;
     }
 
 }
@@ -6,25 +6,56 @@ package dk.aau.ida8.service;
 import dk.aau.ida8.model.Lifter;
 import dk.aau.ida8.data.LifterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class LifterService {
 
+    //Number of lifters listed on each page
+    public static final int PAGE_SIZE = 50;
+
     //instance variable to instantiate LifterRepository
     private LifterRepository lifterRepository;
+    private CacheService cacheService;
 
     //Constructor to create a new lifterservice object
     @Autowired
-    public LifterService(LifterRepository lifterRepository){
+    public LifterService(LifterRepository lifterRepository, CacheService cacheService){
         this.lifterRepository = lifterRepository;
+        this.cacheService = cacheService;
+    }
+
+    /**Method to find a page of the lifters in the system, ordered by name
+    * Pages are numbered from 0 and hold PAGE_SIZE lifters
+    * Returns the page of lifters**/
+    public Page<Lifter> findAll(int page){
+        return lifterRepository.findAll(new PageRequest(page, PAGE_SIZE,
+                new Sort("surname", "forename", "id")));
+    }
+
+    /**Method to find the next PAGE_SIZE lifters of a club, after the lifter with a given ID
+    * An ID of 0 finds the first lifters of the club
+    * Returns the slice of lifters, in order of ID**/
+    public Slice<Lifter> findByClub(long clubId, long afterId){
+        return lifterRepository.findByClubIdAndIdGreaterThanOrderByIdAsc(clubId, afterId,
+                new PageRequest(0, PAGE_SIZE));
     }
 
-    /**Method to find all lifters in the system
-    * Iterable is like a kind of like "for-loop" iterating through a list
-    * Returns all lifters in the system**/
-    public Iterable <Lifter> findAll(){
-        return lifterRepository.findAll();
+    /**Method to count the lifters of each club
+    * Returns a map from club ID to number of lifters, without clubs which have no lifters**/
+    public Map<Long, Long> countByClub(){
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : lifterRepository.countByClub()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
     }
 
     /**Method to find one specific lifter in the system based on the lifter ID
@@ -34,13 +65,17 @@ public class LifterService {
     }
 
     //Save method to save a lifter-object to a database
+    //The cached lifters of each club are discarded, as the lifter may have changed club
     public Lifter saveLifter(Lifter lifter){
-        return lifterRepository.save(lifter);
+        Lifter saved = lifterRepository.save(lifter);
+        cacheService.evictClubLifters();
+        return saved;
     }
 
     //Delete method to delete a lifter-object from a database
     public void deleteLifter(Long id){
         lifterRepository.delete(id);
+        cacheService.evictClubLifters();
     }
 }
 
@@ -3,26 +3,54 @@ package dk.aau.ida8.service;
 import dk.aau.ida8.data.ParticipantRepository;
 import dk.aau.ida8.model.Participant;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ParticipantService {
 
+    // Number of participants listed on each page
+    public static final int PAGE_SIZE = 50;
+
     // instance variable to instantiate ParticipantRepositry
     private ParticipantRepository participantRepository;
+    private LeaderboardService leaderboardService;
 
     // Constructor to create a new ParticipantService object
     @Autowired
-    public ParticipantService(ParticipantRepository participantRepository) {
+    public ParticipantService(ParticipantRepository participantRepository,
+                              LeaderboardService leaderboardService) {
         this.participantRepository = participantRepository;
+        this.leaderboardService = leaderboardService;
     }
 
-    /** Method to find all participants in the system
+    /** Method to find a page of the participants in the system, in order of ID
      *
-     * @return
+     * @param page the page to find, numbered from 0
+     * @return     the page of participants, holding up to PAGE_SIZE participants
      */
-    public Iterable <Participant> findAll(){
-        return participantRepository.findAll();
+    public Page<Participant> findAll(int page){
+        return participantRepository.findAll(new PageRequest(page, PAGE_SIZE, new Sort("id")));
+    }
+
+    /** Method to find the next PAGE_SIZE participants of a competition, after
+     * the participant with a given ID
+     *
+     * @param competitionId the ID of the competition
+     * @param afterId       the ID after which to find participants; 0 for the first
+     * @return              the slice of participants, in order of ID
+     */
+    public Slice<Participant> findByCompetition(long competitionId, long afterId){
+        return participantRepository.findByCompetitionIdAndIdGreaterThanOrderByIdAsc(competitionId, afterId,
+                new PageRequest(0, PAGE_SIZE));
+    }
+
+    // Method to count the participants of a competition
+    public long countByCompetition(long competitionId){
+        return participantRepository.countByCompetitionId(competitionId);
     }
 
     /**Method to find one specific lifter in the system based on the lifter ID
@@ -31,9 +59,14 @@ public class ParticipantService {
         return participantRepository.findOne(id);
     }
 
-    //Save method to save a lifter-object to a database
+    //Save method to save a lifter-object to a database. The leaderboard of
+    //the participant's competition is discarded, as it may have changed.
     public Participant saveParticipant(Participant participant){
-        return participantRepository.save(participant);
+        Participant saved = participantRepository.save(participant);
+        if (saved.getCompetition() != null) {
+            leaderboardService.invalidate(saved.getCompetition().getId());
+        }
+        return saved;
     }
 
     //Delete method to delete a lifter-object from a database
@@ -0,0 +1,182 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.metrics.LoadCountingListener;
+import dk.aau.ida8.metrics.Metrics;
+import dk.aau.ida8.metrics.RequestStatistics;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class collects the SQL and Hibernate statistics of every controller
+ * request, aggregated by the handler of the request.
+ *
+ * The statistics of each request (statements prepared, entities loaded,
+ * collections fetched and time spent flushing) are recorded from the start of
+ * the request until its view is rendered, so lazy loading by the view is
+ * included. A request which prepares more statements than the query budget,
+ * set by the diagnostics.query-budget property (default 15), is logged and
+ * counted by the "queryBudget.exceeded" counter, so that an N+1 select in a
+ * page shows up before it is used at a large competition.
+ */
+@Service
+public class RequestStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatisticsService.class);
+
+    private final Map<String, HandlerStatistics> statistics = new ConcurrentHashMap<>();
+    private int queryBudget;
+
+    @Autowired
+    public RequestStatisticsService(EntityManagerFactory entityManagerFactory,
+                                    @Value("${diagnostics.query-budget:15}") int queryBudget) {
+        this.queryBudget = queryBudget;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        LoadCountingListener listener = new LoadCountingListener();
+        registry.appendListeners(EventType.POST_LOAD, listener);
+        registry.appendListeners(EventType.INIT_COLLECTION, listener);
+    }
+
+    /**
+     * Begins recording the statistics of a request on the current thread.
+     *
+     * @param handler the name of the handler of the request
+     */
+    public void begin(String handler) {
+        RequestStatistics.begin(handler);
+    }
+
+    /**
+     * Ends recording the statistics of the request on the current thread, and
+     * adds them to the statistics of its handler.
+     *
+     * @param uri the URI of the request, for use in the log where the request
+     *            exceeds the query budget
+     * @return    the statistics of the request, or null if none was being
+     *            recorded
+     */
+    public RequestStatistics end(String uri) {
+        RequestStatistics request = RequestStatistics.end();
+        if (request == null) {
+            return null;
+        }
+        boolean overBudget = request.getStatements() > queryBudget;
+        if (overBudget) {
+            log.warn("{} ({}) prepared {} statements, over the query budget of {}",
+                    uri, request.getHandler(), request.getStatements(), queryBudget);
+            Metrics.counter("queryBudget.exceeded").inc();
+        }
+        statistics.computeIfAbsent(request.getHandler(), HandlerStatistics::new).add(request, overBudget);
+        return request;
+    }
+
+    /**
+     * Gets the statistics of every handler.
+     *
+     * @return the statistics of each handler, ordered by handler name
+     */
+    public List<HandlerStatistics> getStatistics() {
+        List<HandlerStatistics> list = new ArrayList<>(statistics.values());
+        list.sort((a, b) -> a.getHandler().compareTo(b.getHandler()));
+        return list;
+    }
+
+    /**
+     * Discards the statistics of every handler.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    public int getQueryBudget() {
+        return queryBudget;
+    }
+
+    void setQueryBudget(int queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    /**
+     * This class represents the statistics of every request to one handler.
+     */
+    public static class HandlerStatistics {
+
+        private final String handler;
+        private long requests;
+        private long overBudget;
+        private long statements;
+        private int maxStatements;
+        private long entityLoads;
+        private long collectionFetches;
+        private double flushMillis;
+
+        HandlerStatistics(String handler) {
+            this.handler = handler;
+        }
+
+        synchronized void add(RequestStatistics request, boolean overBudget) {
+            requests++;
+            this.overBudget += overBudget ? 1 : 0;
+            statements += request.getStatements();
+            maxStatements = Math.max(maxStatements, request.getStatements());
+            entityLoads += request.getEntityLoads();
+            collectionFetches += request.getCollectionFetches();
+            flushMillis += request.getFlushNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public String getHandler() {
+            return handler;
+        }
+
+        public synchronized long getRequests() {
+            return requests;
+        }
+
+        /**
+         * Gets the number of requests which exceeded the query budget.
+         *
+         * @return the number of requests over budget
+         */
+        public synchronized long getOverBudget() {
+            return overBudget;
+        }
+
+        public synchronized long getStatements() {
+            return statements;
+        }
+
+        public synchronized int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public synchronized long getEntityLoads() {
+            return entityLoads;
+        }
+
+        public synchronized long getCollectionFetches() {
+            return collectionFetches;
+        }
+
+        /**
+         * Gets the total time spent flushing changes to the database.
+         *
+         * @return the time spent flushing, in milliseconds
+         */
+        public synchronized double getFlushMillis() {
+            return flushMillis;
+        }
+    }
+}
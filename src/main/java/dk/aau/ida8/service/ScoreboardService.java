@@ -0,0 +1,224 @@
+package dk.aau.ida8.service;
+
+import com.google.gson.Gson;
+import dk.aau.ida8.model.Leaderboard;
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.ScoreboardUpdate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class pushes {@link ScoreboardUpdate updates} to live scoreboards using
+ * server-sent events.
+ *
+ * Each scoreboard subscribes to a competition, and is first sent a snapshot
+ * of the whole leaderboard. After that, whenever the competition changes, the
+ * change is published as an update containing only what has changed. Updates
+ * are created once per change and sent to every subscriber, so scoreboards do
+ * not need to request the competition again.
+ *
+ * Changes are published by the {@link dk.aau.ida8.engine.CompetitionEngine
+ * engine} running the competition, which holds the leaderboards from before
+ * and after each change. Where a competition has no subscribers, publishing
+ * does nothing. Scoreboards subscribe to a running competition through its
+ * engine, on the thread which publishes its changes, so that no change can be
+ * published between reading the leaderboard for the snapshot and subscribing.
+ *
+ * Events are not sent on the thread which publishes them, as a scoreboard on
+ * a slow connection would then hold up every command to its competition.
+ * Instead, each scoreboard has a queue of events waiting to be sent, which is
+ * emptied on a separate thread. A scoreboard which cannot be sent an event,
+ * or which falls more than {@link #MAX_PENDING} events behind, is dropped; it
+ * will reconnect and be sent a new snapshot.
+ */
+@Service
+public class ScoreboardService {
+
+    /**
+     * The time, in milliseconds, after which a subscription times out. The
+     * scoreboard will then reconnect, and be sent a new snapshot.
+     */
+    static final long TIMEOUT = 30 * 60 * 1000L;
+
+    /**
+     * The number of events which may be waiting to be sent to a scoreboard
+     * before it is considered stalled and dropped.
+     */
+    static final int MAX_PENDING = 50;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "scoreboard-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Subscribes a new scoreboard to updates for a competition.
+     *
+     * The scoreboard is immediately sent a snapshot of the leaderboard. The
+     * snapshot is queued before the scoreboard is subscribed, so it is always
+     * sent before any update.
+     *
+     * Where the competition is running, this must be called on the thread of
+     * its engine (see
+     * {@link dk.aau.ida8.engine.CompetitionEngine#subscribe()}), so that
+     * the leaderboard is current when the scoreboard is subscribed.
+     *
+     * @param leaderboard the current leaderboard of the competition to which
+     *                    to subscribe
+     * @return            the emitter through which updates are sent
+     */
+    public SseEmitter subscribe(Leaderboard leaderboard) {
+        return subscribe(leaderboard, new SseEmitter(TIMEOUT));
+    }
+
+    SseEmitter subscribe(Leaderboard leaderboard, SseEmitter emitter) {
+        List<Subscriber> competitionSubscribers = subscribers.computeIfAbsent(
+                leaderboard.getCompetitionId(), id -> new CopyOnWriteArrayList<>());
+        Subscriber subscriber = new Subscriber(emitter, competitionSubscribers);
+        emitter.onCompletion(() -> competitionSubscribers.remove(subscriber));
+        emitter.onTimeout(() -> competitionSubscribers.remove(subscriber));
+
+        ScoreboardUpdate snapshot = ScoreboardUpdate.snapshot(leaderboard);
+        subscriber.offer("snapshot", new Gson().toJson(snapshot));
+        competitionSubscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Counts the scoreboards subscribed to a competition.
+     *
+     * @param competitionId the ID# of the competition
+     * @return              the number of subscribed scoreboards
+     */
+    public int getSubscriberCount(long competitionId) {
+        List<Subscriber> competitionSubscribers = subscribers.get(competitionId);
+        return competitionSubscribers == null ? 0 : competitionSubscribers.size();
+    }
+
+    /**
+     * Publishes a change to a competition to all subscribed scoreboards.
+     *
+     * The update is queued for each scoreboard, and this method returns
+     * without waiting for it to be sent.
+     *
+     * @param before the leaderboard of the competition from before the change
+     * @param after  the leaderboard of the competition from after the change
+     * @param lift   the lift which caused the change, or null if the change
+     *               was not the result of a lift
+     */
+    public void publish(Leaderboard before, Leaderboard after, Lift lift) {
+        List<Subscriber> competitionSubscribers = subscribers.get(after.getCompetitionId());
+        if (competitionSubscribers == null || competitionSubscribers.isEmpty()) {
+            return;
+        }
+        String json = new Gson().toJson(ScoreboardUpdate.between(before, after, lift));
+        for (Subscriber subscriber : competitionSubscribers) {
+            subscriber.offer("update", json);
+        }
+    }
+
+    /**
+     * Stops sending events when the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * This class represents one subscribed scoreboard, along with the events
+     * waiting to be sent to it.
+     *
+     * Events are sent in the order in which they are offered, by at most one
+     * thread at a time.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<Subscriber> competitionSubscribers;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, List<Subscriber> competitionSubscribers) {
+            this.emitter = emitter;
+            this.competitionSubscribers = competitionSubscribers;
+        }
+
+        /**
+         * Queues an event to be sent to this scoreboard, dropping the
+         * scoreboard if too many events are already waiting.
+         *
+         * @param name the name of the event
+         * @param json the JSON data of the event
+         */
+        void offer(String name, String json) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING) {
+                drop();
+                return;
+            }
+            pending.add(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON));
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        /**
+         * Sends every waiting event, dropping the scoreboard if it can no
+         * longer be reached.
+         */
+        private void send() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop();
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void drop() {
+            competitionSubscribers.remove(this);
+            pending.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // already complete
+            }
+        }
+    }
+}
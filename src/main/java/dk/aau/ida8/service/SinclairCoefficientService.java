@@ -0,0 +1,65 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.util.SinclairCoefficient;
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This class provides access to the Sinclair coefficients held by the
+ * {@link SinclairCoefficientRegistry}.
+ *
+ * The coefficients are loaded from the location given by the
+ * sinclair.coefficients.location property, which defaults to the resource
+ * bundled with the application. Setting this property to a file outside the
+ * application allows a new set of coefficients to be loaded, using
+ * {@link #reload()}, without restarting the application.
+ */
+@Service
+public class SinclairCoefficientService {
+
+    private ResourceLoader resourceLoader;
+    private String location;
+
+    @Autowired
+    public SinclairCoefficientService(ResourceLoader resourceLoader,
+                                      @Value("${sinclair.coefficients.location:classpath:" +
+                                              SinclairCoefficientRegistry.DEFAULT_RESOURCE + "}")
+                                      String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    /**
+     * Loads the coefficients from the configured location at start-up.
+     *
+     * @throws IOException if the coefficients cannot be read
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        reload();
+    }
+
+    public List<SinclairCoefficient> findAll() {
+        return SinclairCoefficientRegistry.getCoefficients();
+    }
+
+    /**
+     * Reloads the coefficients from the configured location.
+     *
+     * @return                          the coefficients loaded
+     * @throws IOException              if the coefficients cannot be read
+     * @throws IllegalArgumentException if the coefficients cannot be parsed
+     */
+    public List<SinclairCoefficient> reload() throws IOException, IllegalArgumentException {
+        return SinclairCoefficientRegistry.load(
+                resourceLoader.getResource(location).getInputStream());
+    }
+
+}
@@ -0,0 +1,173 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Participant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class maintains the order in which participants within a competing
+ * group are to lift.
+ *
+ * The order is held as a binary heap, ordered by a participant comparator
+ * (ordinarily the {@link dk.aau.ida8.util.groupcomparators.CompetingComparator
+ * CompetingComparator}). The participant next to lift is always at the top of
+ * the heap, and so can be found in constant time.
+ *
+ * The position of each participant within the heap is also recorded. When the
+ * state of a participant changes (for example after a lift, or after an
+ * increase in weight), only that participant is re-positioned within the heap
+ * by calling {@link #update(Participant)}. This takes logarithmic time, as
+ * opposed to re-sorting the whole group.
+ *
+ * Positions are recorded by identity rather than by equality, as participants
+ * which have not yet been persisted all share the same ID#, and so are equal
+ * to one another.
+ */
+public class LiftingOrder {
+
+    private final Comparator<Participant> comparator;
+    private final List<Participant> heap;
+    private final Map<Participant, Integer> positions;
+
+    /**
+     * Creates a lifting order for the given participants.
+     *
+     * @param participants the participants to order
+     * @param comparator   the comparator determining the order of lifting
+     */
+    public LiftingOrder(Collection<Participant> participants,
+                        Comparator<Participant> comparator) {
+        this.comparator = comparator;
+        this.heap = new ArrayList<>(participants);
+        this.positions = new IdentityHashMap<>(participants.size());
+        for (int i = 0; i < heap.size(); i++) {
+            positions.put(heap.get(i), i);
+        }
+        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Gets the participant who is next to lift, without removing them from
+     * the lifting order.
+     *
+     * @return the participant next to lift, or null if there are no
+     *         participants
+     */
+    public Participant peek() {
+        return heap.isEmpty() ? null : heap.get(0);
+    }
+
+    /**
+     * Determines whether a participant is contained in this lifting order.
+     *
+     * @param p the participant to check for
+     * @return  true if the participant is contained, else false
+     */
+    public boolean contains(Participant p) {
+        return positions.containsKey(p);
+    }
+
+    /**
+     * Counts the number of participants in this lifting order.
+     *
+     * @return the number of participants in this lifting order
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Adds a participant to this lifting order.
+     *
+     * @param p the participant to add
+     */
+    public void add(Participant p) {
+        heap.add(p);
+        positions.put(p, heap.size() - 1);
+        siftUp(heap.size() - 1);
+    }
+
+    /**
+     * Re-positions a participant after their state has changed.
+     *
+     * This must be called whenever a change is made to a participant which
+     * may affect their place in the lifting order. Participants not contained
+     * in this lifting order are ignored.
+     *
+     * @param p the participant whose state has changed
+     */
+    public void update(Participant p) {
+        Integer i = positions.get(p);
+        if (i != null && !siftUp(i)) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Moves the participant at the given index up the heap until it is in
+     * its correct position.
+     *
+     * @param i the index of the participant to move
+     * @return  true if the participant was moved, else false
+     */
+    private boolean siftUp(int i) {
+        int start = i;
+        Participant p = heap.get(i);
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            Participant pp = heap.get(parent);
+            if (comparator.compare(p, pp) >= 0) {
+                break;
+            }
+            place(pp, i);
+            i = parent;
+        }
+        place(p, i);
+        return i != start;
+    }
+
+    /**
+     * Moves the participant at the given index down the heap until it is in
+     * its correct position.
+     *
+     * @param i the index of the participant to move
+     */
+    private void siftDown(int i) {
+        Participant p = heap.get(i);
+        int half = heap.size() / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heap.size() &&
+                    comparator.compare(heap.get(right), heap.get(child)) < 0) {
+                child = right;
+            }
+            Participant c = heap.get(child);
+            if (comparator.compare(p, c) <= 0) {
+                break;
+            }
+            place(c, i);
+            i = child;
+        }
+        place(p, i);
+    }
+
+    /**
+     * Places a participant at a given index in the heap, recording its
+     * position.
+     *
+     * @param p the participant to place
+     * @param i the index at which to place the participant
+     */
+    private void place(Participant p, int i) {
+        heap.set(i, p);
+        positions.put(p, i);
+    }
+}
@@ -5,8 +5,45 @@ import dk.aau.ida8.model.Participant;
 
 import java.util.function.Function;
 
+/**
+ * This class calculates Sinclair scores for participants, using the Sinclair
+ * coefficients of one Olympic cycle.
+ *
+ * Sinclair coefficients are looked up from a {@link SinclairCoefficientTable}
+ * for each gender, which is built once when the calculator is created. A
+ * calculator for each cycle is held by the {@link SinclairCoefficientRegistry},
+ * and should be obtained from there rather than creating new calculators.
+ */
 public class SinclairCalculator implements Function<Participant, Double> {
 
+    private final SinclairCoefficient coefficients;
+    private final SinclairCoefficientTable maleTable;
+    private final SinclairCoefficientTable femaleTable;
+
+    /**
+     * Creates a new calculator using a given set of coefficients.
+     *
+     * @param coefficients the coefficients to use in calculating scores
+     */
+    public SinclairCalculator(SinclairCoefficient coefficients) {
+        this.coefficients = coefficients;
+        maleTable = new SinclairCoefficientTable(
+                coefficients.getMaleCoefficient(),
+                coefficients.getMaleWrhBodyweight());
+        femaleTable = new SinclairCoefficientTable(
+                coefficients.getFemaleCoefficient(),
+                coefficients.getFemaleWrhBodyweight());
+    }
+
+    /**
+     * Gets the coefficients used by this calculator.
+     *
+     * @return the coefficients used by this calculator
+     */
+    public SinclairCoefficient getCoefficients() {
+        return coefficients;
+    }
+
     public Double apply(Participant participant){
         return calculateScore(participant);
     }
@@ -22,22 +59,22 @@ public class SinclairCalculator implements Function<Participant, Double> {
      *    to 1.0
      *  b is the bodyweight of the world record holder in the heaviest category
      *
+     * The coefficient is looked up from the precomputed table for the gender
+     * of the participant.
+     *
      * @param participant the participant for whom to calculate the Sinclair coefficient
      * @return the Sinclair coefficient for the passed participant
      */
-    private static double sinclairCoefficient(Participant participant) {
-        double genderCoefficient;
-        double genderBodyweight;
+    private double sinclairCoefficient(Participant participant) {
+        SinclairCoefficientTable table;
         if (participant.getGender().equals(Lifter.Gender.MALE)) {
-            genderCoefficient = SinclairCoefficient.getMaleCoefficient();
-            genderBodyweight = SinclairCoefficient.getMaleWrhBodyweight();
+            table = maleTable;
         } else if (participant.getGender().equals(Lifter.Gender.FEMALE)) {
-            genderCoefficient = SinclairCoefficient.getFemaleCoefficient();
-            genderBodyweight = SinclairCoefficient.getFemaleWrhBodyweight();
+            table = femaleTable;
         } else {
             throw new IllegalArgumentException("unknown gender for lifter: " + participant);
         }
-        return Math.pow(10, genderCoefficient * Math.pow(Math.log10(participant.getBodyWeight() / genderBodyweight), 2));
+        return table.getCoefficient(participant.getBodyWeight());
     }
 
     /**
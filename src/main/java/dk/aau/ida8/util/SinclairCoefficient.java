@@ -1,28 +1,74 @@
 package dk.aau.ida8.util;
 
+/**
+ * This class represents the set of Sinclair coefficients applicable during
+ * one Olympic cycle.
+ *
+ * The coefficients are revised after every Olympic Games, and apply from the
+ * first year of the following cycle. Each set contains the official
+ * coefficient for male and female lifters, and the body weight of the male
+ * and female world record holders in the heaviest category.
+ *
+ * Sets of coefficients are loaded by the {@link SinclairCoefficientRegistry}.
+ */
 public class SinclairCoefficient {
 
+    private final int cycle;
+
     // The coefficient for this Olympic cycle
-    private static double MALE_COEFFICIENT = 0.704358141;
-    private static double FEMALE_COEFFICIENT = 0.897260740;
+    private final double maleCoefficient;
+    private final double femaleCoefficient;
 
     //male and female world record holder's bodyweight (in the heaviest category)
-    private static double MALE_WRH_BODYWEIGHT = 174.393;
-    private static double FEMALE_WRH_BODYWEIGHT = 148.026;
+    private final double maleWrhBodyweight;
+    private final double femaleWrhBodyweight;
+
+    /**
+     * Creates a new set of Sinclair coefficients.
+     *
+     * @param cycle               the first year in which these coefficients
+     *                            apply
+     * @param maleCoefficient     the coefficient for male lifters
+     * @param maleWrhBodyweight   the body weight of the male world record
+     *                            holder in the heaviest category
+     * @param femaleCoefficient   the coefficient for female lifters
+     * @param femaleWrhBodyweight the body weight of the female world record
+     *                            holder in the heaviest category
+     */
+    public SinclairCoefficient(int cycle,
+                               double maleCoefficient,
+                               double maleWrhBodyweight,
+                               double femaleCoefficient,
+                               double femaleWrhBodyweight) {
+        this.cycle = cycle;
+        this.maleCoefficient = maleCoefficient;
+        this.maleWrhBodyweight = maleWrhBodyweight;
+        this.femaleCoefficient = femaleCoefficient;
+        this.femaleWrhBodyweight = femaleWrhBodyweight;
+    }
+
+    /**
+     * Gets the first year in which these coefficients apply.
+     *
+     * @return the first year of the Olympic cycle
+     */
+    public int getCycle() {
+        return cycle;
+    }
 
-    public static double getMaleCoefficient() {
-        return MALE_COEFFICIENT;
+    public double getMaleCoefficient() {
+        return maleCoefficient;
     }
 
-    public static double getFemaleCoefficient() {
-        return FEMALE_COEFFICIENT;
+    public double getFemaleCoefficient() {
+        return femaleCoefficient;
     }
 
-    public static double getMaleWrhBodyweight() {
-        return MALE_WRH_BODYWEIGHT;
+    public double getMaleWrhBodyweight() {
+        return maleWrhBodyweight;
     }
 
-    public static double getFemaleWrhBodyweight() {
-        return FEMALE_WRH_BODYWEIGHT;
+    public double getFemaleWrhBodyweight() {
+        return femaleWrhBodyweight;
     }
 }
@@ -0,0 +1,202 @@
+package dk.aau.ida8.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * This class holds the Sinclair coefficients for every Olympic cycle, and a
+ * {@link SinclairCalculator} for each of them.
+ *
+ * The coefficients are loaded from the {@link #DEFAULT_RESOURCE} on the
+ * classpath when this class is first used. A new set of coefficients may be
+ * loaded at any time using {@link #load(InputStream)}; the calculators
+ * (including their precomputed lookup tables) are built before the loaded
+ * coefficients replace the current ones, so that scores are never calculated
+ * against a partly loaded set.
+ *
+ * The coefficients are given in a comma-separated file, with one line per
+ * cycle:-
+ *
+ * <pre>
+ *     cycle,male coefficient,male WRH bodyweight,female coefficient,female WRH bodyweight
+ * </pre>
+ *
+ * Blank lines, and lines starting with #, are ignored.
+ */
+public final class SinclairCoefficientRegistry {
+
+    /**
+     * The name of the classpath resource containing the default coefficients.
+     */
+    public static final String DEFAULT_RESOURCE = "sinclair-coefficients.csv";
+
+    private static volatile NavigableMap<Integer, SinclairCalculator> calculators;
+
+    /**
+     * Counts the number of times coefficients have been loaded. This allows
+     * holders of a calculator to determine whether it has been replaced.
+     */
+    private static volatile int generation = 0;
+
+    static {
+        loadDefault();
+    }
+
+    private SinclairCoefficientRegistry() {
+
+    }
+
+    /**
+     * Gets the calculator for the coefficients applicable in a given year.
+     *
+     * This will be the calculator for the latest cycle starting in or before
+     * the given year. Where the year precedes every cycle, the earliest cycle
+     * is used. Where no year is given, the latest cycle is used.
+     *
+     * @param year the year for which to get the calculator, or null
+     * @return     the calculator for the coefficients applicable in the year
+     */
+    public static SinclairCalculator getCalculator(Integer year) {
+        NavigableMap<Integer, SinclairCalculator> current = calculators;
+        if (year == null) {
+            return current.lastEntry().getValue();
+        }
+        Map.Entry<Integer, SinclairCalculator> entry = current.floorEntry(year);
+        if (entry == null) {
+            entry = current.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Gets the calculator for the latest cycle.
+     *
+     * @return the calculator for the latest cycle
+     */
+    public static SinclairCalculator getLatestCalculator() {
+        return getCalculator(null);
+    }
+
+    /**
+     * Gets the coefficients for every cycle, ordered by cycle.
+     *
+     * @return the coefficients for every cycle
+     */
+    public static List<SinclairCoefficient> getCoefficients() {
+        List<SinclairCoefficient> coefficients = new ArrayList<>();
+        for (SinclairCalculator calculator : calculators.values()) {
+            coefficients.add(calculator.getCoefficients());
+        }
+        return coefficients;
+    }
+
+    /**
+     * Gets the number of times coefficients have been loaded.
+     *
+     * @return the number of times coefficients have been loaded
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Loads the coefficients from the default classpath resource, replacing
+     * those currently held.
+     */
+    public static void loadDefault() {
+        InputStream in = SinclairCoefficientRegistry.class.getClassLoader()
+                .getResourceAsStream(DEFAULT_RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("unable to find " + DEFAULT_RESOURCE);
+        }
+        try {
+            load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads coefficients from a stream, replacing those currently held.
+     *
+     * The stream is closed once read.
+     *
+     * @param in                        the stream from which to read
+     *                                  coefficients
+     * @return                          the coefficients loaded
+     * @throws IOException              if the stream cannot be read
+     * @throws IllegalArgumentException if the stream contains no
+     *                                  coefficients, or a line cannot be
+     *                                  parsed
+     */
+    public static synchronized List<SinclairCoefficient> load(InputStream in)
+            throws IOException, IllegalArgumentException {
+        List<SinclairCoefficient> coefficients;
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            coefficients = parse(reader);
+        }
+        NavigableMap<Integer, SinclairCalculator> loaded = new TreeMap<>();
+        for (SinclairCoefficient c : coefficients) {
+            loaded.put(c.getCycle(), new SinclairCalculator(c));
+        }
+        calculators = Collections.unmodifiableNavigableMap(loaded);
+        generation++;
+        return coefficients;
+    }
+
+    /**
+     * Parses coefficients from a reader.
+     *
+     * @param reader                    the reader from which to parse
+     *                                  coefficients
+     * @return                          the coefficients parsed
+     * @throws IOException              if the reader cannot be read
+     * @throws IllegalArgumentException if there are no coefficients, or a
+     *                                  line cannot be parsed
+     */
+    static List<SinclairCoefficient> parse(Reader reader)
+            throws IOException, IllegalArgumentException {
+        List<SinclairCoefficient> coefficients = new ArrayList<>();
+        BufferedReader br = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 5) {
+                String msg = "expected 5 values on line " + lineNumber + ": " + line;
+                throw new IllegalArgumentException(msg);
+            }
+            try {
+                coefficients.add(new SinclairCoefficient(
+                        Integer.parseInt(fields[0].trim()),
+                        Double.parseDouble(fields[1].trim()),
+                        Double.parseDouble(fields[2].trim()),
+                        Double.parseDouble(fields[3].trim()),
+                        Double.parseDouble(fields[4].trim())));
+            } catch (NumberFormatException e) {
+                String msg = "invalid number on line " + lineNumber + ": " + line;
+                throw new IllegalArgumentException(msg, e);
+            }
+        }
+        if (coefficients.isEmpty()) {
+            throw new IllegalArgumentException("no Sinclair coefficients found");
+        }
+        return coefficients;
+    }
+}
@@ -0,0 +1,74 @@
+package dk.aau.ida8.util;
+
+/**
+ * This class holds precomputed Sinclair coefficients for one gender.
+ *
+ * Body weights are recorded to the nearest 0.01kg, so the coefficient for
+ * every body weight up to {@link #MAX_BODY_WEIGHT} is calculated once, when
+ * the table is created. Looking up a coefficient is then a simple array
+ * access, instead of a calculation involving a logarithm and two powers.
+ *
+ * Body weights which do not fall on a 0.01kg step, or which fall outside the
+ * table, have their coefficient calculated directly.
+ */
+class SinclairCoefficientTable {
+
+    /**
+     * The heaviest body weight, in kg, held within the table.
+     */
+    static final double MAX_BODY_WEIGHT = 250;
+
+    /**
+     * The number of table entries per kg of body weight.
+     */
+    private static final int STEPS_PER_KG = 100;
+
+    private final double coefficient;
+    private final double wrhBodyweight;
+    private final double[] table;
+
+    /**
+     * Creates a new table of Sinclair coefficients.
+     *
+     * @param coefficient   the official coefficient for the Olympic cycle
+     * @param wrhBodyweight the body weight of the world record holder in the
+     *                      heaviest category
+     */
+    SinclairCoefficientTable(double coefficient, double wrhBodyweight) {
+        this.coefficient = coefficient;
+        this.wrhBodyweight = wrhBodyweight;
+        this.table = new double[(int) (MAX_BODY_WEIGHT * STEPS_PER_KG) + 1];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = calculate((double) i / STEPS_PER_KG);
+        }
+    }
+
+    /**
+     * Gets the Sinclair coefficient for a given body weight.
+     *
+     * @param bodyWeight the body weight in kg
+     * @return           the Sinclair coefficient for the body weight
+     */
+    double getCoefficient(double bodyWeight) {
+        double steps = bodyWeight * STEPS_PER_KG;
+        long i = Math.round(steps);
+        if (i >= 0 && i < table.length && Math.abs(steps - i) < 1e-6) {
+            return table[(int) i];
+        }
+        return calculate(bodyWeight);
+    }
+
+    /**
+     * Calculates the Sinclair coefficient for a given body weight.
+     *
+     * The calculation is described by the formula: 10^(A log10(x/b)^2, where
+     * x is the body weight, A is the official coefficient and b is the body
+     * weight of the world record holder in the heaviest category.
+     *
+     * @param bodyWeight the body weight in kg
+     * @return           the Sinclair coefficient for the body weight
+     */
+    double calculate(double bodyWeight) {
+        return Math.pow(10, coefficient * Math.pow(Math.log10(bodyWeight / wrhBodyweight), 2));
+    }
+}
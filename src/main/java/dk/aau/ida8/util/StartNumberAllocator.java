@@ -0,0 +1,159 @@
+package dk.aau.ida8.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class allocates random, unused start numbers to the participants of a
+ * competition.
+ *
+ * Start numbers range from 1 up to the maximum number of participants in the
+ * competition. The numbers not yet allocated are held in a pool, along with
+ * the position of each number within the pool. A number is allocated by
+ * picking a random position in the pool and swapping the number there with
+ * the last available number, so that allocating, reserving and releasing a
+ * number all take constant time.
+ *
+ * All methods are synchronized. An allocator only knows of the start numbers
+ * of the participants loaded with its competition, so concurrent sign-ups to
+ * one competition are serialized by the competition service.
+ */
+public class StartNumberAllocator {
+
+    /**
+     * The pool of start numbers. Those at positions below {@link #available}
+     * are available; those at or above it have been allocated.
+     */
+    private final int[] pool;
+
+    /**
+     * The position of each start number within the pool, indexed by start
+     * number less one.
+     */
+    private final int[] positions;
+
+    private int available;
+
+    /**
+     * Creates a new allocator for start numbers from 1 up to a maximum.
+     *
+     * @param maxStartNumber the highest start number which may be allocated
+     * @param allocated      start numbers which have already been allocated
+     */
+    public StartNumberAllocator(int maxStartNumber, Collection<Integer> allocated) {
+        int size = Math.max(maxStartNumber, 0);
+        this.pool = new int[size];
+        this.positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            pool[i] = i + 1;
+            positions[i] = i;
+        }
+        this.available = size;
+        for (int n : allocated) {
+            reserve(n);
+        }
+    }
+
+    /**
+     * Allocates a random start number which has not already been allocated.
+     *
+     * @return the allocated start number
+     * @throws UnsupportedOperationException if all start numbers have been
+     *                                       allocated
+     */
+    public synchronized int allocate() throws UnsupportedOperationException {
+        if (available == 0) {
+            String msg = "all " + pool.length + " start numbers have been allocated";
+            throw new UnsupportedOperationException(msg);
+        }
+        int n = pool[ThreadLocalRandom.current().nextInt(available)];
+        reserve(n);
+        return n;
+    }
+
+    /**
+     * Marks a particular start number as allocated.
+     *
+     * Numbers outside of the range of this allocator, or which are already
+     * allocated, are ignored.
+     *
+     * @param n the start number to mark as allocated
+     * @return  true if the number was available and is now allocated, else
+     *          false
+     */
+    public synchronized boolean reserve(int n) {
+        if (!isAvailable(n)) {
+            return false;
+        }
+        swap(positions[n - 1], --available);
+        return true;
+    }
+
+    /**
+     * Returns a start number to the pool of available numbers.
+     *
+     * Numbers outside of the range of this allocator, or which are already
+     * available, are ignored.
+     *
+     * @param n the start number to release
+     */
+    public synchronized void release(int n) {
+        if (n < 1 || n > pool.length || isAvailable(n)) {
+            return;
+        }
+        swap(positions[n - 1], available++);
+    }
+
+    /**
+     * Determines whether a start number is available for allocation.
+     *
+     * @param n the start number to check
+     * @return  true if the number is within range and not yet allocated, else
+     *          false
+     */
+    public synchronized boolean isAvailable(int n) {
+        return n >= 1 && n <= pool.length && positions[n - 1] < available;
+    }
+
+    /**
+     * Counts the start numbers available for allocation.
+     *
+     * @return the number of available start numbers
+     */
+    public synchronized int getAvailableCount() {
+        return available;
+    }
+
+    /**
+     * Lists all start numbers available for allocation, in ascending order.
+     *
+     * @return list of available start numbers
+     */
+    public synchronized List<Integer> getAvailable() {
+        int[] nums = Arrays.copyOf(pool, available);
+        Arrays.sort(nums);
+        List<Integer> list = new ArrayList<>(nums.length);
+        for (int n : nums) {
+            list.add(n);
+        }
+        return list;
+    }
+
+    /**
+     * Swaps the start numbers at two positions in the pool.
+     *
+     * @param i the first position
+     * @param j the second position
+     */
+    private void swap(int i, int j) {
+        int a = pool[i];
+        int b = pool[j];
+        pool[i] = b;
+        pool[j] = a;
+        positions[b - 1] = i;
+        positions[a - 1] = j;
+    }
+}
@@ -0,0 +1,168 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Address;
+import dk.aau.ida8.model.Club;
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.Lifter;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+/**
+ * This class generates synthetic clubs, lifters and competition attempts,
+ * for use in load testing and benchmarks.
+ *
+ * Values are drawn from distributions resembling those of a national
+ * federation:
+ *
+ * <ul>
+ *     <li>three lifters in five are men;</li>
+ *     <li>ages are centred on 26, between 14 and 70;</li>
+ *     <li>body weights are normally distributed about 83kg for men and 65kg
+ *         for women;</li>
+ *     <li>starting snatches are a normally distributed multiple of body
+ *         weight, and starting clean &amp; jerks around 22% heavier; and</li>
+ *     <li>around two lifts in three are passed, and a few abstained.</li>
+ * </ul>
+ *
+ * A generator draws from a seeded random number generator, so that two
+ * generators with the same seed generate the same values, in the same order.
+ * A generator is not safe for use by more than one thread at once.
+ */
+public class SyntheticMeetGenerator {
+
+    private static final double MALE_RATE = 0.6;
+    private static final double PASS_RATE = 0.65;
+    private static final double ABSTAIN_RATE = 0.03;
+    private static final int REFERENCE_YEAR = 2016;
+
+    private static final String[] FORENAMES = {
+            "Anders", "Birgitte", "Christian", "Dorthe", "Emil", "Freja", "Gustav",
+            "Hanne", "Ida", "Jens", "Karen", "Lars", "Mette", "Niels", "Oliver",
+            "Pia", "Rasmus", "Sofie", "Thomas", "Ulla"
+    };
+    private static final String[] SURNAMES = {
+            "Andersen", "Christensen", "Hansen", "Jensen", "Johansen", "Jørgensen",
+            "Larsen", "Madsen", "Nielsen", "Olsen", "Pedersen", "Petersen",
+            "Rasmussen", "Sørensen", "Thomsen"
+    };
+    private static final String[] TOWNS = {
+            "Aalborg", "Aarhus", "Esbjerg", "Herning", "København", "Odense",
+            "Randers", "Vejle"
+    };
+
+    private final Random random;
+    private int clubs;
+
+    /**
+     * Creates a generator from a seed.
+     *
+     * @param seed the seed from which to draw values
+     */
+    public SyntheticMeetGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the address of a club.
+     *
+     * @return the address
+     */
+    public Address nextAddress() {
+        return new Address(Integer.toString(1 + random.nextInt(150)),
+                SURNAMES[random.nextInt(SURNAMES.length)] + "svej",
+                Integer.toString(1000 + random.nextInt(9000)),
+                TOWNS[random.nextInt(TOWNS.length)]);
+    }
+
+    /**
+     * Generates a club, named after the town of its address.
+     *
+     * @param address the address of the club
+     * @return        the club
+     */
+    public Club nextClub(Address address) {
+        clubs++;
+        return new Club("AK " + address.getTown() + " " + clubs, address);
+    }
+
+    /**
+     * Generates a lifter belonging to a club.
+     *
+     * @param club the club of the lifter
+     * @return     the lifter
+     */
+    public Lifter nextLifter(Club club) {
+        boolean male = random.nextDouble() < MALE_RATE;
+        int age = (int) clamp(26 + random.nextGaussian() * 8, 14, 70);
+        Date dateOfBirth = new GregorianCalendar(REFERENCE_YEAR - age, random.nextInt(12),
+                1 + random.nextInt(28)).getTime();
+        double bodyWeight = male ?
+                clamp(83 + random.nextGaussian() * 14, 50, 170) :
+                clamp(65 + random.nextGaussian() * 11, 42, 130);
+        return new Lifter(FORENAMES[random.nextInt(FORENAMES.length)],
+                SURNAMES[random.nextInt(SURNAMES.length)], club,
+                male ? Lifter.Gender.MALE : Lifter.Gender.FEMALE,
+                dateOfBirth, roundToTenth(bodyWeight));
+    }
+
+    /**
+     * Generates the body weight of a lifter at weigh-in, which differs a
+     * little from their registered body weight.
+     *
+     * @param lifter the lifter being weighed in
+     * @return       the body weight at weigh-in, to the nearest 0.1kg
+     */
+    public double nextWeighInBodyWeight(Lifter lifter) {
+        return roundToTenth(Math.max(40, lifter.getBodyWeight() + random.nextGaussian() * 0.8));
+    }
+
+    /**
+     * Generates the starting snatch of a lifter.
+     *
+     * @param lifter     the lifter
+     * @param bodyWeight the body weight of the lifter at weigh-in
+     * @return           the starting snatch, in whole kg
+     */
+    public int nextStartingSnatch(Lifter lifter, double bodyWeight) {
+        double ratio = lifter.getGender() == Lifter.Gender.MALE ?
+                clamp(1.25 + random.nextGaussian() * 0.22, 0.6, 2.0) :
+                clamp(1.0 + random.nextGaussian() * 0.18, 0.5, 1.7);
+        return (int) Math.round(Math.max(20, bodyWeight * ratio));
+    }
+
+    /**
+     * Generates the starting clean &amp; jerk of a lifter.
+     *
+     * @param startingSnatch the starting snatch of the lifter
+     * @return               the starting clean &amp; jerk, in whole kg
+     */
+    public int nextStartingCleanAndJerk(int startingSnatch) {
+        return (int) Math.round(startingSnatch * clamp(1.22 + random.nextGaussian() * 0.04, 1.1, 1.4));
+    }
+
+    /**
+     * Generates the outcome of a lift.
+     *
+     * @return the outcome
+     */
+    public Lift.LiftOutcome nextOutcome() {
+        double r = random.nextDouble();
+        if (r < PASS_RATE) {
+            return Lift.LiftOutcome.PASS;
+        } else if (r < PASS_RATE + ABSTAIN_RATE) {
+            return Lift.LiftOutcome.ABSTAIN;
+        } else {
+            return Lift.LiftOutcome.FAIL;
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.min(max, Math.max(min, value));
+    }
+
+    private static double roundToTenth(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
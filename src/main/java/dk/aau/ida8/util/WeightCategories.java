@@ -0,0 +1,86 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Lifter;
+
+import java.util.Arrays;
+
+/**
+ * This class represents one set of weight categories, such as the senior
+ * categories of a given period, used in a total weight competition.
+ *
+ * The upper body weight limits of the categories of each gender are held in
+ * ascending order in an array, so that the category of a lifter is found by a
+ * binary search rather than by comparing against every limit.
+ */
+public final class WeightCategories {
+
+    private final String name;
+    private final double[] maleLimits;
+    private final double[] femaleLimits;
+
+    /**
+     * Creates a new set of weight categories.
+     *
+     * @param name                      the name of this set
+     * @param maleLimits                the upper limits of the male
+     *                                  categories
+     * @param femaleLimits              the upper limits of the female
+     *                                  categories
+     * @throws IllegalArgumentException if either set of limits is empty, or
+     *                                  is not strictly ascending
+     */
+    public WeightCategories(String name, double[] maleLimits, double[] femaleLimits)
+            throws IllegalArgumentException {
+        this.name = name;
+        this.maleLimits = checkLimits(name, maleLimits);
+        this.femaleLimits = checkLimits(name, femaleLimits);
+    }
+
+    private static double[] checkLimits(String name, double[] limits) {
+        if (limits == null || limits.length == 0) {
+            throw new IllegalArgumentException("no limits given for " + name);
+        }
+        for (int i = 1; i < limits.length; i++) {
+            if (limits[i] <= limits[i - 1]) {
+                String msg = "limits for " + name + " are not ascending: " + Arrays.toString(limits);
+                throw new IllegalArgumentException(msg);
+            }
+        }
+        return limits.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the upper limits of the categories for a given gender.
+     *
+     * @param gender the gender for which to get the limits
+     * @return       the upper limits, in ascending order
+     */
+    public double[] getLimits(Lifter.Gender gender) {
+        return limitsFor(gender).clone();
+    }
+
+    /**
+     * Finds the weight class for a given gender and body weight.
+     *
+     * Weight classes are numbered from 1. The limit of each category is up to
+     * and including that weight, so a lifter whose body weight equals a limit
+     * is in that category. A lifter heavier than every limit is in the class
+     * following the heaviest category.
+     *
+     * @param gender     the gender of the lifter
+     * @param bodyWeight the body weight of the lifter
+     * @return           the weight class number
+     */
+    public int find(Lifter.Gender gender, double bodyWeight) {
+        int i = Arrays.binarySearch(limitsFor(gender), bodyWeight);
+        return (i >= 0 ? i : -i - 1) + 1;
+    }
+
+    private double[] limitsFor(Lifter.Gender gender) {
+        return gender == Lifter.Gender.FEMALE ? femaleLimits : maleLimits;
+    }
+}
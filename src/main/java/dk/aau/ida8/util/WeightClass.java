@@ -1,10 +1,19 @@
 package dk.aau.ida8.util;
 
+import dk.aau.ida8.model.Competition;
 import dk.aau.ida8.model.Lifter;
 import dk.aau.ida8.model.Participant;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,72 +26,202 @@ import java.util.Map;
  * This class provides a number of static methods for determining which weight
  * class a participant is in.
  *
+ * Each competition may choose the set of categories in which it is held, such
+ * as the current senior, youth or masters categories. Every set is loaded
+ * once, from the {@link #DEFAULT_RESOURCE} on the classpath, when this class
+ * is first used. The categories are given in a comma-separated file, with one
+ * line per set and gender:-
+ *
+ * <pre>
+ *     name,gender,limit,limit,...
+ * </pre>
+ *
+ * Blank lines, and lines starting with #, are ignored.
  */
-public class WeightClass {
+public final class WeightClass {
+
+    /**
+     * The name of the classpath resource containing the weight categories.
+     */
+    public static final String DEFAULT_RESOURCE = "weight-classes.csv";
+
+    /**
+     * The name of the set of categories used where a competition does not
+     * choose one.
+     */
+    public static final String DEFAULT_CATEGORIES = "IWF-1998";
+
+    private static final Map<String, WeightCategories> categories;
+
+    static {
+        InputStream in = WeightClass.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("unable to find " + DEFAULT_RESOURCE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            categories = Collections.unmodifiableMap(parse(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!categories.containsKey(DEFAULT_CATEGORIES)) {
+            throw new IllegalStateException(DEFAULT_RESOURCE + " does not contain " + DEFAULT_CATEGORIES);
+        }
+    }
 
-    private static Map<Lifter.Gender, List<Integer>> weightClasses = new HashMap<>();
+    private WeightClass() {
 
-    private static List<Integer> maleClasses = Arrays.asList(56, 62, 69, 77, 85, 94, 105);
-    private static List<Integer> femaleClasses = Arrays.asList(48, 53, 58, 63, 69, 75);
+    }
 
     /**
      * Finds the weight class for a given participant.
      *
-     * This method extracts the lifter underlying a participant, and passes this
-     * to the {@link #findWeightClass(Lifter)} method. See that method for more
-     * details.
+     * The weight class is found within the categories chosen by the
+     * participant's competition, or the default categories where the
+     * participant has no competition.
      *
      * @param p the participant for whom to find the weight class
      * @return  the weight class number for this participant
      */
     public static int findWeightClass(Participant p) {
-        return findWeightClass(p.getLifter());
+        return findWeightClass(p.getLifter(), getCategories(p.getCompetition()));
     }
 
     /**
-     * Find the weight class for a given lifter.
-     *
-     * Each gender has a number of weight classes associated with it, based on
-     * weight bandings. This method calculates which banding a lifter is in by
-     * filtering the list of weight categories to select only those for which
-     * the given lifter has a body weight higher than. This is then incremented
-     * by 1, and the result is the weight category for this lifter.
-     *
-     * This functionality is based on the fact that the weight bandings listed
-     * are for up to and including that weight. Thus, a lifter whose weight is
-     * lower than that listed in Group 3 will be lighter than the weight listed
-     * for Group 3, but heavier than that for Group 2. Filtering the list will
-     * result in two entries being returned, with one needed to be added to get
-     * the result of Group 3.
+     * Find the weight class for a given lifter within the default categories.
      *
      * @param l the lifter for whom to find the weight class
-     * @return  the weight class number for this participant
+     * @return  the weight class number for this lifter
+     * @see     #findWeightClass(Lifter, WeightCategories)
      */
     public static int findWeightClass(Lifter l) {
-        return (int) getWeightClasses().get(l.getGender()).stream()
-                .filter(wc -> l.getBodyWeight() > wc)
-                .count() + 1;
+        return findWeightClass(l, getDefaultCategories());
     }
 
     /**
-     * Gets the Map of weight classes.
+     * Find the weight class for a given lifter within a set of categories.
      *
-     * Generates this map if not already populated.
+     * Each gender has a number of weight classes associated with it, based on
+     * weight bandings. The weight bandings listed are for up to and including
+     * that weight. Thus, a lifter whose weight is lower than that listed in
+     * Group 3 will be lighter than the weight listed for Group 3, but heavier
+     * than that for Group 2. See {@link WeightCategories#find} for details.
      *
-     * @return map of weight classes indexed by gender
+     * @param l  the lifter for whom to find the weight class
+     * @param wc the categories within which to find the weight class
+     * @return   the weight class number for this lifter
      */
-    private static Map<Lifter.Gender, List<Integer>> getWeightClasses() {
-        if (weightClasses.isEmpty()) {
-            populateWeightClasses();
+    public static int findWeightClass(Lifter l, WeightCategories wc) {
+        return wc.find(l.getGender(), l.getBodyWeight());
+    }
+
+    /**
+     * Gets the set of categories in which a competition is held.
+     *
+     * @param c the competition, or null
+     * @return  the categories of the competition, or the default categories
+     *          where no competition is given
+     */
+    public static WeightCategories getCategories(Competition c) {
+        WeightCategories wc = c == null ? null : c.getWeightCategoryLimits();
+        return wc == null ? getDefaultCategories() : wc;
+    }
+
+    /**
+     * Gets the set of categories with a given name.
+     *
+     * @param name                      the name of the set of categories, or
+     *                                  null for the default categories
+     * @return                          the set of categories
+     * @throws IllegalArgumentException if there is no set with the given name
+     */
+    public static WeightCategories getCategories(String name) throws IllegalArgumentException {
+        if (name == null) {
+            return getDefaultCategories();
         }
-        return weightClasses;
+        WeightCategories wc = categories.get(name);
+        if (wc == null) {
+            throw new IllegalArgumentException("unknown weight categories: " + name);
+        }
+        return wc;
+    }
+
+    public static WeightCategories getDefaultCategories() {
+        return categories.get(DEFAULT_CATEGORIES);
     }
 
     /**
-     * Populates the Map of weight classes.
+     * Determines whether there is a set of categories with a given name.
+     *
+     * @param name the name of the set of categories
+     * @return     true if the set exists
      */
-    private static void populateWeightClasses() {
-        weightClasses.put(Lifter.Gender.MALE, maleClasses);
-        weightClasses.put(Lifter.Gender.FEMALE, femaleClasses);
+    public static boolean hasCategories(String name) {
+        return categories.containsKey(name);
+    }
+
+    /**
+     * Gets the names of every set of categories, in the order given in the
+     * resource.
+     *
+     * @return the names of every set of categories
+     */
+    public static List<String> getCategoryNames() {
+        return new ArrayList<>(categories.keySet());
+    }
+
+    /**
+     * Parses sets of weight categories from a reader.
+     *
+     * @param reader                    the reader from which to parse
+     *                                  categories
+     * @return                          the sets of categories parsed, by name
+     * @throws IOException              if the reader cannot be read
+     * @throws IllegalArgumentException if there are no categories, a line
+     *                                  cannot be parsed, or a set lacks the
+     *                                  categories of either gender
+     */
+    static Map<String, WeightCategories> parse(Reader reader)
+            throws IOException, IllegalArgumentException {
+        Map<String, Map<Lifter.Gender, double[]>> limits = new LinkedHashMap<>();
+        BufferedReader br = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length < 3) {
+                String msg = "expected a name, gender and limits on line " + lineNumber + ": " + line;
+                throw new IllegalArgumentException(msg);
+            }
+            Lifter.Gender gender;
+            double[] genderLimits = new double[fields.length - 2];
+            try {
+                gender = Lifter.Gender.valueOf(fields[1].trim());
+                for (int i = 2; i < fields.length; i++) {
+                    genderLimits[i - 2] = Double.parseDouble(fields[i].trim());
+                }
+            } catch (IllegalArgumentException e) {
+                String msg = "invalid gender or limit on line " + lineNumber + ": " + line;
+                throw new IllegalArgumentException(msg, e);
+            }
+            limits.computeIfAbsent(fields[0].trim(), k -> new LinkedHashMap<>()).put(gender, genderLimits);
+        }
+        if (limits.isEmpty()) {
+            throw new IllegalArgumentException("no weight categories found");
+        }
+        Map<String, WeightCategories> parsed = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<Lifter.Gender, double[]>> e : limits.entrySet()) {
+            double[] male = e.getValue().get(Lifter.Gender.MALE);
+            double[] female = e.getValue().get(Lifter.Gender.FEMALE);
+            if (male == null || female == null) {
+                throw new IllegalArgumentException("missing male or female limits for " + e.getKey());
+            }
+            parsed.put(e.getKey(), new WeightCategories(e.getKey(), male, female));
+        }
+        return parsed;
     }
 }
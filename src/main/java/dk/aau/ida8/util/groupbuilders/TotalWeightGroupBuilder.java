@@ -114,15 +114,13 @@ public class TotalWeightGroupBuilder extends GroupBuilder {
      */
     private Comparator<Group> secondaryGroupingComparator() {
         return (g1, g2) -> {
-            int g1WC = (int) g1.getParticipants().get(0).getWeightClass();
-            int g2WC = (int) g2.getParticipants().get(0).getWeightClass();
-            int g1SS = g1.getParticipants().get(0).getStartingSnatchWeight();
-            int g2SS = g2.getParticipants().get(0).getStartingSnatchWeight();
-            if (g1WC - g2WC != 0) {
-                return g1WC - g2WC;
-            } else {
-                return g1SS - g2SS;
+            Participant p1 = g1.getParticipants().get(0);
+            Participant p2 = g2.getParticipants().get(0);
+            int byWeightClass = Integer.compare(p1.getWeightClass(), p2.getWeightClass());
+            if (byWeightClass != 0) {
+                return byWeightClass;
             }
+            return Integer.compare(p1.getStartingSnatchWeight(), p2.getStartingSnatchWeight());
         };
     }
 }
\ No newline at end of file
@@ -1,11 +1,8 @@
 package dk.aau.ida8.util.groupcomparators;
 
-import dk.aau.ida8.model.Lift;
 import dk.aau.ida8.model.Participant;
 
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
 
 /**
  * This class represents a comparator to be used to compare participants within
@@ -15,11 +12,16 @@ import java.util.List;
  * method to provide a custom comparison between participants within a group.
  * See {@link #compare(Participant, Participant)} for details of this
  * comparison.
+ *
+ * The comparator holds no state, and so a single instance may be shared
+ * between threads and used for parallel sorting. See {@link #INSTANCE}.
  */
 public class CompetingComparator implements Comparator<Participant> {
 
-    private Participant p1;
-    private Participant p2;
+    /**
+     * A shared instance of this comparator.
+     */
+    public static final CompetingComparator INSTANCE = new CompetingComparator();
 
     /**
      * Compares two participants based on a number of comparison
@@ -37,14 +39,15 @@ public class CompetingComparator implements Comparator<Participant> {
      * </ol>
      *
      * As soon as one factor indicates a distinction between participants, this
-     * is the relevant comparison and its value will be returned. For example,
-     * if both lifters have completed two lifts, then the next weight of their
-     * lifts will be considered, with lowest first. If they are the same, then
-     * the number of completed attempts will be compared, again with lowest
-     * going first. Then, if these are the same, timestamps of the first snatch
-     * or clean & jerk lifts will be compared. If these are the same (this
-     * should not be possible, but it is included for completeness) then start
-     * numbers are compared.
+     * is the relevant comparison and its value will be returned, and the
+     * remaining factors are not evaluated. For example, if both lifters have
+     * completed two lifts, then the next weight of their lifts will be
+     * considered, with lowest first. If they are the same, then the number of
+     * completed attempts will be compared, again with lowest going first.
+     * Then, if these are the same, timestamps of the first snatch or clean &
+     * jerk lifts will be compared. If these are the same (this should not be
+     * possible, but it is included for completeness) then start numbers are
+     * compared.
      *
      * @param p1 The first participant to compare
      * @param p2 The second participant to compare
@@ -53,23 +56,26 @@ public class CompetingComparator implements Comparator<Participant> {
      */
     @Override
     public int compare(Participant p1, Participant p2) {
-        this.p1 = p1;
-        this.p2 = p2;
-
-        List<Integer> comparators = Arrays.asList(
-                compareCompletions(),
-                compareWeights(),
-                compareAttempts(),
-                compareTimestamps(),
-                compareStartNumbers()
-        );
+        int p1Count = p1.getLiftsCount();
+        int p2Count = p2.getLiftsCount();
 
-        for (Integer comparatorValue : comparators) {
-            if (comparatorValue != 0) {
-                return comparatorValue;
-            }
+        int result = compareCompletions(p1Count, p2Count);
+        if (result != 0) {
+            return result;
         }
-        return 0;
+        result = Integer.compare(p1.getCurrentWeight(), p2.getCurrentWeight());
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(p1Count, p2Count);
+        if (result != 0) {
+            return result;
+        }
+        result = compareTimestamps(p1, p2, p1Count, p2Count);
+        if (result != 0) {
+            return result;
+        }
+        return Integer.compare(p1.getStartNumber(), p2.getStartNumber());
     }
 
     /**
@@ -82,55 +88,22 @@ public class CompetingComparator implements Comparator<Participant> {
      * completed all lifts, returns 1. If p2 has completed all lifts,
      * returns -1.
      *
-     * @return comparator value after carrying-out comparison
+     * @param p1Count the number of lifts completed by the first participant
+     * @param p2Count the number of lifts completed by the second participant
+     * @return        comparator value after carrying-out comparison
      */
-    private int compareCompletions() {
-        int p1Count = p1.getLiftsCount();
-        int p2Count = p2.getLiftsCount();
-
+    private static int compareCompletions(int p1Count, int p2Count) {
         // Compare for snatch completion first.
         if (p1Count < 3 ^ p2Count < 3) {
-            if (p1Count < 3) {
-                return -1;
-            } else if (p2Count < 3) {
-                return 1;
-            }
+            return p1Count < 3 ? -1 : 1;
         }
         // Then check for clean & jerk completion
         if (p1Count == 6 ^ p2Count == 6) {
-            if (p1Count == 6) {
-                return 1;
-            } else {
-                return -1;
-            }
+            return p1Count == 6 ? 1 : -1;
         }
         return 0;
     }
 
-    /**
-     * Compares the lift weights of two participants.
-     *
-     * This method compares the weights next to be lifted by two
-     * participants. The participant with the lower lift weight should
-     * come first.
-     *
-     * @return comparator value after carrying-out comparison
-     */
-    private int compareWeights() {
-        return p1.getCurrentWeight() - p2.getCurrentWeight();
-    }
-
-    /**
-     * Compares the number of attempts of two participants.
-     *
-     * The participant with the fewer attempts should come first.
-     *
-     * @return comparator value after carrying-out comparison
-     */
-    private int compareAttempts() {
-        return p1.getLiftsCount() - p2.getLiftsCount();
-    }
-
     /**
      * Compares two Participants based on the timestamps of their first
      * completed lifts for snatch or C&J.
@@ -145,32 +118,21 @@ public class CompetingComparator implements Comparator<Participant> {
      * doing C&J lifts, then the timestamps for the first completed C&J lifts
      * will be compared.
      *
-     * @return comparator value after carrying-out comparison
+     * @param p1      the first participant to compare
+     * @param p2      the second participant to compare
+     * @param p1Count the number of lifts completed by the first participant
+     * @param p2Count the number of lifts completed by the second participant
+     * @return        comparator value after carrying-out comparison
      */
-    private int compareTimestamps() {
-        int p1Count = p1.getLiftsCount();
-        int p2Count = p2.getLiftsCount();
-
+    private static int compareTimestamps(Participant p1, Participant p2,
+                                         int p1Count, int p2Count) {
         if (p1Count > 0 && p1Count < 3 && p2Count > 0 && p2Count < 3) {
-            Lift p1FirstSnatch = p1.getLifts().get(0);
-            Lift p2FirstSnatch = p2.getLifts().get(0);
-            return p1FirstSnatch.getTimestamp().compareTo(p2FirstSnatch.getTimestamp());
+            return p1.getFirstSnatchTimestamp()
+                    .compareTo(p2.getFirstSnatchTimestamp());
         } else if (p1Count > 3 && p1Count < 6 && p2Count > 3 && p2Count < 6){
-            Lift p1FirstCJ = p1.getLifts().get(3);
-            Lift p2FirstCJ = p2.getLifts().get(3);
-            return p1FirstCJ.getTimestamp().compareTo(p2FirstCJ.getTimestamp());
+            return p1.getFirstCleanAndJerkTimestamp()
+                    .compareTo(p2.getFirstCleanAndJerkTimestamp());
         }
         return 0;
     }
-
-    /**
-     * Compares the ID#s of two participants.
-     *
-     * The participant with the lower ID should come first.
-     *
-     * @return comparator value after carrying-out comparison
-     */
-    private int compareStartNumbers() {
-        return p1.getStartNumber() - p2.getStartNumber();
-    }
 }
@@ -0,0 +1,222 @@
+package dk.aau.ida8.data;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that each page of a 300-participant competition is read (the sign-up
+ * page a slice at a time), and that the groups of a 1,000-participant
+ * competition are allocated, with a bounded number of SQL statements, whatever
+ * the number of participants.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class CompetitionRepositoryTest {
+
+    private static final int PARTICIPANTS = 300;
+    private static final int MAX_STATEMENTS = 15;
+    private static final int LARGE_PARTICIPANTS = 1000;
+    private static final int MAX_ALLOCATION_STATEMENTS = 50;
+    private static final int SLICE_SIZE = 50;
+
+    @Autowired
+    private CompetitionRepository competitionRepository;
+    @Autowired
+    private LifterRepository lifterRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private ClubRepository clubRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private long competitionId;
+
+    @Before
+    public void setUp() throws Exception {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        competitionId = transaction.execute(status -> createCompetition(PARTICIPANTS, true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private long createCompetition(int participants, boolean finishWeighIn) {
+        Address address = addressRepository.save(new Address("", "Østerbro 33", "Aalborg", "9000"));
+        List<Club> clubs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            clubs.add(clubRepository.save(new Club("Club " + i, address)));
+        }
+        Competition competition = new Competition("Large competition", clubs.get(0), address,
+                Competition.CompetitionType.SINCLAIR, new Date(), new Date(), participants);
+        for (int i = 0; i < participants; i++) {
+            Lifter lifter = lifterRepository.save(new Lifter("Lifter", "No. " + i,
+                    clubs.get(i % clubs.size()),
+                    i % 2 == 0 ? Lifter.Gender.MALE : Lifter.Gender.FEMALE,
+                    new GregorianCalendar(1990, i % 12, 1).getTime(), 60 + i % 50));
+            competition.addParticipant(lifter);
+        }
+        for (Participant p : competition.getParticipants()) {
+            p.weighIn(60 + p.getStartNumber() % 50, 50 + p.getStartNumber() % 40, 70 + p.getStartNumber() % 50);
+        }
+        if (finishWeighIn) {
+            competition.finishWeighIn();
+            for (Participant p : competition.getParticipants()) {
+                p.addPassedLift();
+            }
+        }
+        return competitionRepository.save(competition).getId();
+    }
+
+    /**
+     * Counts the statements executed to load a competition and read it as a
+     * page would, within one transaction as in a request.
+     */
+    private long countStatements(Function<Long, Competition> finder, Function<Competition, Object> page) {
+        return transaction.execute(status -> {
+            statistics.clear();
+            assertNotNull(page.apply(finder.apply(competitionId)));
+            return statistics.getPrepareStatementCount();
+        });
+    }
+
+    @Test
+    public void testParticipantsPage() throws Exception {
+        long statements = countStatements(competitionRepository::findWithParticipantsById, c -> {
+            StringBuilder sb = new StringBuilder();
+            for (Participant p : c.getParticipants()) {
+                sb.append(p.getFullName()).append(p.getLifter().getClub().getName());
+            }
+            return sb;
+        });
+        assertTrue("participants page used " + statements + " statements", statements <= MAX_STATEMENTS);
+    }
+
+    @Test
+    public void testSignUpPageSlices() throws Exception {
+        long clubId = transaction.execute(status -> competitionRepository.findOne(competitionId)
+                .getParticipants().get(0).getLifter().getClub().getId());
+        int participants = 0;
+        long after = 0;
+        Slice<Participant> slice;
+        do {
+            long afterId = after;
+            statistics.clear();
+            slice = transaction.execute(status -> {
+                Slice<Participant> s = participantRepository.findByCompetitionIdAndIdGreaterThanOrderByIdAsc(
+                        competitionId, afterId, new PageRequest(0, SLICE_SIZE));
+                for (Participant p : s) {
+                    p.getLifter().getClub().getName();
+                }
+                participantRepository.countByCompetitionId(competitionId);
+                lifterRepository.countByClub();
+                lifterRepository.findByClubIdAndIdGreaterThanOrderByIdAsc(clubId, 0, new PageRequest(0, SLICE_SIZE));
+                return s;
+            });
+            long statements = statistics.getPrepareStatementCount();
+            assertTrue("sign-up page used " + statements + " statements", statements <= MAX_STATEMENTS);
+            participants += slice.getNumberOfElements();
+            if (slice.hasContent()) {
+                assertTrue(slice.getContent().get(0).getId() > after);
+                after = slice.getContent().get(slice.getNumberOfElements() - 1).getId();
+            }
+        } while (slice.hasNext());
+        assertEquals(PARTICIPANTS, participants);
+    }
+
+    @Test
+    public void testLiftersCountedByClub() throws Exception {
+        long clubId = transaction.execute(status -> competitionRepository.findOne(competitionId)
+                .getParticipants().get(0).getLifter().getClub().getId());
+        long count = 0;
+        for (Object[] row : lifterRepository.countByClub()) {
+            if (row[0].equals(clubId)) {
+                count = (Long) row[1];
+            }
+        }
+        assertEquals(PARTICIPANTS / 10, count);
+    }
+
+    @Test
+    public void testWeighInPage() throws Exception {
+        long statements = countStatements(competitionRepository::findWithParticipantsById, c -> {
+            int weighedIn = 0;
+            for (Participant p : c.getParticipants()) {
+                weighedIn += p.isWeighedIn() ? 1 : 0;
+                p.getLifter().getDateOfBirth();
+            }
+            return weighedIn;
+        });
+        assertTrue("weigh-in page used " + statements + " statements", statements <= MAX_STATEMENTS);
+    }
+
+    @Test
+    public void testDashboardPage() throws Exception {
+        long statements = countStatements(competitionRepository::findWithCompetingGroupsById,
+                c -> c.getCurrentCompetingGroup().get().getParticipants());
+        assertTrue("dashboard page used " + statements + " statements", statements <= MAX_STATEMENTS);
+    }
+
+    @Test
+    public void testResultsPage() throws Exception {
+        long statements = countStatements(competitionRepository::findWithRankingGroupsById,
+                Leaderboard::new);
+        assertTrue("results page used " + statements + " statements", statements <= MAX_STATEMENTS);
+    }
+
+    @Test
+    public void testFinishWeighInBatched() throws Exception {
+        long id = transaction.execute(status -> createCompetition(LARGE_PARTICIPANTS, false));
+        long statements = transaction.execute(status -> {
+            Competition competition = competitionRepository.findWithParticipantsById(id);
+            statistics.clear();
+            competition.finishWeighIn();
+            competitionRepository.save(competition);
+            status.flush();
+            return statistics.getPrepareStatementCount();
+        });
+        assertTrue("allocating groups used " + statements + " statements",
+                statements <= MAX_ALLOCATION_STATEMENTS);
+        int grouped = transaction.execute(status -> {
+            int count = 0;
+            for (Group g : competitionRepository.findWithCompetingGroupsById(id).getCompetingGroups()) {
+                count += g.getParticipants().size();
+            }
+            return count;
+        });
+        assertEquals(LARGE_PARTICIPANTS, grouped);
+    }
+
+}
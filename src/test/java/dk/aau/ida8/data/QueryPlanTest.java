@@ -0,0 +1,125 @@
+package dk.aau.ida8.data;
+
+import dk.aau.ida8.Application;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the lookups made by the repositories are answered from an
+ * index, according to the query plans of the embedded database.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class QueryPlanTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    private void assertIndexed(String index, String query) {
+        String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+        assertTrue("expected " + index + " in plan:\n" + plan,
+                plan.toUpperCase().contains("PUBLIC." + index.toUpperCase() + ":"));
+    }
+
+    @Test
+    public void testClubByName() throws Exception {
+        assertIndexed("club_name_idx", "select * from club where name = 'AK Jyden'");
+    }
+
+    @Test
+    public void testClubByAddress() throws Exception {
+        assertIndexed("club_address_idx", "select * from club where address_id = 1");
+    }
+
+    @Test
+    public void testLiftersByClub() throws Exception {
+        assertIndexed("lifter_club_idx", "select * from lifter where club_id = 1 and id > 0 order by id");
+    }
+
+    @Test
+    public void testCompetitionsByDate() throws Exception {
+        assertIndexed("competition_date_idx",
+                "select * from competition where competition_date < current_timestamp() " +
+                "order by competition_date desc");
+    }
+
+    @Test
+    public void testCompetitionsByHost() throws Exception {
+        assertIndexed("competition_host_idx", "select * from competition where host_id = 1");
+    }
+
+    @Test
+    public void testCompetitionsByLocation() throws Exception {
+        assertIndexed("competition_location_idx", "select * from competition where location_id = 1");
+    }
+
+    @Test
+    public void testParticipantsByCompetition() throws Exception {
+        assertIndexed("participant_competition_idx",
+                "select * from participant where competition_id = 1 and id > 0 order by id");
+    }
+
+    @Test
+    public void testParticipantsByLifter() throws Exception {
+        assertIndexed("participant_lifter_idx", "select * from participant where lifter_id = 1");
+    }
+
+    @Test
+    public void testLiftsByParticipant() throws Exception {
+        assertIndexed("lift_participant_idx", "select * from lift where participant_id = 1");
+    }
+
+    @Test
+    public void testGroupsByCompetition() throws Exception {
+        assertIndexed("competition_group_competition_idx",
+                "select * from competition_group where competition_id = 1");
+    }
+
+    @Test
+    public void testGroupParticipantsByGroup() throws Exception {
+        assertIndexed("competition_group_participants_group_idx",
+                "select * from competition_group_participants where competition_group_id = 1");
+    }
+
+    @Test
+    public void testGroupParticipantsByParticipant() throws Exception {
+        assertIndexed("competition_group_participants_participant_idx",
+                "select * from competition_group_participants where participants_id = 1");
+    }
+
+    @Test
+    public void testEventsByParticipant() throws Exception {
+        assertIndexed("participant_event_participant_idx",
+                "select * from participant_event where participant_id = 1 and sequence > 10 order by sequence");
+    }
+
+    @Test
+    public void testEventsByCompetition() throws Exception {
+        assertIndexed("participant_event_competition_idx",
+                "select * from participant_event where competition_id = 1 and sequence = 10");
+    }
+
+    @Test
+    public void testSnapshotsByParticipant() throws Exception {
+        assertIndexed("participant_snapshot_participant_idx",
+                "select * from participant_snapshot where participant_id = 1 and sequence < 10 " +
+                "order by sequence desc");
+    }
+
+}
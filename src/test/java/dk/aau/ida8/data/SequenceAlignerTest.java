@@ -0,0 +1,60 @@
+package dk.aau.ida8.data;
+
+import dk.aau.ida8.Application;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class SequenceAlignerTest {
+
+    @Autowired
+    private SequenceAligner sequenceAligner;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private long id;
+
+    @Before
+    public void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // An address issued by an earlier generator, well ahead of the
+        // address sequence.
+        id = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from address", Long.class) + 100000;
+        jdbcTemplate.update("insert into address (id, street) values (?, 'Nygade')", id);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcTemplate.update("delete from address where id = ?", id);
+    }
+
+    @Test
+    public void testAlignRestartsSequenceBehindTable() throws Exception {
+        sequenceAligner.align();
+        long next = jdbcTemplate.queryForObject("select nextval('address_seq')", Long.class);
+        assertTrue(next >= id + PooledSequenceGenerator.INCREMENT_SIZE);
+    }
+
+    @Test
+    public void testAlignLeavesSequenceAhead() throws Exception {
+        sequenceAligner.align();
+        long restarted = jdbcTemplate.queryForObject("select nextval('address_seq')", Long.class);
+        sequenceAligner.align();
+        long next = jdbcTemplate.queryForObject("select nextval('address_seq')", Long.class);
+        // align() itself draws one value from a sequence it leaves alone.
+        assertEquals(restarted + 2 * PooledSequenceGenerator.INCREMENT_SIZE, next);
+    }
+
+}
@@ -0,0 +1,103 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.ParticipantEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CommandJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.getRoot().toPath();
+    }
+
+    private static ParticipantEvent recorded(ParticipantEvent event, long sequence) {
+        event.setSequence(3, sequence);
+        return event;
+    }
+
+    @Test
+    public void testAppendAndReopen() throws Exception {
+        List<ParticipantEvent> events = Arrays.asList(
+                ParticipantEvent.liftRegistered(4, Lift.LiftOutcome.PASS),
+                ParticipantEvent.weightIncreased(4, 85),
+                ParticipantEvent.weightCorrected(5, 70),
+                ParticipantEvent.weightReverted(5),
+                ParticipantEvent.liftCorrected(6, 2, 90),
+                ParticipantEvent.eventUndone(4, 2));
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            assertTrue(journal.getEntries().isEmpty());
+            for (int i = 0; i < events.size(); i++) {
+                journal.append(recorded(events.get(i), i + 1));
+            }
+        }
+
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            List<ParticipantEvent> entries = journal.getEntries();
+            assertEquals(events.size(), entries.size());
+            for (int i = 0; i < events.size(); i++) {
+                assertEquals(i + 1, entries.get(i).getSequence());
+                assertEquals(events.get(i).encode(), entries.get(i).encode());
+            }
+        }
+        assertEquals(Arrays.asList(3L), CommandJournal.findCompetitionIds(directory));
+    }
+
+    @Test
+    public void testIncompleteRecordDiscarded() throws Exception {
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            journal.append(recorded(ParticipantEvent.weightIncreased(4, 85), 1));
+        }
+        Path path = directory.resolve("competition-3.journal");
+        Files.write(path, "LIFT_REGISTERED 3 4 2 PA".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            assertEquals(1, journal.getEntries().size());
+            journal.append(recorded(ParticipantEvent.liftRegistered(4, Lift.LiftOutcome.FAIL), 2));
+        }
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            assertEquals(2, journal.getEntries().size());
+            assertEquals(2, journal.getEntries().get(1).getSequence());
+        }
+    }
+
+    @Test
+    public void testCorruptRecordDiscarded() throws Exception {
+        Path path = directory.resolve("competition-3.journal");
+        Files.write(path, "WEIGHT_INCREASED 3 4 1 - 85 0 0 2016-05-01T10:00|0\n".getBytes(StandardCharsets.UTF_8));
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            assertTrue(journal.getEntries().isEmpty());
+        }
+    }
+
+    @Test
+    public void testTruncateAndDelete() throws Exception {
+        try (CommandJournal journal = CommandJournal.open(directory, 3)) {
+            journal.append(recorded(ParticipantEvent.weightIncreased(4, 85), 1));
+            journal.truncate();
+        }
+        CommandJournal journal = CommandJournal.open(directory, 3);
+        assertTrue(journal.getEntries().isEmpty());
+        journal.delete();
+        assertFalse(CommandJournal.exists(directory, 3));
+    }
+
+}
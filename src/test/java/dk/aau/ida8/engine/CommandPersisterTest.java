@@ -0,0 +1,168 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.data.AddressRepository;
+import dk.aau.ida8.data.ClubRepository;
+import dk.aau.ida8.data.CompetitionRepository;
+import dk.aau.ida8.data.LifterRepository;
+import dk.aau.ida8.data.ParticipantRepository;
+import dk.aau.ida8.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class CommandPersisterTest {
+
+    @Autowired
+    private CommandPersister persister;
+    @Autowired
+    private CompetitionRepository competitionRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private LifterRepository lifterRepository;
+    @Autowired
+    private ClubRepository clubRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final int EVENTS = 6;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private long competitionId;
+    private long participantId;
+
+    @Before
+    public void setUp() throws Exception {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        competitionId = transaction.execute(status -> {
+            Address address = addressRepository.save(new Address("", "Østerbro 33", "Aalborg", "9000"));
+            Club club = clubRepository.save(new Club("AK Persister", address));
+            Competition competition = new Competition("Persister competition", club, address,
+                    Competition.CompetitionType.SINCLAIR, new Date(), new Date(), 1);
+            competition.addParticipant(lifterRepository.save(new Lifter("Lifter", "Persisted", club,
+                    Lifter.Gender.MALE, new GregorianCalendar(1990, 1, 1).getTime(), 80)));
+            return competitionRepository.save(competition).getId();
+        });
+        participantId = transaction.execute(status ->
+                competitionRepository.findOne(competitionId).getParticipants().get(0).getId());
+    }
+
+    private ParticipantEvent journalled(ParticipantEvent event, long sequence) {
+        event.setSequence(competitionId, sequence);
+        return event;
+    }
+
+    private List<CommandPersister.DeadLetter> deadLetters() {
+        List<CommandPersister.DeadLetter> deadLetters = new ArrayList<>();
+        for (CommandPersister.DeadLetter d : persister.getDeadLetters()) {
+            if (d.getEvent().getCompetitionId() == competitionId) {
+                deadLetters.add(d);
+            }
+        }
+        return deadLetters;
+    }
+
+    @Test
+    public void testFailingEventDeadLettered() throws Exception {
+        long sequence = competitionRepository.findOne(competitionId).getJournalSequence();
+        int weight = participantRepository.findOne(participantId).getCurrentWeight();
+        List<ParticipantEvent> events = Arrays.asList(
+                journalled(ParticipantEvent.weightIncreased(participantId, weight + 5), sequence + 1),
+                journalled(ParticipantEvent.liftCorrected(participantId, 5, weight), sequence + 2),
+                journalled(ParticipantEvent.weightIncreased(participantId, weight + 10), sequence + 3));
+
+        assertEquals(2, persister.applyAll(competitionId, events));
+
+        List<CommandPersister.DeadLetter> deadLetters = deadLetters();
+        assertEquals(1, deadLetters.size());
+        assertEquals(sequence + 2, deadLetters.get(0).getEvent().getSequence());
+        assertTrue(persister.hasDeadLetters(competitionId));
+        assertEquals(sequence + 3, competitionRepository.findOne(competitionId).getJournalSequence());
+        assertEquals(weight + 10, participantRepository.findOne(participantId).getCurrentWeight());
+        assertEquals(2, persister.findEvents(participantId).size());
+
+        assertEquals(0, persister.applyAll(competitionId, events));
+        assertEquals(1, deadLetters().size());
+        assertEquals(2, persister.findEvents(participantId).size());
+    }
+
+    @Test
+    public void testNoDeadLettersWhereEveryEventWritten() throws Exception {
+        long sequence = competitionRepository.findOne(competitionId).getJournalSequence();
+        int weight = participantRepository.findOne(participantId).getCurrentWeight();
+        List<ParticipantEvent> events = Arrays.asList(
+                journalled(ParticipantEvent.weightIncreased(participantId, weight + 5), sequence + 1));
+
+        assertEquals(1, persister.applyAll(competitionId, events));
+        assertFalse(persister.hasDeadLetters(competitionId));
+        assertEquals(sequence + 1, competitionRepository.findOne(competitionId).getJournalSequence());
+    }
+
+    @Test
+    public void testRunningOnceWeighInComplete() throws Exception {
+        assertFalse(persister.isRunning(competitionId));
+
+        transaction.execute(status -> {
+            Competition competition = competitionRepository.findOne(competitionId);
+            competition.getParticipants().get(0).weighIn(80, 50, 60);
+            competition.finishWeighIn();
+            return competitionRepository.save(competition);
+        });
+        assertTrue(persister.isRunning(competitionId));
+    }
+
+    @Test
+    public void testBatchWrittenTogether() throws Exception {
+        transaction.execute(status -> {
+            Competition competition = competitionRepository.findOne(competitionId);
+            competition.getParticipants().get(0).weighIn(80, 50, 60);
+            competition.finishWeighIn();
+            return competitionRepository.save(competition);
+        });
+        long sequence = competitionRepository.findOne(competitionId).getJournalSequence();
+        List<ParticipantEvent> events = new ArrayList<>();
+        for (int i = 1; i <= EVENTS; i++) {
+            events.add(journalled(ParticipantEvent.liftRegistered(participantId, Lift.LiftOutcome.PASS),
+                    sequence + i));
+        }
+
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            assertEquals(EVENTS, persister.applyAll(competitionId, events));
+            // The groups of the competition are loaded once for the batch,
+            // not once for each event
+            assertTrue(statistics.getCollectionFetchCount() < EVENTS);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertEquals(EVENTS, persister.findEvents(participantId).size());
+    }
+
+}
@@ -0,0 +1,247 @@
+package dk.aau.ida8.engine;
+
+import dk.aau.ida8.model.*;
+import dk.aau.ida8.service.ScoreboardService;
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class CompetitionEngineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Participant> participants;
+    private CommandPersister persister;
+    private ScoreboardService scoreboardService;
+    private AtomicBoolean retired;
+    private CompetitionEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        persister = mock(CommandPersister.class);
+        scoreboardService = mock(ScoreboardService.class);
+        retired = new AtomicBoolean(false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (engine != null) {
+            engine.shutdown();
+            engine.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private CompetitionEngine createEngine(boolean complete) {
+        participants = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Participant p = mock(Participant.class);
+            when(p.getId()).thenReturn((long) i + 1);
+            when(p.getFullName()).thenReturn("Lifter " + i);
+            participants.add(p);
+        }
+        Group group = mock(Group.class);
+        when(group.getParticipants()).thenReturn(participants);
+        Competition competition = mock(Competition.class);
+        when(competition.getId()).thenReturn(1L);
+        when(competition.getParticipants()).thenReturn(participants);
+        when(competition.getCurrentCompetingGroup())
+                .thenReturn(complete ? Optional.empty() : Optional.of(group));
+        try {
+            CommandJournal journal = CommandJournal.open(folder.getRoot().toPath(), 1);
+            engine = new CompetitionEngine(competition, Collections.emptyList(), journal, persister,
+                    scoreboardService, e -> retired.set(true));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return engine;
+    }
+
+    @Test
+    public void testExecuteAppliesAndPersists() throws Exception {
+        createEngine(false);
+        Leaderboard before = engine.getLeaderboard();
+        ParticipantCommand<Void> command = ParticipantCommand.increaseWeight(3, 80);
+
+        engine.execute(command);
+
+        verify(participants.get(2)).increaseWeight(80);
+        verify(persister, timeout(1000)).applyAll(eq(1L), anyListOf(ParticipantEvent.class));
+        assertEquals(1, CommandJournal.open(folder.getRoot().toPath(), 1).getEntries().size());
+        verify(scoreboardService).publish(eq(before), any(Leaderboard.class), (Lift) isNull());
+        assertNotSame(before, engine.getLeaderboard());
+        assertFalse(retired.get());
+    }
+
+    @Test
+    public void testExecuteRethrowsFailedCommand() throws Exception {
+        createEngine(false);
+        doThrow(new UnsupportedOperationException()).when(participants.get(0)).increaseWeight(80);
+        Leaderboard before = engine.getLeaderboard();
+
+        try {
+            engine.execute(ParticipantCommand.increaseWeight(1, 80));
+            fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertSame(before, engine.getLeaderboard());
+        engine.shutdown();
+        engine.awaitTermination(1, TimeUnit.SECONDS);
+        verifyZeroInteractions(persister);
+    }
+
+    @Test(expected = java.security.InvalidParameterException.class)
+    public void testExecuteUnknownParticipant() throws Exception {
+        createEngine(false);
+        engine.execute(ParticipantCommand.revertWeight(99));
+    }
+
+    @Test
+    public void testUndo() throws Exception {
+        createEngine(false);
+        engine.execute(ParticipantCommand.increaseWeight(3, 80));
+
+        engine.execute(ParticipantCommand.undo(3, 1));
+
+        verify(participants.get(2)).undo(any(ParticipantEvent.class), (ParticipantSnapshot) isNull(),
+                anyListOf(ParticipantEvent.class));
+        List<ParticipantEvent> events = engine.getEvents(3);
+        assertEquals(2, events.size());
+        assertTrue(events.get(1).isUndo());
+        assertEquals(1, events.get(1).getTargetSequence());
+    }
+
+    @Test(expected = java.security.InvalidParameterException.class)
+    public void testUndoUnknownEvent() throws Exception {
+        createEngine(false);
+        engine.execute(ParticipantCommand.increaseWeight(3, 80));
+        engine.execute(ParticipantCommand.undo(4, 1));
+    }
+
+    @Test
+    public void testRetiresWhenComplete() throws Exception {
+        createEngine(true);
+        ParticipantCommand<Void> command = ParticipantCommand.correctWeight(1, 60);
+
+        engine.execute(command);
+        assertTrue(engine.awaitTermination(1, TimeUnit.SECONDS));
+        verify(persister).applyAll(eq(1L), anyListOf(ParticipantEvent.class));
+        assertTrue(retired.get());
+        assertFalse(CommandJournal.exists(folder.getRoot().toPath(), 1));
+
+        try {
+            engine.execute(ParticipantCommand.correctWeight(1, 65));
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRefreshPublishesNewLeaderboard() throws Exception {
+        createEngine(false);
+        Leaderboard before = engine.getLeaderboard();
+
+        engine.refresh();
+        assertNotSame(before, engine.getLeaderboard());
+        verify(scoreboardService).publish(before, engine.getLeaderboard(), null);
+    }
+
+    @Test
+    public void testSubscribesOnEngineThread() throws Exception {
+        createEngine(false);
+        SseEmitter emitter = new SseEmitter();
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(scoreboardService.subscribe(any(Leaderboard.class))).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return emitter;
+        });
+
+        assertSame(emitter, engine.subscribe());
+        assertEquals("competition-1-engine", thread.get());
+        verify(scoreboardService).subscribe(engine.getLeaderboard());
+    }
+
+    @Test
+    public void testRollsBackWhereJournalFails() throws Exception {
+        Competition competition = mock(Competition.class);
+        when(competition.getId()).thenReturn(1L);
+        when(competition.getCurrentCompetingGroup()).thenReturn(Optional.empty());
+        when(competition.getCurrentRankingGroup()).thenReturn(Optional.empty());
+        Participant p = new Participant(mock(Lifter.class), competition);
+        p.weighIn(80, 50, 60);
+        when(competition.getParticipants()).thenReturn(Collections.singletonList(p));
+        CommandJournal journal = mock(CommandJournal.class);
+        doThrow(new IOException("disk full")).when(journal).append(any(ParticipantEvent.class));
+        engine = new CompetitionEngine(competition, Collections.emptyList(), journal, persister,
+                scoreboardService, e -> retired.set(true));
+
+        try {
+            engine.execute(ParticipantCommand.registerLift(p.getId(), Lift.LiftOutcome.PASS));
+            fail("expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            // expected
+        }
+        assertEquals(0, p.getLiftsCount());
+        assertEquals(50, p.getCurrentWeight());
+        assertTrue(engine.awaitTermination(1, TimeUnit.SECONDS));
+        verify(persister, never()).applyAll(anyLong(), anyListOf(ParticipantEvent.class));
+        verifyZeroInteractions(scoreboardService);
+    }
+
+    @Test
+    public void testGetParticipantReturnsCopyOfLiveState() throws Exception {
+        Competition competition = mock(Competition.class);
+        when(competition.getId()).thenReturn(1L);
+        when(competition.getCurrentRankingGroup()).thenReturn(Optional.empty());
+        when(competition.getSinclairCalculator()).thenReturn(SinclairCoefficientRegistry.getLatestCalculator());
+        Participant p = new Participant(new Lifter("Anna", "Lifter", null,
+                Lifter.Gender.FEMALE, new Date(), 60), competition);
+        p.weighIn(80, 50, 60);
+        when(competition.getParticipants()).thenReturn(Collections.singletonList(p));
+        // The competition remains running
+        Group group = mock(Group.class);
+        when(group.getParticipants()).thenReturn(Collections.singletonList(p));
+        when(competition.getCurrentCompetingGroup()).thenReturn(Optional.of(group));
+        engine = new CompetitionEngine(competition, Collections.emptyList(),
+                CommandJournal.open(folder.getRoot().toPath(), 1), persister,
+                scoreboardService, e -> retired.set(true));
+        engine.execute(ParticipantCommand.registerLift(p.getId(), Lift.LiftOutcome.PASS));
+        engine.execute(ParticipantCommand.increaseWeight(p.getId(), 55));
+
+        Participant copy = engine.getParticipant(p.getId());
+        assertNotSame(p, copy);
+        assertEquals(1, copy.getLiftsCount());
+        assertEquals(50, copy.getLifts().get(0).getWeight());
+        assertEquals(55, copy.getCurrentWeight());
+        assertEquals(1, copy.getWeightChanges());
+
+        copy.getLifts().get(0).setWeight(40);
+        assertEquals(50, p.getLifts().get(0).getWeight());
+    }
+
+}
@@ -0,0 +1,67 @@
+package dk.aau.ida8.metrics;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.data.CompetitionRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that repository calls and view rendering are timed, and that timers
+ * are exported by the metrics endpoint.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class MetricsTest {
+
+    @Autowired
+    private CompetitionRepository competitionRepository;
+    @Autowired
+    private MetricsEndpoint metricsEndpoint;
+
+    @Test
+    public void testRepositoryCallsTimed() throws Exception {
+        long inherited = Metrics.timer("repository.CompetitionRepository.count").getCount();
+        long declared = Metrics.timer("repository.CompetitionRepository.findByCompetitionDateGreaterThanEqualOrderByCompetitionDateAsc").getCount();
+        competitionRepository.count();
+        competitionRepository.findByCompetitionDateGreaterThanEqualOrderByCompetitionDateAsc(new Date());
+        assertEquals(inherited + 1, Metrics.timer("repository.CompetitionRepository.count").getCount());
+        assertEquals(declared + 1, Metrics.timer("repository.CompetitionRepository.findByCompetitionDateGreaterThanEqualOrderByCompetitionDateAsc").getCount());
+    }
+
+    @Test
+    public void testTimersExported() throws Exception {
+        competitionRepository.count();
+        Map<String, Object> metrics = metricsEndpoint.invoke();
+        assertTrue(metrics.containsKey("timer.repository.CompetitionRepository.count.count"));
+        assertTrue(metrics.containsKey("timer.repository.CompetitionRepository.count.snapshot.99thPercentile"));
+    }
+
+    @Test
+    public void testRenderTimed() throws Exception {
+        RenderTimingInterceptor interceptor = new RenderTimingInterceptor();
+        long rendered = Metrics.timer("render.competition-dashboard").getCount();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.postHandle(request, response, null, new ModelAndView("competition-dashboard"));
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(rendered + 1, Metrics.timer("render.competition-dashboard").getCount());
+
+        MockHttpServletRequest redirect = new MockHttpServletRequest();
+        interceptor.postHandle(redirect, response, null, new ModelAndView("redirect:/competition/1/results"));
+        interceptor.afterCompletion(redirect, response, null, null);
+        assertFalse(Metrics.getRegistry().getTimers().containsKey("timer.render.redirect:/competition/1/results"));
+    }
+
+}
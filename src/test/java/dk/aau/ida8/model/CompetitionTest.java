@@ -3,7 +3,11 @@ package dk.aau.ida8.model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
 import static dk.aau.ida8.model.Lifter.Gender.FEMALE;
 import static org.junit.Assert.*;
@@ -88,6 +92,74 @@ public class CompetitionTest {
         assertEquals(firstGroup, competition.getCurrentCompetingGroup().get());
     }
 
+    @Test
+    public void currentCompetingGroupAdvances() throws Exception {
+        competition.finishWeighIn();
+        List<Group> groups = competition.getCompetingGroups();
+        assertTrue(groups.size() > 1);
+        for (Group g : groups.subList(0, groups.size() - 1)) {
+            assertEquals(g, competition.getCurrentCompetingGroup().get());
+            for (Participant p : g.getUnsortedParticipants()) {
+                when(p.allLiftsComplete()).thenReturn(true);
+                competition.participantChanged(p);
+            }
+        }
+        Group lastGroup = groups.get(groups.size() - 1);
+        assertEquals(lastGroup, competition.getCurrentCompetingGroup().get());
+        assertFalse(competition.isCompetitionComplete());
+
+        for (Participant p : lastGroup.getUnsortedParticipants()) {
+            when(p.allLiftsComplete()).thenReturn(true);
+            competition.participantChanged(p);
+        }
+        assertFalse(competition.getCurrentCompetingGroup().isPresent());
+        assertTrue(competition.isCompetitionComplete());
+    }
+
+    @Test
+    public void undoingFinalLiftReopensGroup() throws Exception {
+        Competition c = new Competition("Undo Competition", mock(Club.class), mock(Address.class),
+                Competition.CompetitionType.SINCLAIR, mock(Date.class), mock(Date.class), 2);
+        Participant woman = new Participant(new Lifter("Anna", "A", null, FEMALE, null, 60), c);
+        Participant man = new Participant(new Lifter("Bent", "B", null, Lifter.Gender.MALE, null, 80), c);
+        c.addParticipant(woman);
+        c.addParticipant(man);
+        woman.weighIn(60, 50, 60);
+        man.weighIn(80, 70, 90);
+        c.finishWeighIn();
+        Group first = c.getCurrentCompetingGroup().get();
+        Group second = c.getCompetingGroups().get(1);
+        Participant p1 = first.getUnsortedParticipants().get(0);
+        Participant p2 = second.getUnsortedParticipants().get(0);
+
+        List<ParticipantEvent> events = registerLifts(p1, 6);
+        assertEquals(second, c.getCurrentCompetingGroup().get());
+
+        p1.undo(events.get(5), null, events);
+        assertEquals(first, c.getCurrentCompetingGroup().get());
+        assertTrue(c.getCurrentRankingGroup().get().containsParticipant(p1));
+        assertFalse(c.isCompetitionComplete());
+
+        p1.addPassedLift();
+        events = registerLifts(p2, 6);
+        assertTrue(c.isCompetitionComplete());
+
+        p2.undo(events.get(5), null, events);
+        assertFalse(c.isCompetitionComplete());
+        assertEquals(second, c.getCurrentCompetingGroup().get());
+    }
+
+    private static List<ParticipantEvent> registerLifts(Participant p, int count) {
+        List<ParticipantEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ParticipantEvent event = ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS);
+            event.applyTo(p);
+            event.setSequence(1, i + 1);
+            events.add(event);
+        }
+        return events;
+    }
+
     @Test
     public void getCurrentRankingGroup() throws Exception {
         competition.finishWeighIn();
@@ -96,4 +168,42 @@ public class CompetitionTest {
         assertEquals(firstGroup, competition.getCurrentRankingGroup().get());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void sinclairCycle() throws Exception {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2015, Calendar.JUNE, 1);
+        competition.setCompetitionDate(cal.getTime());
+        assertEquals(Integer.valueOf(2015), competition.getSinclairCycle());
+        assertEquals(2013, competition.getSinclairCalculator().getCoefficients().getCycle());
+
+        competition.setSinclairCycle(2017);
+        assertEquals(Integer.valueOf(2017), competition.getSinclairCycle());
+        assertEquals(2017, competition.getSinclairCalculator().getCoefficients().getCycle());
+    }
+
+    @Test
+    public void selectParticipant() throws Exception {
+        Lifter lifter = mock(Lifter.class);
+        when(lifter.getId()).thenReturn(42L);
+        Participant p = mock(Participant.class);
+        when(p.getLifter()).thenReturn(lifter);
+        when(p.getStartNumber()).thenReturn(7);
+        competition.addParticipant(p);
+
+        assertTrue(competition.isParticipating(lifter));
+        assertSame(p, competition.selectParticipantByLifter(lifter));
+        assertSame(p, competition.selectParticipantByStartNumber(7));
+
+        competition.removeParticipant(lifter);
+        assertFalse(competition.isParticipating(lifter));
+        assertFalse(competition.getParticipants().contains(p));
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void selectParticipantByNonParticipant() throws Exception {
+        Lifter lifter = mock(Lifter.class);
+        when(lifter.getId()).thenReturn(42L);
+        competition.selectParticipantByLifter(lifter);
+    }
+
+}
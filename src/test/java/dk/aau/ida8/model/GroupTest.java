@@ -1,11 +1,13 @@
 package dk.aau.ida8.model;
 
+import dk.aau.ida8.util.SinclairCoefficientRegistry;
 import dk.aau.ida8.util.groupcomparators.CompetingComparator;
 import dk.aau.ida8.util.groupcomparators.SinclairRankingComparator;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -128,6 +130,55 @@ public class GroupTest {
         assertEquals(femaleParticipants, h.getParticipants());
     }
 
+    @Test
+    public void getRank() throws Exception {
+        List<Participant> ps = new ArrayList<>();
+        List<Integer> totals = Arrays.asList(150, 200, 150, 100);
+        for (Integer total : totals) {
+            Participant p = mock(Participant.class);
+            when(p.getTotalScore()).thenReturn(total);
+            ps.add(p);
+        }
+        Group g = new Group(totalWeightCompetition, new ArrayList<>(ps), Group.ComparatorType.TOTAL_WEIGHT_RANKING);
+        assertEquals(1, g.getRank(ps.get(1)));
+        assertEquals(2, g.getRank(ps.get(0)));
+        assertEquals(2, g.getRank(ps.get(2)));
+        assertEquals(4, g.getRank(ps.get(3)));
+
+        // Rankings are only recalculated once notified of a change
+        when(ps.get(3).getTotalScore()).thenReturn(250);
+        assertEquals(4, g.getRank(ps.get(3)));
+        g.participantChanged(ps.get(3));
+        assertEquals(1, g.getRank(ps.get(3)));
+        assertEquals(2, g.getRank(ps.get(1)));
+    }
+
+    @Test
+    public void getRankAfterCoefficientsReloaded() throws Exception {
+        List<Participant> ps = new ArrayList<>();
+        List<Double> scores = Arrays.asList(300.0, 250.0);
+        for (Double score : scores) {
+            Participant p = mock(Participant.class);
+            when(p.getSinclairScore()).thenReturn(score);
+            ps.add(p);
+        }
+        Group g = new Group(sinclairCompetition, new ArrayList<>(ps), Group.ComparatorType.SINCLAIR_RANKING);
+        assertEquals(1, g.getRank(ps.get(0)));
+
+        // Reloading the coefficients changes every Sinclair score without
+        // notifying the group of a change to any participant
+        when(ps.get(1).getSinclairScore()).thenReturn(350.0);
+        SinclairCoefficientRegistry.loadDefault();
+        assertEquals(1, g.getRank(ps.get(1)));
+        assertEquals(2, g.getRank(ps.get(0)));
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void getRankOfNonMember() throws Exception {
+        Group g = new Group(totalWeightCompetition, new ArrayList<>(maleParticipants), Group.ComparatorType.TOTAL_WEIGHT_RANKING);
+        g.getRank(femaleParticipants.get(0));
+    }
+
     @Test
     public void containsParticipant() throws Exception {
         Group g = new Group(totalWeightCompetition, maleParticipants, Group.ComparatorType.COMPETING);
@@ -0,0 +1,94 @@
+package dk.aau.ida8.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LeaderboardTest {
+
+    private Competition competition;
+
+    @Before
+    public void setUp() throws Exception {
+        competition = new Competition("Test Competition",
+                mock(Club.class),
+                mock(Address.class),
+                Competition.CompetitionType.SINCLAIR,
+                mock(Date.class),
+                mock(Date.class),
+                50
+        );
+        for (int i = 0; i < 10; i++) {
+            Participant p = mock(Participant.class);
+            when(p.getGender()).thenReturn(i % 2 == 0 ? Lifter.Gender.MALE : Lifter.Gender.FEMALE);
+            when(p.getStartingSnatchWeight()).thenReturn(50 + i * 5);
+            when(p.getFullName()).thenReturn("Lifter " + i);
+            when(p.getStartNumber()).thenReturn(i + 1);
+            when(p.isWeighedIn()).thenReturn(true);
+            competition.addParticipant(p);
+        }
+        competition.finishWeighIn();
+    }
+
+    @Test
+    public void testCompetingRows() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(competition);
+        List<Participant> ps = competition.getCurrentCompetingGroup().get().getParticipants();
+        List<Leaderboard.Row> rows = leaderboard.getCompetingRows();
+        assertEquals(ps.size(), rows.size());
+        for (int i = 0; i < ps.size(); i++) {
+            assertEquals(ps.get(i).getFullName(), rows.get(i).getFullName());
+            assertEquals(competition.getRank(ps.get(i)), rows.get(i).getRank());
+        }
+    }
+
+    @Test
+    public void testRankingSections() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(competition);
+        List<Group> groups = competition.getRankingGroups();
+        assertEquals(groups.size(), leaderboard.getRankingSections().size());
+        for (int i = 0; i < groups.size(); i++) {
+            assertEquals(groups.get(i).getParticipantsCount(),
+                    leaderboard.getRankingSections().get(i).getRows().size());
+        }
+    }
+
+    @Test
+    public void testCells() throws Exception {
+        Participant p = competition.getParticipants().get(0);
+        Lift passed = mock(Lift.class);
+        when(passed.getWeight()).thenReturn(60);
+        when(passed.getOutcome()).thenReturn(Lift.LiftOutcome.PASS);
+        Lift abstained = mock(Lift.class);
+        when(abstained.isAbstained()).thenReturn(true);
+        when(abstained.getOutcome()).thenReturn(Lift.LiftOutcome.ABSTAIN);
+        when(p.getSnatchLifts()).thenReturn(Arrays.asList(passed, abstained));
+        when(p.getCleanAndJerkLifts()).thenReturn(Collections.emptyList());
+
+        Leaderboard leaderboard = new Leaderboard(competition);
+        Leaderboard.Row row = null;
+        for (Leaderboard.Section s : leaderboard.getRankingSections()) {
+            for (Leaderboard.Row r : s.getRows()) {
+                if (r.getStartNumber() == p.getStartNumber()) {
+                    row = r;
+                }
+            }
+        }
+        assertNotNull(row);
+        assertEquals(3, row.getSnatchCells().size());
+        assertEquals("60", row.getSnatchCells().get(0).getText());
+        assertEquals("pass-lift", row.getSnatchCells().get(0).getCssClass());
+        assertEquals("-", row.getSnatchCells().get(1).getText());
+        assertEquals("incomplete-lift", row.getSnatchCells().get(2).getCssClass());
+        assertEquals(3, row.getCleanAndJerkCells().size());
+    }
+
+}
@@ -0,0 +1,121 @@
+package dk.aau.ida8.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ParticipantEventTest {
+
+    private Participant participant;
+    private List<ParticipantEvent> events;
+
+    @Before
+    public void setUp() throws Exception {
+        Lifter lifter = mock(Lifter.class);
+        Competition competition = mock(Competition.class);
+        when(competition.allocateStartNumber()).thenReturn(1);
+        when(competition.getCurrentCompetingGroup()).thenReturn(Optional.empty());
+        when(competition.getCurrentRankingGroup()).thenReturn(Optional.empty());
+        participant = new Participant(lifter, competition);
+        participant.weighIn(86.0, 10, 30);
+        events = new ArrayList<>();
+    }
+
+    private ParticipantEvent record(ParticipantEvent event) {
+        event.applyTo(participant);
+        event.setSequence(1, events.size() + 1);
+        events.add(event);
+        return event;
+    }
+
+    @Test
+    public void testEncodeAndDecode() throws Exception {
+        ParticipantEvent event = ParticipantEvent.liftRegistered(4, Lift.LiftOutcome.FAIL);
+        event.setSequence(2, 7);
+        ParticipantEvent decoded = ParticipantEvent.decode(event.encode());
+        assertEquals(ParticipantEvent.EventType.LIFT_REGISTERED, decoded.getType());
+        assertEquals(2, decoded.getCompetitionId());
+        assertEquals(4, decoded.getParticipantId());
+        assertEquals(7, decoded.getSequence());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+        assertEquals(event.encode(), decoded.encode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalid() throws Exception {
+        ParticipantEvent.decode("WEIGHT_INCREASED 4 85");
+    }
+
+    @Test
+    public void testRebuild() throws Exception {
+        ParticipantEvent lift = record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS));
+        record(ParticipantEvent.weightIncreased(0, 15));
+        record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.FAIL));
+        record(ParticipantEvent.liftCorrected(0, 0, 12));
+
+        participant.rebuild(null, events);
+
+        assertEquals(2, participant.getLiftsCount());
+        assertEquals(12, participant.getLifts().get(0).getWeight());
+        assertEquals(lift.getTimestamp(), participant.getLifts().get(0).getTimestamp());
+        assertEquals(15, participant.getCurrentWeight());
+    }
+
+    @Test
+    public void testRebuildFromSnapshot() throws Exception {
+        record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS));
+        record(ParticipantEvent.weightIncreased(0, 15));
+        ParticipantSnapshot snapshot = new ParticipantSnapshot(participant, 2);
+        record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS));
+        record(ParticipantEvent.weightIncreased(0, 20));
+
+        participant.rebuild(snapshot, events.subList(2, events.size()));
+
+        assertEquals(2, participant.getLiftsCount());
+        assertEquals(20, participant.getCurrentWeight());
+        assertEquals(1, participant.getWeightChanges());
+    }
+
+    @Test
+    public void testUndo() throws Exception {
+        ParticipantEvent lift = record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS));
+        record(ParticipantEvent.weightIncreased(0, 15));
+
+        participant.undo(lift, null, events);
+
+        assertTrue(lift.isUndone());
+        assertEquals(0, participant.getLiftsCount());
+        assertEquals(15, participant.getCurrentWeight());
+    }
+
+    @Test
+    public void testUndoRejectedWhereLaterEventsDepend() throws Exception {
+        ParticipantEvent lift = record(ParticipantEvent.liftRegistered(0, Lift.LiftOutcome.PASS));
+        record(ParticipantEvent.liftCorrected(0, 0, 12));
+
+        try {
+            participant.undo(lift, null, events);
+            fail("expected InvalidParameterException");
+        } catch (InvalidParameterException e) {
+            // expected
+        }
+        assertFalse(lift.isUndone());
+        assertEquals(1, participant.getLiftsCount());
+        assertEquals(12, participant.getLifts().get(0).getWeight());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUndoRejectedWhereLiftsNotRecorded() throws Exception {
+        participant.addPassedLift();
+        ParticipantEvent increase = record(ParticipantEvent.weightIncreased(0, 15));
+        participant.undo(increase, null, events);
+    }
+
+}
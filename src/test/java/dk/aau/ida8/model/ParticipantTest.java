@@ -6,7 +6,6 @@ import org.junit.Test;
 import static org.mockito.Mockito.*;
 
 import java.security.InvalidParameterException;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +26,7 @@ public class ParticipantTest {
         lifter = mock(Lifter.class);
         when(lifter.getFullName()).thenReturn(lifterFullName);
         competition = mock(Competition.class);
-        when(competition.availableStartNumbers()).thenReturn(Arrays.asList(1,2,3,4,5,6,7,8,9,10));
+        when(competition.allocateStartNumber()).thenReturn(1);
         when(competition.getCurrentCompetingGroup()).thenReturn(Optional.empty());
         when(competition.getCurrentRankingGroup()).thenReturn(Optional.empty());
         participant = new Participant(lifter, competition);
@@ -97,6 +96,39 @@ public class ParticipantTest {
         assertEquals(15, participant.getBestSnatch());
     }
 
+    @Test
+    public void testLiftCounts() throws Exception {
+        assertEquals(3, participant.snatchCount());
+        assertEquals(3, participant.cleanAndJerkCount());
+        assertEquals(3, participant.getSnatchLifts().size());
+        assertTrue(participant.getSnatchLifts().stream().allMatch(Lift::isSnatch));
+        assertTrue(participant.getCleanAndJerkLifts().stream().allMatch(Lift::isCleanAndJerk));
+        assertEquals(participant.getLifts().get(0).getTimestamp(), participant.getFirstSnatchTimestamp());
+        assertEquals(participant.getLifts().get(3).getTimestamp(), participant.getFirstCleanAndJerkTimestamp());
+    }
+
+    @Test
+    public void testAggregatesFollowNewLifts() throws Exception {
+        Participant p = new Participant(lifter, competition);
+        p.weighIn(80.3, 50, 100);
+        assertEquals(0, p.getBestSnatch());
+        assertNull(p.getFirstSnatchTimestamp());
+        p.addFailedLift();
+        assertEquals(1, p.snatchCount());
+        assertEquals(0, p.getBestSnatch());
+        p.addPassedLift();
+        assertEquals(2, p.snatchCount());
+        assertEquals(50, p.getBestSnatch());
+        assertEquals(0, p.getTotalScore());
+    }
+
+    @Test
+    public void testCorrectLiftUpdatesScores() throws Exception {
+        participant.getLifts().get(3).setWeight(45);
+        assertEquals(45, participant.getBestCleanAndJerk());
+        assertEquals(60, participant.getTotalScore());
+    }
+
     /**
      * This test ensures that a seventh lift cannot be added to a participant.
      */
@@ -0,0 +1,86 @@
+package dk.aau.ida8.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScoreboardUpdateTest {
+
+    private Competition competition;
+    private List<Participant> participants;
+
+    @Before
+    public void setUp() throws Exception {
+        competition = new Competition("Test Competition",
+                mock(Club.class),
+                mock(Address.class),
+                Competition.CompetitionType.TOTAL_WEIGHT,
+                mock(Date.class),
+                mock(Date.class),
+                50
+        );
+        participants = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Participant p = mock(Participant.class);
+            when(p.getId()).thenReturn((long) i + 1);
+            when(p.getGender()).thenReturn(Lifter.Gender.MALE);
+            when(p.getWeightClass()).thenReturn(105);
+            when(p.getStartingSnatchWeight()).thenReturn(50 + i * 5);
+            when(p.getStartNumber()).thenReturn(i + 1);
+            when(p.getTotalScore()).thenReturn(100 + i);
+            when(p.isWeighedIn()).thenReturn(true);
+            competition.addParticipant(p);
+            participants.add(p);
+        }
+        competition.finishWeighIn();
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        ScoreboardUpdate update = ScoreboardUpdate.snapshot(new Leaderboard(competition));
+        assertEquals(participants.size(), update.getStandings().size());
+        assertNull(update.getLift());
+        assertNotNull(update.getNext());
+        assertFalse(update.isComplete());
+    }
+
+    @Test
+    public void testBetween() throws Exception {
+        Leaderboard before = new Leaderboard(competition);
+
+        // The participant with the highest total improves their total, so
+        // that no other participant's rank changes.
+        Participant p = participants.get(5);
+        when(p.getTotalScore()).thenReturn(110);
+        competition.participantChanged(p);
+        Lift lift = mock(Lift.class);
+        when(lift.getParticipant()).thenReturn(p);
+        when(lift.getWeight()).thenReturn(60);
+        when(lift.getOutcome()).thenReturn(Lift.LiftOutcome.PASS);
+        Leaderboard after = new Leaderboard(competition);
+
+        ScoreboardUpdate update = ScoreboardUpdate.between(before, after, lift);
+        assertEquals(6L, update.getLift().getParticipantId());
+        assertEquals(60, update.getLift().getWeight());
+        assertEquals(1, update.getStandings().size());
+        assertEquals(6L, update.getStandings().get(0).getParticipantId());
+        assertEquals(110, update.getStandings().get(0).getTotalScore());
+        assertEquals(1, update.getStandings().get(0).getRank());
+    }
+
+    @Test
+    public void testBetweenUnchanged() throws Exception {
+        Leaderboard before = new Leaderboard(competition);
+        Leaderboard after = new Leaderboard(competition);
+        ScoreboardUpdate update = ScoreboardUpdate.between(before, after, null);
+        assertTrue(update.getStandings().isEmpty());
+    }
+
+}
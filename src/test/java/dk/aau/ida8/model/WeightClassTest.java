@@ -4,6 +4,7 @@ import dk.aau.ida8.util.WeightClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -112,4 +113,40 @@ public class WeightClassTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void findWeightClassWithCompetitionCategories() throws Exception {
+        Competition competition = mock(Competition.class);
+        when(competition.getWeightCategoryLimits()).thenReturn(WeightClass.getCategories("IWF-2018"));
+        Participant p = mock(Participant.class);
+        when(p.getLifter()).thenReturn(lifters.get(6));
+        when(p.getCompetition()).thenReturn(competition);
+        // 100.5kg is in the seventh category up to 2018, and the eighth from 2018
+        assertEquals(7, WeightClass.findWeightClass(lifters.get(6)));
+        assertEquals(8, WeightClass.findWeightClass(p));
+    }
+
+    @Test
+    public void weightClassCachedUntilChanged() throws Exception {
+        Competition competition = new Competition();
+        competition.setMaxNumParticipants(1);
+        Lifter lifter = new Lifter();
+        lifter.setGender(Lifter.Gender.MALE);
+        Participant p = new Participant(lifter, competition);
+        p.weighIn(60.0, 80, 100);
+        assertEquals(2, p.getWeightClass());
+        p.setBodyWeight(70.0);
+        assertEquals(4, p.getWeightClass());
+        competition.setWeightCategories("IWF-1993");
+        assertEquals(4, p.getWeightClass());
+        competition.setWeightCategories("IWF-2018");
+        assertEquals(4, p.getWeightClass());
+        competition.setWeightCategories("YOUTH");
+        assertEquals(5, p.getWeightClass());
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void setUnknownWeightCategories() throws Exception {
+        new Competition().setWeightCategories("UNKNOWN");
+    }
+
+}
@@ -0,0 +1,85 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.data.AddressRepository;
+import dk.aau.ida8.data.ClubRepository;
+import dk.aau.ida8.model.Address;
+import dk.aau.ida8.model.Club;
+import dk.aau.ida8.model.Lifter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class CacheServiceTest {
+
+    @Autowired
+    private CacheService cacheService;
+    @Autowired
+    private ClubService clubService;
+    @Autowired
+    private LifterService lifterService;
+    @Autowired
+    private ClubRepository clubRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private long clubId;
+
+    @Before
+    public void setUp() throws Exception {
+        transaction = new TransactionTemplate(transactionManager);
+        clubId = transaction.execute(status -> {
+            Address address = addressRepository.save(new Address("", "Nygade 114", "København K", "4000"));
+            return clubRepository.save(new Club("AK Cache", address)).getId();
+        });
+    }
+
+    private CacheService.RegionStatistics statistics(String region) {
+        for (CacheService.RegionStatistics s : cacheService.getStatistics()) {
+            if (s.getRegion().equals(region)) {
+                return s;
+            }
+        }
+        fail("no cache region " + region);
+        return null;
+    }
+
+    @Test
+    public void testClubReadFromCache() throws Exception {
+        long hits = statistics(Club.class.getName()).getHits();
+        transaction.execute(status -> clubService.findOne(clubId).getName());
+        transaction.execute(status -> clubService.findOne(clubId).getName());
+        assertTrue(statistics(Club.class.getName()).getHits() > hits);
+    }
+
+    @Test
+    public void testClubLiftersEvictedWhenLifterSaved() throws Exception {
+        assertEquals(0, transaction.execute(status -> clubService.findOne(clubId).getLifters().size())
+                .intValue());
+
+        transaction.execute(status -> {
+            Club club = clubService.findOne(clubId);
+            Lifter lifter = new Lifter("Lotte", "Selnø", club, Lifter.Gender.FEMALE,
+                    new GregorianCalendar(1989, 3, 10).getTime(), 60.0);
+            return lifterService.saveLifter(lifter);
+        });
+
+        assertEquals(1, transaction.execute(status -> clubService.findOne(clubId).getLifters().size())
+                .intValue());
+    }
+
+}
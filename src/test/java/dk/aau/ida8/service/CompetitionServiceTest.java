@@ -0,0 +1,164 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.data.AddressRepository;
+import dk.aau.ida8.data.ClubRepository;
+import dk.aau.ida8.data.LifterRepository;
+import dk.aau.ida8.model.Address;
+import dk.aau.ida8.model.Club;
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Lifter;
+import dk.aau.ida8.model.Participant;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class CompetitionServiceTest {
+
+    private static final int PAST_COMPETITIONS = CompetitionService.PAST_PAGE_SIZE + 5;
+
+    @Autowired
+    private CompetitionService competitionService;
+    @Autowired
+    private ClubRepository clubRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private LifterRepository lifterRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    // A day long before any other competition saved by the application or
+    // other tests, so that only the competitions saved here lie around it.
+    private Date day = new GregorianCalendar(1950, 5, 15, 12, 0).getTime();
+    private String prefix;
+    private Address address;
+    private Club club;
+    private List<Long> saved = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        prefix = "Date range " + UUID.randomUUID() + " ";
+        Address address = addressRepository.save(new Address("", "Nygade 114", "København K", "4000"));
+        Club club = clubRepository.save(new Club("AK Dato", address));
+        this.address = address;
+        this.club = club;
+        save(club, "today", at(0, 9));
+        save(club, "tonight", at(0, 23));
+        save(club, "tomorrow", at(1, 0));
+        for (int i = 1; i <= PAST_COMPETITIONS; i++) {
+            save(club, "past " + i, at(-i, 10));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        saved.forEach(competitionService::delete);
+    }
+
+    private Date at(int daysAfter, int hour) {
+        Calendar cal = new GregorianCalendar(1950, 5, 15, hour, 0);
+        cal.add(Calendar.DAY_OF_MONTH, daysAfter);
+        return cal.getTime();
+    }
+
+    private void save(Club club, String name, Date date) {
+        saved.add(competitionService.save(new Competition(prefix + name, club, address,
+                Competition.CompetitionType.SINCLAIR, date, date, 10)).getId());
+    }
+
+    private List<String> names(Collection<Competition> competitions) {
+        return competitions.stream()
+                .map(Competition::getCompetitionName)
+                .filter(n -> n.startsWith(prefix))
+                .map(n -> n.substring(prefix.length()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindOnDay() throws Exception {
+        assertEquals(Arrays.asList("today", "tonight"), names(competitionService.findOnDay(day)));
+    }
+
+    @Test
+    public void testFindAfterDay() throws Exception {
+        List<String> names = names(competitionService.findAfterDay(day));
+        assertEquals(Arrays.asList("tomorrow"), names);
+    }
+
+    @Test
+    public void testFindBeforeDayPaged() throws Exception {
+        Page<Competition> first = competitionService.findBeforeDay(day, 0);
+        assertEquals(PAST_COMPETITIONS, first.getTotalElements());
+        assertEquals(CompetitionService.PAST_PAGE_SIZE, first.getContent().size());
+        assertEquals("past 1", names(first.getContent()).get(0));
+
+        Page<Competition> second = competitionService.findBeforeDay(day, 1);
+        assertTrue(second.isLast());
+        assertEquals("past " + PAST_COMPETITIONS, names(second.getContent()).get(4));
+    }
+
+    @Test
+    public void testCompetitionDateIndexed() throws Exception {
+        List<String> indexes = new JdbcTemplate(dataSource).queryForList(
+                "select index_name from information_schema.indexes " +
+                "where table_name = 'COMPETITION' and column_name = 'COMPETITION_DATE'", String.class);
+        assertFalse(indexes.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentSignUpsGivenDistinctStartNumbers() throws Exception {
+        int lifters = 10;
+        Competition competition = competitionService.save(new Competition("Sign-up " + UUID.randomUUID(),
+                club, address, Competition.CompetitionType.SINCLAIR, new Date(), new Date(), lifters));
+        saved.add(competition.getId());
+        List<Long> lifterIds = new ArrayList<>();
+        for (int i = 0; i < lifters; i++) {
+            lifterIds.add(lifterRepository.save(new Lifter("Lifter", "No. " + i, club,
+                    Lifter.Gender.MALE, new GregorianCalendar(1990, 1, 1).getTime(), 80)).getId());
+        }
+
+        CyclicBarrier barrier = new CyclicBarrier(lifters);
+        ExecutorService executor = Executors.newFixedThreadPool(lifters);
+        try {
+            List<Future<Competition>> signUps = new ArrayList<>();
+            for (long lifterId : lifterIds) {
+                signUps.add(executor.submit(() -> {
+                    barrier.await();
+                    return competitionService.signUp(competition.getId(), lifterId);
+                }));
+            }
+            for (Future<Competition> signUp : signUps) {
+                signUp.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Integer> startNumbers = new ArrayList<>();
+        for (Participant p : competitionService.findOneWithParticipants(competition.getId()).getParticipants()) {
+            startNumbers.add(p.getStartNumber());
+        }
+        Collections.sort(startNumbers);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), startNumbers);
+    }
+
+}
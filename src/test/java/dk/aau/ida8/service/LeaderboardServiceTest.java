@@ -0,0 +1,81 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.model.Competition;
+import dk.aau.ida8.model.Leaderboard;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LeaderboardServiceTest {
+
+    private LeaderboardService leaderboardService;
+
+    @Before
+    public void setUp() throws Exception {
+        leaderboardService = new LeaderboardService();
+    }
+
+    private Competition createCompetition() {
+        Competition competition = mock(Competition.class);
+        when(competition.getId()).thenReturn(1L);
+        when(competition.getRankingGroups()).thenReturn(Collections.emptyList());
+        when(competition.getCurrentCompetingGroup()).thenReturn(Optional.empty());
+        return competition;
+    }
+
+    @Test
+    public void testLeaderboardShared() throws Exception {
+        Competition competition = createCompetition();
+        long version = leaderboardService.getVersion(1);
+        Leaderboard leaderboard = leaderboardService.getLeaderboard(competition, version);
+        assertSame(leaderboard, leaderboardService.getLeaderboard(competition, version));
+
+        leaderboardService.invalidate(1);
+        assertNotSame(leaderboard, leaderboardService.getLeaderboard(competition,
+                leaderboardService.getVersion(1)));
+    }
+
+    @Test
+    public void testInvalidatedBeforeGetNotShared() throws Exception {
+        long version = leaderboardService.getVersion(1);
+        Competition stale = createCompetition();
+        leaderboardService.invalidate(1);
+        Leaderboard staleLeaderboard = leaderboardService.getLeaderboard(stale, version);
+
+        Leaderboard current = leaderboardService.getLeaderboard(createCompetition(),
+                leaderboardService.getVersion(1));
+        assertNotSame(staleLeaderboard, current);
+    }
+
+    @Test
+    public void testInvalidatedDuringGetNotShared() throws Exception {
+        long version = leaderboardService.getVersion(1);
+        Competition stale = createCompetition();
+        // The competition changes while its leaderboard is being created
+        when(stale.getRankingGroups()).thenAnswer(invocation -> {
+            leaderboardService.invalidate(1);
+            return Collections.emptyList();
+        });
+        Leaderboard staleLeaderboard = leaderboardService.getLeaderboard(stale, version);
+
+        Leaderboard current = leaderboardService.getLeaderboard(createCompetition(),
+                leaderboardService.getVersion(1));
+        assertNotSame(staleLeaderboard, current);
+    }
+
+    @Test
+    public void testInvalidateAllAdvancesVersion() throws Exception {
+        long version = leaderboardService.getVersion(1);
+        Leaderboard leaderboard = leaderboardService.getLeaderboard(createCompetition(), version);
+        leaderboardService.invalidateAll();
+        assertNotEquals(version, leaderboardService.getVersion(1));
+        assertNotSame(leaderboard, leaderboardService.getLeaderboard(createCompetition(),
+                leaderboardService.getVersion(1)));
+    }
+
+}
@@ -0,0 +1,127 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.Application;
+import dk.aau.ida8.data.AddressRepository;
+import dk.aau.ida8.data.ClubRepository;
+import dk.aau.ida8.data.CompetitionRepository;
+import dk.aau.ida8.data.LifterRepository;
+import dk.aau.ida8.metrics.RequestStatistics;
+import dk.aau.ida8.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+public class RequestStatisticsServiceTest {
+
+    private static final int PARTICIPANTS = 5;
+
+    @Autowired
+    private RequestStatisticsService requestStatisticsService;
+    @Autowired
+    private CompetitionRepository competitionRepository;
+    @Autowired
+    private LifterRepository lifterRepository;
+    @Autowired
+    private ClubRepository clubRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private int queryBudget;
+    private long competitionId;
+
+    @Before
+    public void setUp() throws Exception {
+        transaction = new TransactionTemplate(transactionManager);
+        queryBudget = requestStatisticsService.getQueryBudget();
+        competitionId = transaction.execute(status -> {
+            Address address = addressRepository.save(new Address("", "Østerbro 33", "Aalborg", "9000"));
+            Club club = clubRepository.save(new Club("AK Statistics", address));
+            Competition competition = new Competition("Statistics competition", club, address,
+                    Competition.CompetitionType.SINCLAIR, new Date(), new Date(), PARTICIPANTS);
+            for (int i = 0; i < PARTICIPANTS; i++) {
+                competition.addParticipant(lifterRepository.save(new Lifter("Lifter", "No. " + i, club,
+                        Lifter.Gender.MALE, new GregorianCalendar(1990, 1, 1).getTime(), 80)));
+            }
+            return competitionRepository.save(competition).getId();
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        requestStatisticsService.setQueryBudget(queryBudget);
+        requestStatisticsService.reset();
+    }
+
+    private RequestStatisticsService.HandlerStatistics statistics(String handler) {
+        for (RequestStatisticsService.HandlerStatistics s : requestStatisticsService.getStatistics()) {
+            if (s.getHandler().equals(handler)) {
+                return s;
+            }
+        }
+        fail("no statistics for " + handler);
+        return null;
+    }
+
+    @Test
+    public void testLoadsRecorded() throws Exception {
+        requestStatisticsService.begin("Test.participants");
+        transaction.execute(status -> {
+            for (Participant p : competitionRepository.findOne(competitionId).getParticipants()) {
+                p.getLifter().getFullName();
+            }
+            return null;
+        });
+        RequestStatistics request = requestStatisticsService.end("/test");
+        assertTrue(request.getStatements() >= 2);
+        assertTrue(request.getEntityLoads() >= 1 + PARTICIPANTS);
+        assertTrue(request.getCollectionFetches() >= 1);
+
+        RequestStatisticsService.HandlerStatistics handler = statistics("Test.participants");
+        assertEquals(1, handler.getRequests());
+        assertEquals(request.getStatements(), handler.getStatements());
+        assertEquals(request.getStatements(), handler.getMaxStatements());
+        assertEquals(0, handler.getOverBudget());
+    }
+
+    @Test
+    public void testFlushTimed() throws Exception {
+        requestStatisticsService.begin("Test.save");
+        transaction.execute(status -> addressRepository.save(new Address("", "Nygade 114", "København K", "4000")));
+        RequestStatistics request = requestStatisticsService.end("/test");
+        assertTrue(request.getStatements() >= 1);
+        assertTrue(request.getFlushNanos() > 0);
+    }
+
+    @Test
+    public void testOverBudgetFlagged() throws Exception {
+        requestStatisticsService.setQueryBudget(0);
+        requestStatisticsService.begin("Test.overBudget");
+        competitionRepository.findOne(competitionId);
+        requestStatisticsService.end("/test");
+        assertEquals(1, statistics("Test.overBudget").getOverBudget());
+    }
+
+    @Test
+    public void testNotRecordedOutsideRequest() throws Exception {
+        competitionRepository.findOne(competitionId);
+        assertNull(requestStatisticsService.end("/test"));
+        assertTrue(requestStatisticsService.getStatistics().isEmpty());
+    }
+
+}
@@ -0,0 +1,86 @@
+package dk.aau.ida8.service;
+
+import dk.aau.ida8.model.Leaderboard;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScoreboardServiceTest {
+
+    private ScoreboardService scoreboardService;
+    private Leaderboard leaderboard;
+    private CountDownLatch sending;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws Exception {
+        scoreboardService = new ScoreboardService();
+        leaderboard = mock(Leaderboard.class);
+        when(leaderboard.getCompetitionId()).thenReturn(1L);
+        sending = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        scoreboardService.shutdown();
+    }
+
+    /**
+     * An emitter whose sends block until released, as where a scoreboard's
+     * connection has stalled.
+     */
+    private class StalledEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("connection reset");
+        }
+    }
+
+    @Test
+    public void testStalledSubscriberDoesNotBlockPublish() throws Exception {
+        scoreboardService.subscribe(leaderboard, new StalledEmitter());
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        for (int i = 0; i < ScoreboardService.MAX_PENDING; i++) {
+            scoreboardService.publish(leaderboard, leaderboard, null);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1, scoreboardService.getSubscriberCount(1L));
+
+        scoreboardService.publish(leaderboard, leaderboard, null);
+        assertEquals(0, scoreboardService.getSubscriberCount(1L));
+    }
+
+    @Test
+    public void testFailingSubscriberDropped() throws Exception {
+        scoreboardService.subscribe(leaderboard, new FailingEmitter());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scoreboardService.getSubscriberCount(1L) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scoreboardService.getSubscriberCount(1L));
+    }
+}
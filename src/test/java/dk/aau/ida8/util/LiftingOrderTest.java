@@ -0,0 +1,82 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Participant;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LiftingOrderTest {
+
+    private Comparator<Participant> comparator;
+    private List<Participant> participants;
+    private int[] weights;
+
+    @Before
+    public void setUp() throws Exception {
+        comparator = Comparator.comparing(Participant::getCurrentWeight)
+                .thenComparing(Participant::getStartNumber);
+        participants = new ArrayList<>();
+        weights = new int[20];
+        Random random = new Random(20);
+        for (int i = 0; i < weights.length; i++) {
+            Participant p = mock(Participant.class);
+            weights[i] = 50 + random.nextInt(50);
+            when(p.getCurrentWeight()).thenReturn(weights[i]);
+            when(p.getStartNumber()).thenReturn(i + 1);
+            participants.add(p);
+        }
+    }
+
+    @Test
+    public void testPeek() throws Exception {
+        LiftingOrder order = new LiftingOrder(participants, comparator);
+        assertEquals(Collections.min(participants, comparator), order.peek());
+        assertEquals(participants.size(), order.size());
+    }
+
+    @Test
+    public void testPeekEmpty() throws Exception {
+        LiftingOrder order = new LiftingOrder(new ArrayList<>(), comparator);
+        assertNull(order.peek());
+    }
+
+    /**
+     * Tests that the lifting order follows changes in participants' weights,
+     * whether the weight is increased or decreased.
+     */
+    @Test
+    public void testUpdate() throws Exception {
+        LiftingOrder order = new LiftingOrder(participants, comparator);
+        Random random = new Random(8);
+        for (int i = 0; i < 200; i++) {
+            int n = random.nextInt(participants.size());
+            Participant p = participants.get(n);
+            weights[n] += random.nextInt(21) - 10;
+            when(p.getCurrentWeight()).thenReturn(weights[n]);
+            order.update(p);
+            assertEquals(Collections.min(participants, comparator), order.peek());
+        }
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        LiftingOrder order = new LiftingOrder(participants, comparator);
+        Participant p = mock(Participant.class);
+        when(p.getCurrentWeight()).thenReturn(1);
+        when(p.getStartNumber()).thenReturn(21);
+        assertFalse(order.contains(p));
+        order.add(p);
+        assertTrue(order.contains(p));
+        assertEquals(p, order.peek());
+    }
+
+}
@@ -0,0 +1,67 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Lifter;
+import dk.aau.ida8.model.Participant;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SinclairCalculatorTest {
+
+    private static final double DELTA = 1e-9;
+
+    private SinclairCoefficient coefficients =
+            new SinclairCoefficient(2013, 0.704358141, 174.393, 0.897260740, 148.026);
+    private SinclairCalculator calculator = new SinclairCalculator(coefficients);
+
+    private Participant mockParticipant(Lifter.Gender gender, double bodyWeight, int total) {
+        Participant p = mock(Participant.class);
+        when(p.getGender()).thenReturn(gender);
+        when(p.getBodyWeight()).thenReturn(bodyWeight);
+        when(p.getTotalScore()).thenReturn(total);
+        return p;
+    }
+
+    private double expectedScore(double coefficient, double wrhBodyweight,
+                                 double bodyWeight, int total) {
+        return total * Math.pow(10, coefficient * Math.pow(Math.log10(bodyWeight / wrhBodyweight), 2));
+    }
+
+    @Test
+    public void testCalculateScoreMale() throws Exception {
+        double[] bodyWeights = {56.0, 77.35, 104.99, 174.393, 180.01};
+        for (double bw : bodyWeights) {
+            Participant p = mockParticipant(Lifter.Gender.MALE, bw, 300);
+            double expected = expectedScore(coefficients.getMaleCoefficient(),
+                    coefficients.getMaleWrhBodyweight(), bw, 300);
+            assertEquals(expected, calculator.calculateScore(p), DELTA);
+        }
+    }
+
+    @Test
+    public void testCalculateScoreFemale() throws Exception {
+        double[] bodyWeights = {48.0, 62.57, 75.1, 148.026};
+        for (double bw : bodyWeights) {
+            Participant p = mockParticipant(Lifter.Gender.FEMALE, bw, 200);
+            double expected = expectedScore(coefficients.getFemaleCoefficient(),
+                    coefficients.getFemaleWrhBodyweight(), bw, 200);
+            assertEquals(expected, calculator.calculateScore(p), DELTA);
+        }
+    }
+
+    /**
+     * Tests that body weights falling outside the precomputed table still
+     * have their coefficients calculated.
+     */
+    @Test
+    public void testCalculateScoreOutsideTable() throws Exception {
+        double bw = SinclairCoefficientTable.MAX_BODY_WEIGHT + 10;
+        Participant p = mockParticipant(Lifter.Gender.MALE, bw, 300);
+        double expected = expectedScore(coefficients.getMaleCoefficient(),
+                coefficients.getMaleWrhBodyweight(), bw, 300);
+        assertEquals(expected, calculator.calculateScore(p), DELTA);
+    }
+
+}
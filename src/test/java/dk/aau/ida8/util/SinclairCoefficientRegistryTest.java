@@ -0,0 +1,60 @@
+package dk.aau.ida8.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SinclairCoefficientRegistryTest {
+
+    @After
+    public void tearDown() throws Exception {
+        SinclairCoefficientRegistry.loadDefault();
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        String csv = "# comment\n\n2013,0.7,174.3,0.8,148.0\n 2017 , 0.75, 175.5, 0.78, 153.6\n";
+        List<SinclairCoefficient> coefficients =
+                SinclairCoefficientRegistry.parse(new StringReader(csv));
+        assertEquals(2, coefficients.size());
+        assertEquals(2017, coefficients.get(1).getCycle());
+        assertEquals(0.78, coefficients.get(1).getFemaleCoefficient(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidLine() throws Exception {
+        SinclairCoefficientRegistry.parse(new StringReader("2013,0.7,174.3\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseEmpty() throws Exception {
+        SinclairCoefficientRegistry.parse(new StringReader("# nothing\n"));
+    }
+
+    @Test
+    public void testGetCalculator() throws Exception {
+        assertEquals(2013, SinclairCoefficientRegistry.getCalculator(2016).getCoefficients().getCycle());
+        assertEquals(2017, SinclairCoefficientRegistry.getCalculator(2017).getCoefficients().getCycle());
+        assertEquals(2009, SinclairCoefficientRegistry.getCalculator(1990).getCoefficients().getCycle());
+        assertEquals(2021, SinclairCoefficientRegistry.getCalculator(2026).getCoefficients().getCycle());
+        assertEquals(2021, SinclairCoefficientRegistry.getLatestCalculator().getCoefficients().getCycle());
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        int generation = SinclairCoefficientRegistry.getGeneration();
+        String csv = "2025,0.7,180.0,0.8,150.0\n";
+        SinclairCoefficientRegistry.load(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(generation + 1, SinclairCoefficientRegistry.getGeneration());
+        assertEquals(1, SinclairCoefficientRegistry.getCoefficients().size());
+        assertEquals(2025, SinclairCoefficientRegistry.getCalculator(2016).getCoefficients().getCycle());
+    }
+
+}
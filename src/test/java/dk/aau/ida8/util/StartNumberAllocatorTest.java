@@ -0,0 +1,52 @@
+package dk.aau.ida8.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StartNumberAllocatorTest {
+
+    @Test
+    public void testAllocateAll() throws Exception {
+        StartNumberAllocator allocator = new StartNumberAllocator(50, Collections.emptyList());
+        Set<Integer> allocated = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            int n = allocator.allocate();
+            assertTrue(n >= 1 && n <= 50);
+            assertTrue(allocated.add(n));
+        }
+        assertEquals(0, allocator.getAvailableCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAllocateExhausted() throws Exception {
+        StartNumberAllocator allocator = new StartNumberAllocator(2, Arrays.asList(1, 2));
+        allocator.allocate();
+    }
+
+    @Test
+    public void testExistingAllocations() throws Exception {
+        StartNumberAllocator allocator = new StartNumberAllocator(5, Arrays.asList(2, 4, 0, 9));
+        assertEquals(Arrays.asList(1, 3, 5), allocator.getAvailable());
+        assertFalse(allocator.isAvailable(2));
+        assertTrue(allocator.isAvailable(3));
+    }
+
+    @Test
+    public void testReleaseAndReserve() throws Exception {
+        StartNumberAllocator allocator = new StartNumberAllocator(3, Arrays.asList(1, 2, 3));
+        allocator.release(2);
+        assertEquals(Arrays.asList(2), allocator.getAvailable());
+        assertEquals(2, allocator.allocate());
+        assertFalse(allocator.reserve(2));
+        allocator.release(3);
+        assertTrue(allocator.reserve(3));
+        assertEquals(0, allocator.getAvailableCount());
+    }
+
+}
@@ -0,0 +1,71 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Address;
+import dk.aau.ida8.model.Club;
+import dk.aau.ida8.model.Lift;
+import dk.aau.ida8.model.Lifter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SyntheticMeetGeneratorTest {
+
+    private static final int LIFTERS = 1000;
+
+    private Club club;
+
+    @Before
+    public void setUp() throws Exception {
+        club = new Club("AK Jyden", new Address("", "Østerbro 33", "9000", "Aalborg"));
+    }
+
+    @Test
+    public void testSameSeedSameValues() throws Exception {
+        SyntheticMeetGenerator a = new SyntheticMeetGenerator(42);
+        SyntheticMeetGenerator b = new SyntheticMeetGenerator(42);
+        for (int i = 0; i < 100; i++) {
+            Lifter la = a.nextLifter(club);
+            Lifter lb = b.nextLifter(club);
+            assertEquals(la.getFullName(), lb.getFullName());
+            assertEquals(la.getGender(), lb.getGender());
+            assertEquals(la.getDateOfBirth(), lb.getDateOfBirth());
+            assertEquals(la.getBodyWeight(), lb.getBodyWeight(), 0);
+            assertEquals(a.nextStartingSnatch(la, 80), b.nextStartingSnatch(lb, 80));
+            assertEquals(a.nextOutcome(), b.nextOutcome());
+        }
+    }
+
+    @Test
+    public void testLifterWeightsWithinBounds() throws Exception {
+        SyntheticMeetGenerator generator = new SyntheticMeetGenerator(1);
+        for (int i = 0; i < LIFTERS; i++) {
+            Lifter lifter = generator.nextLifter(club);
+            assertTrue(lifter.getBodyWeight() >= 42 && lifter.getBodyWeight() <= 170);
+
+            double bodyWeight = generator.nextWeighInBodyWeight(lifter);
+            assertTrue(Math.abs(bodyWeight - lifter.getBodyWeight()) < 5);
+
+            int snatch = generator.nextStartingSnatch(lifter, bodyWeight);
+            int cleanAndJerk = generator.nextStartingCleanAndJerk(snatch);
+            assertTrue(snatch >= 20);
+            assertTrue(snatch <= 2 * bodyWeight + 1);
+            assertTrue(cleanAndJerk > snatch);
+        }
+    }
+
+    @Test
+    public void testOutcomesMostlyPassed() throws Exception {
+        SyntheticMeetGenerator generator = new SyntheticMeetGenerator(1);
+        Map<Lift.LiftOutcome, Integer> outcomes = new EnumMap<>(Lift.LiftOutcome.class);
+        for (int i = 0; i < LIFTERS; i++) {
+            outcomes.merge(generator.nextOutcome(), 1, Integer::sum);
+        }
+        assertTrue(outcomes.get(Lift.LiftOutcome.PASS) > outcomes.get(Lift.LiftOutcome.FAIL));
+        assertTrue(outcomes.get(Lift.LiftOutcome.FAIL) > outcomes.get(Lift.LiftOutcome.ABSTAIN));
+    }
+
+}
@@ -0,0 +1,56 @@
+package dk.aau.ida8.util;
+
+import dk.aau.ida8.model.Lifter;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class WeightCategoriesTest {
+
+    private final WeightCategories categories = new WeightCategories("TEST",
+            new double[]{52, 56, 67.5}, new double[]{44, 48});
+
+    @Test
+    public void testFind() throws Exception {
+        assertEquals(1, categories.find(Lifter.Gender.MALE, 40.0));
+        assertEquals(1, categories.find(Lifter.Gender.MALE, 52.0));
+        assertEquals(2, categories.find(Lifter.Gender.MALE, 52.1));
+        assertEquals(3, categories.find(Lifter.Gender.MALE, 67.5));
+        assertEquals(4, categories.find(Lifter.Gender.MALE, 67.6));
+        assertEquals(2, categories.find(Lifter.Gender.FEMALE, 48.0));
+        assertEquals(3, categories.find(Lifter.Gender.FEMALE, 100.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitsNotAscending() throws Exception {
+        new WeightCategories("TEST", new double[]{56, 52}, new double[]{44});
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        String csv = "# comment\n\nA,MALE,56,62\nA,FEMALE,48\n B , MALE , 50 \nB,FEMALE,40,45.5\n";
+        Map<String, WeightCategories> parsed = WeightClass.parse(new StringReader(csv));
+        assertArrayEquals(new Object[]{"A", "B"}, parsed.keySet().toArray());
+        assertArrayEquals(new double[]{40, 45.5}, parsed.get("B").getLimits(Lifter.Gender.FEMALE), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingGender() throws Exception {
+        WeightClass.parse(new StringReader("A,MALE,56,62\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidLine() throws Exception {
+        WeightClass.parse(new StringReader("A,UNKNOWN,56\n"));
+    }
+
+    @Test
+    public void testDefaultResource() throws Exception {
+        assertTrue(WeightClass.getCategoryNames().contains(WeightClass.DEFAULT_CATEGORIES));
+        assertEquals(1, WeightClass.getCategories("YOUTH").find(Lifter.Gender.FEMALE, 40.0));
+        assertEquals(10, WeightClass.getCategories("IWF-2018").find(Lifter.Gender.MALE, 110.0));
+    }
+}
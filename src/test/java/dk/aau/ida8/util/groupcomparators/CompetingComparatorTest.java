@@ -48,6 +48,8 @@ public class CompetingComparatorTest {
             when(p.getLiftsCount()).thenReturn(0);
             when(p.getCurrentWeight()).thenReturn(50);
             when(p.getLifts()).thenReturn(emptyLifts);
+            when(p.getFirstSnatchTimestamp()).thenReturn(LocalDateTime.of(2000, 1, 1, 19, 0, 0));
+            when(p.getFirstCleanAndJerkTimestamp()).thenReturn(LocalDateTime.of(2000, 1, 1, 19, 0, 0));
             participants.add(p);
         }
 
@@ -75,6 +77,8 @@ public class CompetingComparatorTest {
         when(participants.get(6).getLiftsCount()).thenReturn(1);
         when(participants.get(5).getLifts()).thenReturn(Arrays.asList(l1));
         when(participants.get(6).getLifts()).thenReturn(Arrays.asList(l2));
+        when(participants.get(5).getFirstSnatchTimestamp()).thenReturn(LocalDateTime.of(2000, 1, 1, 18, 0, 0));
+        when(participants.get(6).getFirstSnatchTimestamp()).thenReturn(LocalDateTime.of(2000, 1, 1, 18, 0, 1));
 
         // Mock participants to be compared based on start number
         // P7 should come before P8